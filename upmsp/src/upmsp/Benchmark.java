@@ -0,0 +1,186 @@
+package upmsp;
+
+import upmsp.algorithm.constructive.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class contains simple micro-benchmarks of the main solver kernels. The benchmarks run on randomly generated
+ * instances, so that no input file is required.
+ *
+ * @author Tulio Toffolo
+ */
+public class Benchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    // results of the measured kernels, accumulated so that they are not optimized away
+    private static long checksum = 0;
+
+    /**
+     * The entry point of the benchmarks.
+     *
+     * @param args the input arguments
+     */
+    public static void main(String[] args) {
+        Locale.setDefault(new Locale("en-US"));
+        String benchmark = args.length > 0 ? args[0].toLowerCase() : "insertion";
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+
+        switch (benchmark) {
+            case "insertion":
+                benchmarkInsertion(new Random(seed), new int[]{ 20, 100, 500 });
+                break;
+            case "constructive":
+                benchmarkConstructive(new Random(seed), new int[][]{ { 100, 10 }, { 500, 20 }, { 1000, 20 } });
+                break;
+            default:
+                System.out.println("Usage: java -cp upmsp.jar upmsp.Benchmark <benchmark> [seed]");
+                System.out.println("    <benchmark> : insertion (best-insertion position scans) or");
+                System.out.println("                  constructive (running times and makespans of the constructives).");
+        }
+    }
+
+    /**
+     * Generates a random instance with process times in [1, 99] and setup times in [1, 49].
+     *
+     * @param nJobs     number of jobs.
+     * @param nMachines number of machines.
+     * @param random    random number generator.
+     * @return the random problem generated.
+     */
+    public static Problem randomProblem(int nJobs, int nMachines, Random random) {
+        int processTimes[][] = new int[nMachines][nJobs];
+        int setupTimes[][][] = new int[nMachines][nJobs][nJobs];
+
+        for (int m = 0; m < nMachines; m++) {
+            for (int j = 0; j < nJobs; j++) {
+                processTimes[m][j] = 1 + random.nextInt(99);
+                for (int k = 0; k < nJobs; k++)
+                    setupTimes[m][j][k] = j == k ? 0 : 1 + random.nextInt(49);
+            }
+        }
+
+        return new Problem(processTimes, setupTimes);
+    }
+
+    /**
+     * Compares the scalar and the specialized best-insertion scans of {@link Machine#getBestPositionAddJob(int)}
+     * on machines with different numbers of jobs.
+     */
+    private static void benchmarkInsertion(Random random, int sizes[]) {
+        final int nInserted = 200;
+
+        System.out.printf("Best-insertion scans (ns per scan):\n\n");
+        System.out.printf("    /-------------------------------------------------\\\n");
+        System.out.printf("    | %8s | %10s | %10s | %10s |\n", "Jobs", "Scalar", "Fast", "Speedup");
+        System.out.printf("    |----------|------------|------------|------------|\n");
+
+        for (int size : sizes) {
+            Problem problem = randomProblem(size + nInserted, 1, random);
+            Solution solution = new Solution(problem);
+            Machine machine = solution.machines[0];
+            for (int j = 0; j < size; j++)
+                machine.addJob(j);
+
+            int nScans = Math.max(1, 20000000 / (size + 1) / nInserted);
+            double times[] = new double[2];
+
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                for (int mode = 0; mode < 2; mode++) {
+                    Machine.fastInsertionScan = mode == 1;
+
+                    long sum = 0;
+                    long start = System.nanoTime();
+                    for (int s = 0; s < nScans; s++)
+                        for (int job = size; job < size + nInserted; job++)
+                            sum += machine.getBestPositionAddJob(job);
+                    long elapsed = System.nanoTime() - start;
+
+                    if (round >= WARMUP_ROUNDS)
+                        times[mode] += elapsed / ( double ) (nScans * nInserted);
+                    checksum += sum;
+                }
+            }
+
+            // checking that both kernels agree on every position
+            for (int job = size; job < size + nInserted; job++) {
+                Machine.fastInsertionScan = false;
+                int scalarPos = machine.getBestPositionAddJob(job);
+                Machine.fastInsertionScan = true;
+                if (scalarPos != machine.getBestPositionAddJob(job))
+                    throw new IllegalStateException("Error: insertion kernels disagree for job " + job + ".");
+            }
+
+            System.out.printf("    | %8d | %10.1f | %10.1f | %9.2fx |\n", size,
+              times[0] / MEASURED_ROUNDS, times[1] / MEASURED_ROUNDS, times[0] / times[1]);
+        }
+        System.out.printf("    \\-------------------------------------------------/\n\n");
+
+        Machine.fastInsertionScan = true;
+    }
+
+    /**
+     * Compares the running times and the makespans of the solutions of the constructives on instances of different
+     * sizes. Each constructive is executed once for warm-up and then MEASURED_ROUNDS times (with different seeds).
+     */
+    private static void benchmarkConstructive(Random random, int sizes[][]) {
+        String names[] = { "random", "greedy", "insertion", "min-min", "max-min", "regret-2", "regret-3" };
+
+        System.out.printf("Constructives (mean time and makespan of %d runs):\n\n", MEASURED_ROUNDS);
+        System.out.printf("    /------------------------------------------------------------\\\n");
+        System.out.printf("    | %6s | %8s | %-12s | %10s | %10s |\n", "Jobs", "Machines", "Constructive", "Time (ms)", "Makespan");
+        System.out.printf("    |--------|----------|--------------|------------|------------|\n");
+
+        for (int size[] : sizes) {
+            Problem problem = randomProblem(size[0], size[1], random);
+
+            for (String name : names) {
+                double millis = 0, makespan = 0;
+                for (int round = 0; round <= MEASURED_ROUNDS; round++) {
+                    Random constructiveRandom = new Random(round);
+                    long start = System.nanoTime();
+                    Solution solution = createSolution(name, problem, constructiveRandom);
+                    long elapsed = System.nanoTime() - start;
+
+                    // the first round is a warm-up
+                    if (round > 0) {
+                        millis += elapsed / 1e6;
+                        makespan += solution.getCost();
+                    }
+                    if (!solution.validate(System.err))
+                        throw new IllegalStateException("Error: constructive " + name + " generated an invalid solution.");
+                    checksum += solution.getCost();
+                }
+                System.out.printf("    | %6d | %8d | %-12s | %10.2f | %10.1f |\n", size[0], size[1], name,
+                  millis / MEASURED_ROUNDS, makespan / MEASURED_ROUNDS);
+            }
+            if (size != sizes[sizes.length - 1])
+                System.out.printf("    |--------|----------|--------------|------------|------------|\n");
+        }
+        System.out.printf("    \\------------------------------------------------------------/\n\n");
+    }
+
+    /**
+     * Creates a solution with the constructive {@param name}.
+     */
+    private static Solution createSolution(String name, Problem problem, Random random) {
+        switch (name) {
+            case "random":
+                return SimpleConstructive.randomSolution(problem, random);
+            case "greedy":
+                return SimpleConstructive.greedySolution(problem, random);
+            case "insertion":
+                return new InsertionConstructive(problem, random, 1).build();
+            case "min-min":
+                return SimpleConstructive.minMinSolution(problem, random);
+            case "max-min":
+                return SimpleConstructive.maxMinSolution(problem, random);
+            default:
+                return SimpleConstructive.regretSolution(problem, random, Integer.parseInt(name.substring(name.indexOf('-') + 1)));
+        }
+    }
+}
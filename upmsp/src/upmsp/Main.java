@@ -1,8 +1,12 @@
 package upmsp;
 
+import upmsp.algorithm.acceptance.*;
 import upmsp.algorithm.constructive.*;
 import upmsp.algorithm.heuristic.*;
+import upmsp.algorithm.intensification.*;
+import upmsp.algorithm.multilevel.*;
 import upmsp.algorithm.neighborhood.*;
+import upmsp.algorithm.parallel.*;
 import upmsp.model.*;
 import upmsp.model.solution.*;
 import upmsp.util.*;
@@ -31,14 +35,72 @@ public class Main {
     public static long seed = 0;
     public static long maxIters = ( long ) 1e8;
     public static long timeLimit = 60 * 1000;
+    public static int threads = 1;
+    public static String constructive = "random";
+
+    // Speculative evaluation
+    public static int batchSize = 0;
+    public static boolean batchFirst = true;
+
+    // Machine groups
+    public static int groupSize = 2;
+    public static long groupIters = 1000;
+
+    // Island model
+    public static String islands = "sa,lahc,schc,ils";
+    public static long migrationTime = 5 * 1000;
+    public static boolean fullyConnected = false;
+
+    // Portfolio
+    public static String portfolio = "sa,lahc,schc,ils";
+    public static long sliceTime = 1000;
 
     public static int bestKnown = Integer.MAX_VALUE;
 
+    public static boolean fastInsertionScan = true;
+    public static boolean useInsertionCache = true;
+
+    // Multilevel search
+    public static int coarsenJobs = 0;
+
+    // Decomposition
+    public static int decomposeGroups = 0;
+    public static double decomposeShare = 0.5;
+
     // ILS
     public static long rnaMax = 9000000;
     public static int itersP = 700;
     public static int p0 = 80;
     public static int pMax = 6;
+    public static String descent = "random";
+
+    // Elite pool and path relinking (ILS)
+    public static int eliteSize = 0;
+    public static double eliteDistance = 0.05;
+    public static long relinkIters = 100000;
+    public static int relinkIntermediates = 3;
+
+    // Memetic algorithm
+    public static int populationSize = 20;
+    public static int nOffspring = 8;
+    public static String memeticSearch = "descent";
+    public static long memeticIters = 10000;
+    public static long memeticTime = 100;
+
+    // VND
+    public static String vndOrder = VND.DEFAULT_ORDER;
+    public static boolean vndFirstImprovement = true;
+    public static long vndSamples = 1000;
+
+    // Resequencing (exact DP)
+    public static boolean resequence = false;
+    public static int dpExact = 15;
+    public static int dpWindow = 8;
+    public static int dpParallel = 8;
+
+    // Parallel tempering
+    public static int replicas = 4;
+    public static long exchangeIters = 10000;
 
     // LAHC
     public static int listSize = ( int ) 1000;
@@ -51,12 +113,32 @@ public class Main {
     // SCHC
     public static int stepSize = 1000;
 
-    // Neighborhoods
+    // Tabu search
+    public static int tabuTenure = 10;
+    public static int tabuNeighborhoods = 3;
+
+    // LNS
+    public static int lnsMin = 5;
+    public static int lnsMax = 20;
+    public static int regretK = 2;
+    public static String lnsAcceptance = "lahc";
+
+    // Ejection chain
+    public static int chainDepth = 3;
+
+    // TaskMoveBest
+    public static int parallelThreshold = 5000;
+
+    // Repartition
+    public static int repartitionExact = 12;
+    public static int repartitionNodes = 10000;
+
+    // Neighborhoods (only the original ones, 0..5, are enabled by default)
     public static boolean neighborhoods[];
 
     static {
-        neighborhoods = new boolean[6 * 4];
-        for (int i = 0; i < neighborhoods.length; i++)
+        neighborhoods = new boolean[13 * 4];
+        for (int i = 0; i < 6 * 4; i++)
             neighborhoods[i] = true;
     }
 
@@ -75,6 +157,7 @@ public class Main {
 
         Problem problem = new Problem(inFile);
         Random random = new Random(seed);
+        Machine.fastInsertionScan = fastInsertionScan;
 
         // check if solver should be executed only as a validator
         if (validate) {
@@ -91,35 +174,56 @@ public class Main {
         }
 
         Heuristic solver;
-        switch (algorithm) {
-            case "lahc":
-                solver = new LAHC(problem, random, listSize);
-                break;
-            case "lahc-ils":
-                solver = new ILS(problem, random, new LAHC(problem, random, listSize), rnaMax, itersP, p0, pMax);
-                break;
-            case "ils":
-                solver = new ILS(problem, random, rnaMax, itersP, p0, pMax);
-                break;
-            case "sa":
-                solver = new SA(problem, random, alpha, t0, saMax);
-                break;
-            case "sa-ils":
-                solver = new ILS(problem, random, new SA(problem, random, alpha, t0, saMax), rnaMax, itersP, p0, pMax);
-                break;
-            case "schc":
-                solver = new SCHC(problem, random, stepSize);
-                break;
-            case "schc-ils":
-                solver = new ILS(problem, random, new SCHC(problem, random, stepSize), rnaMax, itersP, p0, pMax);
-                break;
-            default:
-                System.exit(-1);
-                return;
+        if (algorithm.equals("islands")) {
+            solver = createIslandModel(problem, random);
+        }
+        else if (algorithm.equals("portfolio")) {
+            solver = createPortfolio(problem, random);
+        }
+        else if (batchSize > 0) {
+            solver = createSpeculativeSearch(problem, random);
+        }
+        else if (algorithm.equals("pils")) {
+            solver = new ParallelILS(problem, random, threads, itersP, p0, pMax, (p, r) -> createSolver("ils", p, r));
+        }
+        else if (algorithm.equals("memetic")) {
+            int minDistance = Math.max(1, ( int ) Math.round(eliteDistance * problem.nJobs));
+            solver = new MemeticAlgorithm(problem, random, threads, populationSize, minDistance, nOffspring, memeticIters, memeticTime,
+              (p, r) -> {
+                Heuristic localSearch = memeticSearch.equals("descent") ? new Descent(p, r) : new LAHC(p, r, listSize);
+                createNeighborhoods(p, r, localSearch);
+                return localSearch;
+            });
+        }
+        else if (algorithm.equals("pt")) {
+            solver = new ParallelTempering(problem, random, replicas, exchangeIters, (p, r) -> {
+                Heuristic replica = new ReplicaSA(p, r, t0);
+                createNeighborhoods(p, r, replica);
+                return replica;
+            });
+        }
+        else {
+            boolean multiStart = threads > 1 && !algorithm.equals("groups");
+            solver = createSolver(problem, random);
+            if (solver != null && coarsenJobs > 0 && problem.nJobs > coarsenJobs)
+                solver = new MultilevelSearch(problem, random, coarsenJobs,
+                  (p, r) -> multiStart ? new MultiStart(p, r, threads, Main::createSolver) : createSolver(p, r));
+            else if (solver != null && decomposeGroups > 1) {
+                if (algorithm.equals("lns")) {
+                    System.out.println("Decomposition does not support the algorithm " + algorithm + ".");
+                    solver = null;
+                }
+                else {
+                    solver = new DecompositionSearch(problem, random, decomposeGroups, threads, decomposeShare, Main::createSolver);
+                }
+            }
+            else if (solver != null && multiStart)
+                solver = new MultiStart(problem, random, threads, Main::createSolver);
+        }
+        if (solver == null) {
+            System.exit(-1);
+            return;
         }
-
-        // adding moves (neighborhoods)
-        createNeighborhoods(problem, random, solver);
 
         System.out.printf("Instance....: %s\n", inFile);
         System.out.printf("Algorithm...: %s\n", solver);
@@ -132,7 +236,12 @@ public class Main {
         startTimeMillis = System.currentTimeMillis();
 
         // generating initial solution
-        Solution solution = SimpleConstructive.randomSolution(problem, random);
+        Solution solution = createInitialSolution(problem, random);
+        if (solution == null) {
+            System.out.println("Constructive " + constructive + " does not exist.");
+            System.exit(-1);
+            return;
+        }
         Util.safePrintStatus(System.out, 0, solution, solution, "s0");
         assert solution.validate(System.err);
 
@@ -144,12 +253,13 @@ public class Main {
         System.out.printf("    \\--------------------------------------------------------/\n\n");
 
         System.out.printf("Neighborhoods statistics (values in %%):\n\n");
-        System.out.printf("    /----------------------------------------------------------------\\\n");
-        System.out.printf("    | %-18s | %8s | %8s | %8s | %8s |\n", "Move", "Improvs.", "Sideways", "Accepts", "Rejects");
-        System.out.printf("    |--------------------|----------|----------|----------|----------|\n");
+        System.out.printf("    /---------------------------------------------------------------------------\\\n");
+        System.out.printf("    | %-18s | %8s | %8s | %8s | %8s | %8s |\n", "Move", "Improvs.", "Sideways", "Accepts", "Rejects", "CacheHit");
+        System.out.printf("    |--------------------|----------|----------|----------|----------|----------|\n");
         for (Move move : solver.getMoves())
             Util.safePrintMoveStatistics(System.out, move, "");
-        System.out.printf("    \\----------------------------------------------------------------/\n\n");
+        System.out.printf("    \\---------------------------------------------------------------------------/\n\n");
+        solver.printStatistics(System.out);
 
         if (bestKnown != Integer.MAX_VALUE)
             System.out.printf("Best RDP..........: %.4f%%\n", 100 * ( double ) (solution.getCost() - bestKnown) / ( double ) bestKnown);
@@ -160,6 +270,171 @@ public class Main {
         solution.write(outFile);
     }
 
+    /**
+     * Creates the island model selected by the parameters: one island per
+     * thread (or one per listed algorithm if a single thread is selected), with
+     * the listed algorithms assigned to the islands in a round-robin fashion.
+     *
+     * @param problem the problem reference.
+     * @param random  the random number generator used to seed the islands.
+     * @return the island model or null if any listed algorithm does not exist.
+     */
+    private static Heuristic createIslandModel(Problem problem, Random random) {
+        String names[] = islands.toLowerCase().split(",");
+        HeuristicFactory factories[] = new HeuristicFactory[threads > 1 ? threads : names.length];
+        for (int i = 0; i < factories.length; i++) {
+            String name = names[i % names.length].trim();
+            if (createSolver(name, problem, new Random(0)) == null)
+                return null;
+            factories[i] = (p, r) -> createSolver(name, p, r);
+        }
+        return new IslandModel(problem, random, factories, migrationTime, fullyConnected);
+    }
+
+    /**
+     * Creates the portfolio with the algorithms given by -portfolio (one
+     * heuristic per algorithm).
+     *
+     * @param problem the problem reference.
+     * @param random  the random number generator of the portfolio.
+     * @return the portfolio or null if some algorithm does not exist.
+     */
+    private static Heuristic createPortfolio(Problem problem, Random random) {
+        String names[] = portfolio.toLowerCase().split(",");
+        HeuristicFactory factories[] = new HeuristicFactory[names.length];
+        for (int i = 0; i < factories.length; i++) {
+            String name = names[i].trim();
+            if (createSolver(name, problem, new Random(0)) == null)
+                return null;
+            factories[i] = (p, r) -> createSolver(name, p, r);
+        }
+        return new Portfolio(problem, random, Math.max(1, threads), sliceTime, factories);
+    }
+
+    /**
+     * Creates the speculative search with the acceptance criterion of the
+     * selected algorithm (sa or lahc), whose moves are used by the workers.
+     *
+     * @param problem the problem reference.
+     * @param random  the random number generator of the search.
+     * @return the speculative search or null if the selected algorithm is not
+     * supported.
+     */
+    private static Heuristic createSpeculativeSearch(Problem problem, Random random) {
+        AcceptanceCriterion criterion;
+        if (algorithm.equals("sa")) criterion = new SACriterion(random, alpha, t0, saMax);
+        else if (algorithm.equals("lahc")) criterion = new LAHCCriterion(listSize);
+        else return null;
+        return new SpeculativeSearch(problem, random, threads, batchSize, batchFirst, criterion, Main::createSolver);
+    }
+
+    /**
+     * Creates the initial solution with the constructive selected by the
+     * parameters.
+     *
+     * @param problem the problem reference.
+     * @param random  the random number generator of the constructive.
+     * @return the initial solution or null if the constructive does not exist.
+     */
+    private static Solution createInitialSolution(Problem problem, Random random) {
+        switch (constructive) {
+            case "random":
+                return SimpleConstructive.randomSolution(problem, random);
+            case "greedy":
+                return SimpleConstructive.greedySolution(problem, random);
+            case "insertion":
+                return new InsertionConstructive(problem, random, Math.max(1, threads)).build();
+            case "minmin":
+                return SimpleConstructive.minMinSolution(problem, random);
+            case "maxmin":
+                return SimpleConstructive.maxMinSolution(problem, random);
+            case "regret":
+                return SimpleConstructive.regretSolution(problem, random, regretK);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Creates the solver (heuristic) selected by the parameters, with its moves.
+     *
+     * @param problem the problem reference.
+     * @param random  the random number generator of the solver and its moves.
+     * @return the solver or null if the selected algorithm does not exist.
+     */
+    private static Heuristic createSolver(Problem problem, Random random) {
+        return createSolver(algorithm, problem, random);
+    }
+
+    /**
+     * Creates a solver (heuristic) with its moves.
+     *
+     * @param algorithm the algorithm of the solver.
+     * @param problem   the problem reference.
+     * @param random    the random number generator of the solver and its moves.
+     * @return the solver or null if the algorithm does not exist.
+     */
+    private static Heuristic createSolver(String algorithm, Problem problem, Random random) {
+        Heuristic solver;
+        switch (algorithm) {
+            case "lahc":
+                solver = new LAHC(problem, random, listSize);
+                break;
+            case "lahc-ils":
+                solver = new ILS(problem, random, new LAHC(problem, random, listSize), rnaMax, itersP, p0, pMax);
+                break;
+            case "ils":
+                if (descent.equals("random"))
+                    solver = new ILS(problem, random, rnaMax, itersP, p0, pMax);
+                else if (descent.equals("vnd"))
+                    solver = new ILS(problem, random, new VND(problem, random, vndOrder, vndFirstImprovement, vndSamples), rnaMax, itersP, p0, pMax);
+                else
+                    solver = new ILS(problem, random, new SystematicDescent(problem, random, descent.equals("first")), rnaMax, itersP, p0, pMax);
+                break;
+            case "vnd":
+                solver = new VND(problem, random, vndOrder, vndFirstImprovement, vndSamples);
+                break;
+            case "sa":
+                solver = new SA(problem, random, alpha, t0, saMax);
+                break;
+            case "sa-ils":
+                solver = new ILS(problem, random, new SA(problem, random, alpha, t0, saMax), rnaMax, itersP, p0, pMax);
+                break;
+            case "schc":
+                solver = new SCHC(problem, random, stepSize);
+                break;
+            case "schc-ils":
+                solver = new ILS(problem, random, new SCHC(problem, random, stepSize), rnaMax, itersP, p0, pMax);
+                break;
+            case "tabu":
+                solver = new TabuSearch(problem, random, tabuTenure, 2 * tabuTenure, tabuNeighborhoods);
+                break;
+            case "groups":
+                solver = new MachineGroupSearch(problem, random, threads, groupSize, groupIters);
+                break;
+            case "lns":
+                AcceptanceCriterion criterion;
+                if (lnsAcceptance.equals("sa")) criterion = new SACriterion(random, alpha, t0, saMax);
+                else if (lnsAcceptance.equals("descent")) criterion = new DescentCriterion();
+                else criterion = new LAHCCriterion(listSize);
+                solver = new LNS(problem, random, lnsMin, lnsMax, regretK, criterion);
+                break;
+            default:
+                return null;
+        }
+
+        if (resequence && solver instanceof ILS)
+            (( ILS ) solver).setResequencer(new Resequencer(problem, dpExact, dpWindow, dpParallel));
+        if (eliteSize > 0 && solver instanceof ILS) {
+            ElitePool elitePool = new ElitePool(problem, eliteSize, Math.max(1, ( int ) Math.round(eliteDistance * problem.nJobs)));
+            (( ILS ) solver).setElitePool(elitePool, relinkIters, relinkIntermediates);
+        }
+
+        // adding moves (neighborhoods)
+        createNeighborhoods(problem, random, solver);
+        return solver;
+    }
+
     private static void createNeighborhoods(Problem problem, Random random, Heuristic solver) {
         int index = -1;
 
@@ -193,6 +468,42 @@ public class Main {
         if (neighborhoods[++index]) solver.addMove(new TwoShiftSmart(problem, random, 1, true));
         if (neighborhoods[++index]) solver.addMove(new TwoShiftSmart(problem, random, 1, false));
 
+        if (neighborhoods[++index]) solver.addMove(new Reversal(problem, random, 1, true));
+        if (neighborhoods[++index]) solver.addMove(new Reversal(problem, random, 1, false));
+        if (neighborhoods[++index]) solver.addMove(new ReversalSmart(problem, random, 1, true));
+        if (neighborhoods[++index]) solver.addMove(new ReversalSmart(problem, random, 1, false));
+
+        if (neighborhoods[++index]) solver.addMove(new EjectionChain(problem, random, 1, chainDepth, false, true));
+        if (neighborhoods[++index]) solver.addMove(new EjectionChain(problem, random, 1, chainDepth, false, false));
+        if (neighborhoods[++index]) solver.addMove(new EjectionChain(problem, random, 1, chainDepth, true, true));
+        if (neighborhoods[++index]) solver.addMove(new EjectionChain(problem, random, 1, chainDepth, true, false));
+
+        if (neighborhoods[++index]) solver.addMove(new TaskMoveBest(problem, random, 1, parallelThreshold, true));
+        if (neighborhoods[++index]) solver.addMove(new TaskMoveBest(problem, random, 1, parallelThreshold, false));
+        index += 2; // policies 2 and 3 are not used by TaskMoveBest
+
+        // scan-mode moves (policies 2 and 3 are not used)
+        if (neighborhoods[++index]) solver.addMove(new ShiftScan(problem, random, 1, true));
+        if (neighborhoods[++index]) solver.addMove(new ShiftScan(problem, random, 1, false));
+        index += 2;
+        if (neighborhoods[++index]) solver.addMove(new SwitchScan(problem, random, 1, true));
+        if (neighborhoods[++index]) solver.addMove(new SwitchScan(problem, random, 1, false));
+        index += 2;
+        if (neighborhoods[++index]) solver.addMove(new TaskMoveScan(problem, random, 1, true));
+        if (neighborhoods[++index]) solver.addMove(new TaskMoveScan(problem, random, 1, false));
+        index += 2;
+
+        if (neighborhoods[++index]) solver.addMove(new Repartition(problem, random, 1, repartitionExact, repartitionNodes, true));
+        if (neighborhoods[++index]) solver.addMove(new Repartition(problem, random, 1, repartitionExact, repartitionNodes, false));
+        index += 2; // policies 2 and 3 are not used by Repartition
+
+        // sharing a best-insertion cache among the moves (it is used only by moves that insert jobs in stable machines)
+        if (useInsertionCache) {
+            InsertionCache insertionCache = new InsertionCache(problem);
+            for (Move move : solver.getMoves())
+                move.setInsertionCache(insertionCache);
+        }
+
         // creating and adding compound move 2-Swap
         //CompoundedMove swap2 = new CompoundedMove(problem, random, "2-Swap(mk)", 1);
         //swap2.addMove(new Swap(problem, random, 1, true));
@@ -221,18 +532,47 @@ public class Main {
         System.out.println("    <output> : Path of the (output) solution file.");
         System.out.println();
         System.out.println("Options:");
-        System.out.println("    -algorithm <algorithm> : ils, lahc, lahc-ils, sa, sa-ils, schc or schc-ils (default: " + algorithm + ").");
+        System.out.println("    -algorithm <algorithm> : groups, ils, islands, lahc, lahc-ils, lns, memetic, pils, portfolio, pt, sa, sa-ils, schc, schc-ils, tabu or vnd (default: " + algorithm + ").");
         System.out.println("    -bestKnown <makespan>  : best known makespan for RDP output (default: " + bestKnown + ").");
         System.out.println("    -seed <seed>           : random seed (default: " + seed + ").");
         System.out.println("    -maxIters <maxIters>   : maximum number of consecutive rejections (default: Long.MAXVALUE).");
         System.out.println("    -time <timeLimit>      : time limit in seconds (default: " + timeLimit + ").");
+        System.out.println("    -threads <threads>     : number of independent copies of the solver run in parallel (default: " + threads + ").");
+        System.out.println("    -batch <B>             : evaluates B candidate moves per step on -threads threads (sa and lahc only; 0 disables) (default: " + batchSize + ").");
+        System.out.println("    -batchSelect <select>  : applies the first (in sampling order) or the best acceptable candidate of a batch (default: " + (batchFirst ? "first" : "best") + ").");
+        System.out.println("    -coarsen <n>           : multilevel search: coarsens the problem to at most n jobs and refines it level by level (0 disables) (default: " + coarsenJobs + ").");
+        System.out.println("    -decompose <k>         : decomposes the problem into k groups of machines and jobs, solved on -threads threads");
+        System.out.println("                             and then repaired globally (0 disables; not supported by lns) (default: " + decomposeGroups + ").");
+        System.out.println("    -decomposeShare <f>    : fraction of the time limit given to the sub-problems (default: " + decomposeShare + ").");
+        System.out.println("    -constructive <c>      : initial solution, random, greedy, insertion (cached cheapest insertion, refreshed on");
+        System.out.println("                             -threads threads on large instances), minmin, maxmin or regret (regret-k with k given");
+        System.out.println("                             by -regret) (default: " + constructive + ").");
         System.out.println("    -validate              : executes the solver as a validator (existing output file will be checked).");
+        System.out.println("    -scan <scan>           : best-insertion scan kernel, fast or scalar (default: " + (fastInsertionScan ? "fast" : "scalar") + ").");
+        System.out.println("    -cache <0|1>           : disables (0) or enables (1) the best-insertion cache (default: " + (useInsertionCache ? 1 : 0) + ").");
         System.out.println();
         System.out.println("    ILS parameters:");
         System.out.println("        -rnamax <rnamax> : maximum rejected iterations in the descent phase of ILS (default: " + rnaMax + ").");
         System.out.println("        -itersP <itersP> : number of iterations per perturbation level for ILS (default: " + itersP + ").");
         System.out.println("        -p0 <p0>         : initial perturbation level for ILS (default: " + p0 + ").");
         System.out.println("        -pMax <pMax>     : maximum steps up (each step of value p0) for ILS perturbation's level (default: " + pMax + ").");
+        System.out.println("        (pils runs -threads perturbation-descent children of ILS concurrently in each round)");
+        System.out.println("        -descent <descent> : descent phase of ILS: random (sampling), first or best (systematic enumeration) or vnd (default: " + descent + ").");
+        System.out.println("        -resequence <0|1>  : disables (0) or enables (1) the exact resequencing of machines after each descent (default: " + (resequence ? 1 : 0) + ").");
+        System.out.println("        -dpExact <n>       : maximum number of jobs of a machine to resequence it exactly, at most " + Resequencer.MAX_EXACT_JOBS + " (default: " + dpExact + ").");
+        System.out.println("        -dpWindow <k>      : number of consecutive jobs resequenced at once in larger machines, between 2 and " + Resequencer.MAX_EXACT_JOBS + " (default: " + dpWindow + ").");
+        System.out.println("        -dpParallel <m>    : minimum number of machines to resequence them in parallel (default: " + dpParallel + ").");
+        System.out.println("        -elite <size>      : size of the elite pool used by the path relinking of ILS; 0 disables both (default: " + eliteSize + ").");
+        System.out.println("        -eliteDist <f>     : minimum distance between elite solutions, as a fraction of the number of jobs (default: " + eliteDistance + ").");
+        System.out.println("        -prIters <n>       : maximum iterations of the descent executed from path relinking solutions (default: " + relinkIters + ").");
+        System.out.println("        -prBest <k>        : number of best intermediate solutions of a path improved by the descent (default: " + relinkIntermediates + ").");
+        System.out.println();
+        System.out.println("    Memetic algorithm (memetic) parameters (offspring are improved on -threads threads):");
+        System.out.println("        -population <n>      : size of the population; -eliteDist is the minimum distance between its solutions (default: " + populationSize + ").");
+        System.out.println("        -offspring <n>       : number of offspring per generation (default: " + nOffspring + ").");
+        System.out.println("        -memeticLS <search>  : local search of the offspring, lahc or descent (default: " + memeticSearch + ").");
+        System.out.println("        -memeticIters <n>    : maximum iterations without improvement of each local search (default: " + memeticIters + ").");
+        System.out.println("        -memeticTime <ms>    : time limit in milliseconds of each local search (default: " + memeticTime + ").");
         System.out.println();
         System.out.println("    LAHC parameters:");
         System.out.println("        -listSize <listSize> : LAHC list size  (default: " + listSize + ").");
@@ -242,11 +582,53 @@ public class Main {
         System.out.println("        -samax <samax> : iterations before updating the temperature for Simulated Annealing (default: " + saMax + ").");
         System.out.println("        -t0 <t0>       : initial temperature for the Simulated Annealing (default: " + t0 + ").");
         System.out.println();
+        System.out.println("    Parallel tempering (pt) parameters (the temperatures are calibrated automatically):");
+        System.out.println("        -replicas <n>        : number of replicas, each one in its own thread (default: " + replicas + ").");
+        System.out.println("        -exchange <iters>    : iterations of each replica between exchange attempts (default: " + exchangeIters + ").");
+        System.out.println();
         System.out.println("    SCHC parameters:");
         System.out.println("        -stepSize <stepSize> : SCHC step size (default: " + stepSize + ").");
         System.out.println();
+        System.out.println("    Tabu search parameters (only neighborhoods with systematic enumeration are used):");
+        System.out.println("        -tenure <t>          : minimum tabu tenure; tenures are drawn from [t, 2t] (default: " + tabuTenure + ").");
+        System.out.println("        -tabuSample <k>      : number of random neighborhoods enumerated per iteration; 0 enumerates all (default: " + tabuNeighborhoods + ").");
+        System.out.println();
+        System.out.println("    VND parameters (also used by -descent vnd):");
+        System.out.println("        -vndOrder <names>   : comma-separated move names in exploration order; each name includes its (mk) variant");
+        System.out.println("                              (default: " + vndOrder + ").");
+        System.out.println("        -vndBest <0|1>      : first (0) or best (1) improvement in enumerable neighborhoods (default: " + (vndFirstImprovement ? 0 : 1) + ").");
+        System.out.println("        -vndSamples <n>     : random neighbors sampled from moves without enumeration (default: " + vndSamples + ").");
+        System.out.println();
+        System.out.println("    Machine groups parameters (groups improves disjoint machine groups on -threads threads):");
+        System.out.println("        -groupSize <n>       : number of machines of each group (default: " + groupSize + ").");
+        System.out.println("        -groupIters <n>      : moves evaluated in each group per round (default: " + groupIters + ").");
+        System.out.println();
+        System.out.println("    Island model parameters:");
+        System.out.println("        -islands <list>      : comma-separated algorithms of the islands, assigned round-robin to the");
+        System.out.println("                               -threads islands (default: " + islands + ").");
+        System.out.println("        -migration <time>    : time between migrations in seconds (default: " + migrationTime / 1000.0 + ").");
+        System.out.println("        -topology <topology> : ring or full (default: " + (fullyConnected ? "full" : "ring") + ").");
+        System.out.println();
+        System.out.println("    Portfolio parameters (-threads heuristics run in parallel in each round, chosen by a UCB bandit):");
+        System.out.println("        -portfolio <list>    : comma-separated algorithms of the portfolio (default: " + portfolio + ").");
+        System.out.println("        -slice <time>        : duration of each time slice in seconds (default: " + sliceTime / 1000.0 + ").");
+        System.out.println();
+        System.out.println("    LNS parameters:");
+        System.out.println("        -lnsMin <n>          : minimum number of jobs removed per LNS iteration (default: " + lnsMin + ").");
+        System.out.println("        -lnsMax <n>          : maximum number of jobs removed per LNS iteration (default: " + lnsMax + ").");
+        System.out.println("        -regret <k>          : k of the regret-k reinsertion; 1 reinserts greedily (default: " + regretK + ").");
+        System.out.println("        -lnsAccept <accept>  : acceptance criterion: descent, lahc (uses -listSize) or sa (uses -alpha, -samax, -t0) (default: " + lnsAcceptance + ").");
+        System.out.println();
         System.out.println("    Neighborhoods selection:");
-        System.out.println("        -n <id,policy,value> : disables a policy(0..3) for neighborhood id(0..5) if value = 0 and enables it otherwise.");
+        System.out.println("        -n <id,policy,value> : disables a policy(0..3) for neighborhood id(0..12) if value = 0 and enables it otherwise.");
+        System.out.println("                               neighborhoods 0..5 are enabled by default; 6 (reversal), 7 (ejection chain),");
+        System.out.println("                               8 (best-machine task move), the scan-mode moves 9 (shift), 10 (switch) and");
+        System.out.println("                               11 (task move) and 12 (two-machine repartition) are disabled by default");
+        System.out.println("                               (ids 8..12 only have policies 0..1).");
+        System.out.println("        -chainDepth <depth>  : maximum depth of the ejection chain neighborhood (default: " + chainDepth + ").");
+        System.out.println("        -parThreshold <n>    : minimum number of jobs to scan machines in parallel in TaskMoveBest (default: " + parallelThreshold + ").");
+        System.out.println("        -repartExact <n>     : maximum number of jobs of two machines to repartition them exactly, at most " + Repartition.MAX_EXACT_JOBS + " (default: " + repartitionExact + ").");
+        System.out.println("        -repartNodes <n>     : maximum number of neighbors evaluated by heuristic repartitions (default: " + repartitionNodes + ").");
         System.out.println();
         System.out.println("Examples:");
         System.out.println("    java -jar upmsp.jar instance.txt solution.txt");
@@ -287,9 +669,36 @@ public class Main {
                 case "-time":
                     timeLimit = Math.round(Double.parseDouble(args[++index]) * 1000.0);
                     break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++index]);
+                    break;
+                case "-batch":
+                    batchSize = Integer.parseInt(args[++index]);
+                    break;
+                case "-batchselect":
+                    batchFirst = !args[++index].equalsIgnoreCase("best");
+                    break;
+                case "-constructive":
+                    constructive = args[++index].toLowerCase();
+                    break;
                 case "-validate":
                     validate = true;
                     break;
+                case "-scan":
+                    fastInsertionScan = !args[++index].equalsIgnoreCase("scalar");
+                    break;
+                case "-coarsen":
+                    coarsenJobs = Integer.parseInt(args[++index]);
+                    break;
+                case "-decompose":
+                    decomposeGroups = Integer.parseInt(args[++index]);
+                    break;
+                case "-decomposeshare":
+                    decomposeShare = Double.parseDouble(args[++index]);
+                    break;
+                case "-cache":
+                    useInsertionCache = !args[++index].equals("0");
+                    break;
 
                 case "-bestknown":
                     bestKnown = Integer.parseInt(args[++index]);
@@ -308,6 +717,59 @@ public class Main {
                 case "-pmax":
                     pMax = Integer.parseInt(args[++index]);
                     break;
+                case "-descent":
+                    descent = args[++index].toLowerCase();
+                    break;
+                case "-resequence":
+                    resequence = !args[++index].equals("0");
+                    break;
+                case "-dpexact":
+                    dpExact = Integer.parseInt(args[++index]);
+                    if (dpExact < 1 || dpExact > Resequencer.MAX_EXACT_JOBS) {
+                        System.out.println("Option -dpExact must be between 1 and " + Resequencer.MAX_EXACT_JOBS + ".");
+                        return false;
+                    }
+                    break;
+                case "-dpwindow":
+                    dpWindow = Integer.parseInt(args[++index]);
+                    if (dpWindow < 2 || dpWindow > Resequencer.MAX_EXACT_JOBS) {
+                        System.out.println("Option -dpWindow must be between 2 and " + Resequencer.MAX_EXACT_JOBS + ".");
+                        return false;
+                    }
+                    break;
+                case "-dpparallel":
+                    dpParallel = Integer.parseInt(args[++index]);
+                    break;
+
+                case "-elite":
+                    eliteSize = Integer.parseInt(args[++index]);
+                    break;
+                case "-elitedist":
+                    eliteDistance = Double.parseDouble(args[++index]);
+                    break;
+                case "-priters":
+                    relinkIters = Long.parseLong(args[++index]);
+                    break;
+                case "-prbest":
+                    relinkIntermediates = Integer.parseInt(args[++index]);
+                    break;
+
+                // Memetic algorithm
+                case "-population":
+                    populationSize = Integer.parseInt(args[++index]);
+                    break;
+                case "-offspring":
+                    nOffspring = Integer.parseInt(args[++index]);
+                    break;
+                case "-memeticls":
+                    memeticSearch = args[++index].toLowerCase();
+                    break;
+                case "-memeticiters":
+                    memeticIters = Long.parseLong(args[++index]);
+                    break;
+                case "-memetictime":
+                    memeticTime = Long.parseLong(args[++index]);
+                    break;
 
                 // LAHC
                 case "-listsize":
@@ -325,12 +787,96 @@ public class Main {
                     t0 = Double.parseDouble(args[++index]);
                     break;
 
+                // Parallel tempering
+                case "-replicas":
+                    replicas = Integer.parseInt(args[++index]);
+                    break;
+                case "-exchange":
+                    exchangeIters = Long.parseLong(args[++index]);
+                    break;
+
                 // SCHC
                 case "-stepsize":
                     stepSize = Integer.parseInt(args[++index]);
                     break;
 
+                // Tabu search
+                case "-tenure":
+                    tabuTenure = Integer.parseInt(args[++index]);
+                    break;
+                case "-tabusample":
+                    tabuNeighborhoods = Integer.parseInt(args[++index]);
+                    break;
+
+                // VND
+                case "-vndorder":
+                    vndOrder = args[++index];
+                    break;
+                case "-vndbest":
+                    vndFirstImprovement = args[++index].equals("0");
+                    break;
+                case "-vndsamples":
+                    vndSamples = Long.parseLong(args[++index]);
+                    break;
+
+                // Machine groups
+                case "-groupsize":
+                    groupSize = Integer.parseInt(args[++index]);
+                    break;
+                case "-groupiters":
+                    groupIters = Long.parseLong(args[++index]);
+                    break;
+
+                // Island model
+                case "-islands":
+                    islands = args[++index];
+                    break;
+                case "-migration":
+                    migrationTime = Math.round(Double.parseDouble(args[++index]) * 1000.0);
+                    break;
+                case "-topology":
+                    fullyConnected = args[++index].equalsIgnoreCase("full");
+                    break;
+
+                // Portfolio
+                case "-portfolio":
+                    portfolio = args[++index];
+                    break;
+                case "-slice":
+                    sliceTime = Math.round(Double.parseDouble(args[++index]) * 1000.0);
+                    break;
+
+                // LNS
+                case "-lnsmin":
+                    lnsMin = Integer.parseInt(args[++index]);
+                    break;
+                case "-lnsmax":
+                    lnsMax = Integer.parseInt(args[++index]);
+                    break;
+                case "-regret":
+                    regretK = Integer.parseInt(args[++index]);
+                    break;
+                case "-lnsaccept":
+                    lnsAcceptance = args[++index].toLowerCase();
+                    break;
+
                 // Neighborhoods selection
+                case "-chaindepth":
+                    chainDepth = Integer.parseInt(args[++index]);
+                    break;
+                case "-repartexact":
+                    repartitionExact = Integer.parseInt(args[++index]);
+                    if (repartitionExact < 0 || repartitionExact > Repartition.MAX_EXACT_JOBS) {
+                        System.out.println("Option -repartExact must be between 0 and " + Repartition.MAX_EXACT_JOBS + ".");
+                        return false;
+                    }
+                    break;
+                case "-repartnodes":
+                    repartitionNodes = Integer.parseInt(args[++index]);
+                    break;
+                case "-parthreshold":
+                    parallelThreshold = Integer.parseInt(args[++index]);
+                    break;
                 case "-n":
                     String[] values = args[++index].split(",");
                     int i = Integer.parseInt(values[0]) * 4 + Integer.parseInt(values[1]);
@@ -0,0 +1,38 @@
+package upmsp.algorithm.acceptance;
+
+/**
+ * This interface represents an acceptance criterion, which decides whether a
+ * candidate solution replaces the current solution of a local search (or of a
+ * large neighborhood search).
+ *
+ * @author Tulio Toffolo
+ */
+public interface AcceptanceCriterion {
+
+    /**
+     * Resets the criterion (to be called at the beginning of a search).
+     *
+     * @param initialCost the cost of the initial solution.
+     */
+    void reset(int initialCost);
+
+    /**
+     * Returns whether a candidate solution should be accepted.
+     *
+     * @param currentCost   the cost of the current solution.
+     * @param candidateCost the cost of the candidate solution.
+     * @return true if the candidate solution should be accepted and false
+     * otherwise.
+     */
+    boolean accept(int currentCost, int candidateCost);
+
+    /**
+     * Updates the criterion after an iteration (to be called after the
+     * candidate is accepted or rejected).
+     *
+     * @param currentCost the cost of the current solution after the iteration.
+     * @return true if the criterion restarted itself (e.g. a reheating of
+     * Simulated Annealing) and false otherwise.
+     */
+    boolean update(int currentCost);
+}
@@ -0,0 +1,24 @@
+package upmsp.algorithm.acceptance;
+
+/**
+ * This class represents the acceptance criterion of a descent: candidates are
+ * accepted if they are not worse than the current solution.
+ *
+ * @author Tulio Toffolo
+ */
+public class DescentCriterion implements AcceptanceCriterion {
+
+    public void reset(int initialCost) { }
+
+    public boolean accept(int currentCost, int candidateCost) {
+        return candidateCost <= currentCost;
+    }
+
+    public boolean update(int currentCost) {
+        return false;
+    }
+
+    public String toString() {
+        return "Descent";
+    }
+}
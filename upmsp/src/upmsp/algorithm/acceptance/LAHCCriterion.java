@@ -0,0 +1,47 @@
+package upmsp.algorithm.acceptance;
+
+/**
+ * This class represents the acceptance criterion of the Late Acceptance Hill
+ * Climbing: candidates are accepted if they are not worse than the current
+ * solution or than the solution of listSize iterations before.
+ *
+ * @author Tulio Toffolo
+ */
+public class LAHCCriterion implements AcceptanceCriterion {
+
+    private final int list[];
+    private int position = 0;
+
+    /**
+     * Instantiates a new LAHC acceptance criterion.
+     *
+     * @param listSize LAHC list size.
+     */
+    public LAHCCriterion(int listSize) {
+        list = new int[listSize];
+    }
+
+    public void reset(int initialCost) {
+        for (int i = 0; i < list.length; i++)
+            list[i] = initialCost;
+        position = 0;
+    }
+
+    public boolean accept(int currentCost, int candidateCost) {
+        return candidateCost <= currentCost || candidateCost <= list[position];
+    }
+
+    public boolean update(int currentCost) {
+        list[position] = currentCost;
+        position = (position + 1) % list.length;
+        return false;
+    }
+
+    public int getListSize() {
+        return list.length;
+    }
+
+    public String toString() {
+        return String.format("LAHC (listSize=%d)", list.length);
+    }
+}
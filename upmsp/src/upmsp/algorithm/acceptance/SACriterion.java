@@ -0,0 +1,72 @@
+package upmsp.algorithm.acceptance;
+
+import org.apache.commons.math3.util.*;
+
+import java.util.*;
+
+/**
+ * This class represents the acceptance criterion of the Simulated Annealing:
+ * non-worsening candidates are always accepted, while worsening candidates
+ * are accepted with probability exp(-delta / temperature). The temperature is
+ * multiplied by alpha every saMax iterations and reset to t0 when it becomes
+ * too small.
+ *
+ * @author Tulio Toffolo
+ */
+public class SACriterion implements AcceptanceCriterion {
+
+    private final static double EPS = 1e-6;
+
+    public final Random random;
+    public final double alpha, t0;
+    public final int saMax;
+
+    private double temperature;
+    private int itersInTemperature = 0;
+
+    /**
+     * Instantiates a new SA acceptance criterion.
+     *
+     * @param random random number generator.
+     * @param alpha  cooling rate.
+     * @param t0     initial temperature, T0.
+     * @param saMax  number of iterations before updating the temperature.
+     */
+    public SACriterion(Random random, double alpha, double t0, int saMax) {
+        this.random = random;
+        this.alpha = alpha;
+        this.t0 = t0;
+        this.saMax = saMax;
+        this.temperature = t0;
+    }
+
+    public void reset(int initialCost) {
+        temperature = t0;
+        itersInTemperature = 0;
+    }
+
+    public boolean accept(int currentCost, int candidateCost) {
+        int delta = candidateCost - currentCost;
+        return delta <= 0 || random.nextDouble() < 1 / FastMath.exp(delta / temperature);
+    }
+
+    public boolean update(int currentCost) {
+        if (++itersInTemperature >= saMax) {
+            itersInTemperature = 0;
+            temperature = alpha * temperature;
+            if (temperature < EPS) {
+                temperature = t0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public double getTemperature() {
+        return temperature;
+    }
+
+    public String toString() {
+        return String.format("SA (alpha=%.3f, saMax=%d, t0=%.1f)", alpha, saMax, t0);
+    }
+}
@@ -0,0 +1,236 @@
+package upmsp.algorithm.constructive;
+
+import upmsp.algorithm.parallel.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class is a greedy insertion constructive with cached best insertions.
+ * In each step, the unassigned job with the cheapest insertion (smallest
+ * increase in the completion time of a machine, over all machines) is
+ * inserted in its best position. The best insertion of each unassigned job in
+ * each machine (predecessor and delta cost) is cached, and only the entries of
+ * the machine that just changed are refreshed: inserting job j between jobs a
+ * and b only replaces arc (a, b) by arcs (a, j) and (j, b), so that an entry
+ * whose best insertion was not in arc (a, b) is updated in O(1) by evaluating
+ * the two new arcs; only the entries whose best insertion was in arc (a, b)
+ * are recomputed by scanning the machine.
+ * <p>
+ * The refresh of the changed machine is split among nThreads threads when
+ * there are at least {@link #PARALLEL_MIN_JOBS} unassigned jobs; below that,
+ * the (mostly O(1)) updates are cheaper than the synchronization.
+ *
+ * @author Tulio Toffolo
+ */
+public class InsertionConstructive {
+
+    public final static int PARALLEL_MIN_JOBS = 4096;
+
+    public final Problem problem;
+    public final Random random;
+
+    private final int nThreads;
+
+    private final int bestPred[][], bestDelta[][];
+    private final int bestMachine[];
+    private final int unassigned[];
+    private final int position[];
+    private int nUnassigned;
+
+    private Solution solution;
+
+    /**
+     * Instantiates a new InsertionConstructive.
+     *
+     * @param problem  problem reference.
+     * @param random   random number generator (used to break ties).
+     * @param nThreads number of threads used to refresh the cached insertions.
+     */
+    public InsertionConstructive(Problem problem, Random random, int nThreads) {
+        this.problem = problem;
+        this.random = random;
+        this.nThreads = Math.max(1, nThreads);
+
+        bestPred = new int[problem.nMachines][problem.nJobs];
+        bestDelta = new int[problem.nMachines][problem.nJobs];
+        bestMachine = new int[problem.nJobs];
+        unassigned = new int[problem.nJobs];
+        position = new int[problem.nJobs];
+    }
+
+    /**
+     * Generates and returns a solution.
+     *
+     * @return the solution generated.
+     */
+    public Solution build() {
+        solution = new Solution(problem);
+
+        // all machines are empty: the best insertion of a job is its process time
+        nUnassigned = problem.nJobs;
+        for (int j = 0; j < problem.nJobs; j++) {
+            unassigned[j] = j;
+            for (int m = 0; m < problem.nMachines; m++) {
+                bestPred[m][j] = -1;
+                bestDelta[m][j] = problem.processTimes[m][j];
+            }
+            updateBestMachine(j);
+        }
+
+        ExecutorService executor = nThreads > 1 && problem.nJobs >= PARALLEL_MIN_JOBS ? MultiStart.newExecutor(nThreads) : null;
+        try {
+            while (nUnassigned > 0) {
+                int index = selectJob();
+                int job = unassigned[index];
+                unassigned[index] = unassigned[--nUnassigned];
+
+                int m = bestMachine[job];
+                int pred = bestPred[m][job];
+                insert(job, m, pred);
+                refresh(executor, solution.machines[m], job, pred);
+            }
+        }
+        finally {
+            if (executor != null) executor.shutdownNow();
+        }
+
+        solution.updateCost();
+        return solution;
+    }
+
+
+    /**
+     * Returns the index (in the list of unassigned jobs) of the job with the
+     * cheapest insertion; ties are broken randomly.
+     */
+    private int selectJob() {
+        int best = -1, bestCost = Integer.MAX_VALUE, nTies = 0;
+        for (int i = 0; i < nUnassigned; i++) {
+            int job = unassigned[i];
+            int cost = bestDelta[bestMachine[job]][job];
+            if (cost < bestCost) {
+                best = i;
+                bestCost = cost;
+                nTies = 1;
+            }
+            else if (cost == bestCost && random.nextInt(++nTies) == 0) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Inserts job {@param job} in machine {@param m} right after job {@param
+     * pred} (or in the first position if pred is -1).
+     */
+    private void insert(int job, int m, int pred) {
+        Machine machine = solution.machines[m];
+        int index = pred < 0 ? 0 : position[pred] + 1;
+        machine.addJob(job, index);
+        for (int k = index; k < machine.getNJobs(); k++)
+            position[machine.jobs[k]] = k;
+    }
+
+    /**
+     * Refreshes the cached insertions of the unassigned jobs in machine
+     * {@param machine}, in which job {@param job} was just inserted after job
+     * {@param pred}.
+     */
+    private void refresh(ExecutorService executor, Machine machine, int job, int pred) {
+        if (executor == null || nUnassigned < PARALLEL_MIN_JOBS) {
+            refresh(machine, job, pred, 0, nUnassigned);
+            return;
+        }
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        int chunk = (nUnassigned + nThreads - 1) / nThreads;
+        for (int start = 0; start < nUnassigned; start += chunk) {
+            final int from = start, to = Math.min(nUnassigned, start + chunk);
+            tasks.add(() -> {
+                refresh(machine, job, pred, from, to);
+                return true;
+            });
+        }
+        MultiStart.execute(executor, tasks);
+    }
+
+    /**
+     * Refreshes the cached insertions in machine {@param machine} of the
+     * unassigned jobs with indices in [from, to).
+     */
+    private void refresh(Machine machine, int job, int pred, int from, int to) {
+        int m = machine.id;
+        for (int i = from; i < to; i++) {
+            int k = unassigned[i];
+            int previousDelta = bestDelta[m][k];
+
+            if (bestPred[m][k] == pred) {
+                scan(machine, k);
+            }
+            else {
+                int delta = getDeltaCost(machine, k, pred);
+                if (delta < bestDelta[m][k]) {
+                    bestDelta[m][k] = delta;
+                    bestPred[m][k] = pred;
+                }
+                delta = getDeltaCost(machine, k, job);
+                if (delta < bestDelta[m][k]) {
+                    bestDelta[m][k] = delta;
+                    bestPred[m][k] = job;
+                }
+            }
+
+            if (bestDelta[m][k] < bestDelta[bestMachine[k]][k]) bestMachine[k] = m;
+            else if (bestMachine[k] == m && bestDelta[m][k] > previousDelta) updateBestMachine(k);
+        }
+    }
+
+    /**
+     * Recomputes the best insertion of job {@param job} in machine {@param
+     * machine} by scanning all its positions.
+     */
+    private void scan(Machine machine, int job) {
+        int m = machine.id;
+        bestPred[m][job] = -1;
+        bestDelta[m][job] = getDeltaCost(machine, job, -1);
+        for (int k = 0; k < machine.getNJobs(); k++) {
+            int delta = getDeltaCost(machine, job, machine.jobs[k]);
+            if (delta < bestDelta[m][job]) {
+                bestDelta[m][job] = delta;
+                bestPred[m][job] = machine.jobs[k];
+            }
+        }
+    }
+
+    /**
+     * Returns the delta cost of inserting job {@param job} in machine {@param
+     * machine} right after job {@param pred} (or in the first position if pred
+     * is -1).
+     */
+    private int getDeltaCost(Machine machine, int job, int pred) {
+        int setup[][] = problem.setupTimes[machine.id];
+        int index = pred < 0 ? 0 : position[pred] + 1;
+        int next = index < machine.getNJobs() ? machine.jobs[index] : -1;
+
+        int delta = problem.processTimes[machine.id][job];
+        if (pred >= 0) delta += setup[pred][job];
+        if (next >= 0) delta += setup[job][next];
+        if (pred >= 0 && next >= 0) delta -= setup[pred][next];
+        return delta;
+    }
+
+    /**
+     * Updates the machine with the cheapest insertion of job {@param job}.
+     */
+    private void updateBestMachine(int job) {
+        int best = 0;
+        for (int m = 1; m < problem.nMachines; m++)
+            if (bestDelta[m][job] < bestDelta[best][job])
+                best = m;
+        bestMachine[job] = best;
+    }
+}
@@ -36,13 +36,12 @@ public class SimpleConstructive {
             int cost = Integer.MAX_VALUE;
 
             for (Machine machine : solution.machines) {
-                for (int index = 0; index <= machine.getNJobs(); index++) {
-                    int deltaCost = machine.getDeltaCostAddJob(job, index);
-                    if (deltaCost < cost) {
-                        m = machine.id;
-                        p = index;
-                        cost = deltaCost;
-                    }
+                int index = machine.getBestPositionAddJob(job);
+                int deltaCost = machine.getDeltaCostAddJob(job, index);
+                if (deltaCost < cost) {
+                    m = machine.id;
+                    p = index;
+                    cost = deltaCost;
                 }
             }
 
@@ -53,6 +52,51 @@ public class SimpleConstructive {
         return solution;
     }
 
+    /**
+     * Generates and returns a min-min solution. At each step, the job whose
+     * smallest completion time (over all machines, inserting the job in its
+     * best position) is the smallest is inserted in its best machine and
+     * position.
+     *
+     * @param problem problem
+     * @param random  random number generator (used to break ties)
+     * @return the solution generated
+     */
+    public static Solution minMinSolution(Problem problem, Random random) {
+        return new ListScheduler(problem, random, ListScheduler.MIN_MIN, 1).build();
+    }
+
+    /**
+     * Generates and returns a max-min solution. At each step, the job whose
+     * smallest completion time (over all machines, inserting the job in its
+     * best position) is the largest is inserted in its best machine and
+     * position.
+     *
+     * @param problem problem
+     * @param random  random number generator (used to break ties)
+     * @return the solution generated
+     */
+    public static Solution maxMinSolution(Problem problem, Random random) {
+        return new ListScheduler(problem, random, ListScheduler.MAX_MIN, 1).build();
+    }
+
+    /**
+     * Generates and returns a regret-k solution. At each step, the job with
+     * the largest regret (the sum of the differences between its k smallest
+     * completion times, over different machines, and its smallest one) is
+     * inserted in its best machine and position; ties are broken by the
+     * smallest completion time.
+     *
+     * @param problem problem
+     * @param random  random number generator (used to break ties)
+     * @param k       the k of the regret (values smaller than 2 result in a
+     *                min-min solution)
+     * @return the solution generated
+     */
+    public static Solution regretSolution(Problem problem, Random random, int k) {
+        return new ListScheduler(problem, random, ListScheduler.REGRET, k).build();
+    }
+
     /**
      * Generates and returns a naive solution. Basically, each job j is assigned
      * to the machine j mod M (where M is the number of machines).
@@ -116,4 +160,162 @@ public class SimpleConstructive {
         solution.updateCost();
         return solution;
     }
+
+    /**
+     * List scheduling with a priority queue of (job, best machine, key)
+     * entries. The completion time of each job in each machine is cached
+     * together with the signature of the machine it was computed for, so that
+     * only the values of modified machines are recomputed (and only when
+     * needed). After a job is inserted in machine m, only the jobs with m
+     * among their k best machines are re-evaluated, and their new entries are
+     * pushed to the queue; outdated entries are discarded when polled (lazy
+     * deletion), so that the queue is never rebuilt.
+     * <p>
+     * A machine only receives jobs, so that its (outdated) cached values are
+     * lower bounds of the current ones whenever the setup times satisfy the
+     * triangle inequality (s[a][c] <= s[a][b] + p[b] + s[b][c]); in this case,
+     * the keys of the jobs which are not re-evaluated remain exact.
+     */
+    private static class ListScheduler {
+
+        static final int MIN_MIN = 0, MAX_MIN = 1, REGRET = 2;
+
+        final Problem problem;
+        final Random random;
+        final int rule, k;
+        final Solution solution;
+
+        final int values[];
+        final long signatures[];
+        final int topMachines[];
+        final int stamps[];
+        final boolean assigned[];
+
+        ListScheduler(Problem problem, Random random, int rule, int k) {
+            this.problem = problem;
+            this.random = random;
+            this.rule = rule;
+            this.k = Math.max(1, Math.min(k, problem.nMachines));
+            this.solution = new Solution(problem);
+
+            values = new int[problem.nJobs * problem.nMachines];
+            signatures = new long[problem.nJobs * problem.nMachines];
+            topMachines = new int[problem.nJobs * this.k];
+            stamps = new int[problem.nJobs];
+            assigned = new boolean[problem.nJobs];
+        }
+
+        Solution build() {
+            // all machines are empty: the completion time of a job is its process time
+            for (int j = 0; j < problem.nJobs; j++) {
+                for (Machine machine : solution.machines) {
+                    values[j * problem.nMachines + machine.id] = problem.processTimes[machine.id][j];
+                    signatures[j * problem.nMachines + machine.id] = machine.getSignature();
+                }
+            }
+
+            PriorityQueue<Entry> queue = new PriorityQueue<>(2 * problem.nJobs);
+            for (int j = 0; j < problem.nJobs; j++)
+                queue.add(evaluate(j));
+
+            while (!queue.isEmpty()) {
+                Entry entry = queue.poll();
+                if (assigned[entry.job] || entry.stamp != stamps[entry.job]) continue;
+
+                assigned[entry.job] = true;
+                Machine machine = solution.machines[entry.machine];
+                machine.addJob(entry.job, machine.getBestPositionAddJob(entry.job));
+
+                // only the jobs with the modified machine among their k best ones are re-evaluated
+                for (int j = 0; j < problem.nJobs; j++) {
+                    if (assigned[j]) continue;
+                    for (int i = j * k; i < (j + 1) * k; i++) {
+                        if (topMachines[i] == machine.id) {
+                            queue.add(evaluate(j));
+                            break;
+                        }
+                    }
+                }
+            }
+
+            solution.updateCost();
+            return solution;
+        }
+
+        /**
+         * Computes the k best machines of job {@param job} (with up-to-date
+         * values) and returns its new queue entry.
+         */
+        Entry evaluate(int job) {
+            final int nMachines = problem.nMachines, offset = job * k;
+
+            int nTop;
+            boolean updated;
+            do {
+                // k smallest (cached) values, in increasing order
+                nTop = 0;
+                for (int m = 0; m < nMachines; m++) {
+                    int value = values[job * nMachines + m];
+                    if (nTop == k && value >= values[job * nMachines + topMachines[offset + k - 1]]) continue;
+                    if (nTop < k) nTop++;
+                    int i = nTop - 1;
+                    for (; i > 0 && values[job * nMachines + topMachines[offset + i - 1]] > value; i--)
+                        topMachines[offset + i] = topMachines[offset + i - 1];
+                    topMachines[offset + i] = m;
+                }
+
+                // updating outdated values (which may change the k best machines)
+                updated = false;
+                for (int i = 0; i < nTop; i++) {
+                    Machine machine = solution.machines[topMachines[offset + i]];
+                    int index = job * nMachines + machine.id;
+                    if (signatures[index] != machine.getSignature()) {
+                        values[index] = machine.getMakespan() + machine.getDeltaCostAddJob(job, machine.getBestPositionAddJob(job));
+                        signatures[index] = machine.getSignature();
+                        updated = true;
+                    }
+                }
+            } while (updated);
+
+            int best = values[job * nMachines + topMachines[offset]];
+            long key;
+            if (rule == MIN_MIN) {
+                key = best;
+            }
+            else if (rule == MAX_MIN) {
+                key = -best;
+            }
+            else {
+                key = 0;
+                for (int i = 1; i < nTop; i++)
+                    key -= values[job * nMachines + topMachines[offset + i]] - best;
+            }
+            return new Entry(job, topMachines[offset], ++stamps[job], key, best, random.nextInt());
+        }
+    }
+
+    /**
+     * Entry of the priority queue of the list scheduler, ordered by key, then
+     * by value (completion time) and then randomly.
+     */
+    private static class Entry implements Comparable<Entry> {
+
+        final int job, machine, stamp, value, tie;
+        final long key;
+
+        Entry(int job, int machine, int stamp, long key, int value, int tie) {
+            this.job = job;
+            this.machine = machine;
+            this.stamp = stamp;
+            this.key = key;
+            this.value = value;
+            this.tie = tie;
+        }
+
+        public int compareTo(Entry other) {
+            if (key != other.key) return Long.compare(key, other.key);
+            if (value != other.value) return Integer.compare(value, other.value);
+            return Integer.compare(tie, other.tie);
+        }
+    }
 }
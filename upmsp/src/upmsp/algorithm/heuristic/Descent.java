@@ -38,12 +38,14 @@ public class Descent extends Heuristic {
         long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
 
         bestSolution = initialSolution;
-        Solution solution = initialSolution.clone();
+        Solution solution = copyCurrent(initialSolution);
 
         int nItersWithoutImprovement = 0;
 
         while (System.currentTimeMillis() < finalTimeMillis && nItersWithoutImprovement++ < maxIters) {
             Move move = selectMove(solution);
+            if (move == null) break; // no move can be applied: the solution is a local optimum
+
             double delta = move.doMove(solution);
 
             // if solution is improved...
@@ -52,7 +54,8 @@ public class Descent extends Heuristic {
                 nItersWithoutImprovement = 0;
 
                 if (solution.getCost() < bestSolution.getCost()) {
-                    bestSolution = solution.clone();
+                    bestSolution = copyBest(solution);
+                    publish(bestSolution);
                     Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
                 }
             }
@@ -2,6 +2,7 @@ package upmsp.algorithm.heuristic;
 
 import upmsp.algorithm.learning.*;
 import upmsp.algorithm.neighborhood.*;
+import upmsp.algorithm.parallel.*;
 import upmsp.model.*;
 import upmsp.model.solution.*;
 
@@ -29,6 +30,11 @@ public abstract class Heuristic {
     protected long nIters = 0;
 
     protected LearningAutomata learningAutomata = null;
+    protected SharedIncumbent incumbent = null;
+
+    private Solution currentBuffer = null, bestBuffer = null;
+    private Solution currentSolution = null;
+    private boolean resuming = false;
 
 
     /**
@@ -81,6 +87,17 @@ public abstract class Heuristic {
         //if (USE_LEARNING) learningAutomata.updateProbabilities(0.0);
     }
 
+    /**
+     * Publishes a solution to the shared incumbent (if this heuristic runs
+     * concurrently with others); to be called whenever the best solution is
+     * improved.
+     *
+     * @param solution the new best solution.
+     */
+    protected void publish(Solution solution) {
+        if (incumbent != null) incumbent.offer(solution, getNIters());
+    }
+
     /**
      * Resets all moves considered by the heuristic.
      */
@@ -102,23 +119,41 @@ public abstract class Heuristic {
     public abstract Solution run(Solution solution, long timeLimitMillis, long maxIters, PrintStream output);
 
 
+    /**
+     * Checks whether at least one of the moves can be applied to the solution.
+     *
+     * @param solution the solution
+     * @return true if at least one move can be applied to the solution and false otherwise.
+     */
+    protected boolean hasMove(Solution solution) {
+        for (Move move : moves)
+            if (move.hasMove(solution))
+                return true;
+        return false;
+    }
+
     /**
      * Selects move.
      *
      * @param solution the solution
-     * @return a randomly selected move (neighborhood), considering the provided weights.
+     * @return a randomly selected move (neighborhood), considering the provided weights, or null if no move can be
+     * applied to the solution (which may happen, e.g., when all scan-mode moves have converged).
      */
     protected Move selectMove(Solution solution) {
         if (USE_LEARNING) {
             Move move = moves.get(learningAutomata.nextAction());
-            while (!move.hasMove(solution))
+            while (!move.hasMove(solution)) {
+                if (!hasMove(solution)) return null;
                 move = moves.get(learningAutomata.nextAction());
+            }
             return move;
         }
         else {
             Move move = moves.get(random.nextInt(moves.size()));
-            while (!move.hasMove(solution))
+            while (!move.hasMove(solution)) {
+                if (!hasMove(solution)) return null;
                 move = moves.get(random.nextInt(moves.size()));
+            }
             return move;
 
             //Move selectedMove = null;
@@ -139,6 +174,119 @@ public abstract class Heuristic {
     }
 
 
+    /**
+     * Prints additional statistics of the heuristic (after its execution). By
+     * default, nothing is printed.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) { }
+
+    /**
+     * Continues the previous execution: the search continues from its current
+     * solution and keeps the state of its acceptance criterion (e.g. the
+     * temperature of SA or the list of LAHC) instead of resetting it. This is
+     * useful when the search is executed in slices (e.g. between migrations).
+     * Heuristics without such state (or not executed yet) simply restart from
+     * the given solution.
+     *
+     * @param initialSolution the best solution of the previous execution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations without improvements to execute.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the heuristic.
+     */
+    public Solution resume(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        resuming = currentSolution != null;
+        try {
+            return run(initialSolution, timeLimitMillis, maxIters, output);
+        }
+        finally {
+            resuming = false;
+        }
+    }
+
+    /**
+     * Returns whether the current execution continues the previous one (see
+     * {@link #resume(Solution, long, long, PrintStream)}), in which case the
+     * state of the acceptance criterion must not be reset.
+     *
+     * @return true if the execution continues the previous one and false
+     * otherwise.
+     */
+    protected boolean isResuming() {
+        return resuming;
+    }
+
+    /**
+     * Returns the current solution with which an execution starts: a copy of
+     * the initial solution or, if the execution continues the previous one,
+     * the current solution of the previous execution.
+     *
+     * @param initialSolution the initial solution of the execution.
+     * @return the current solution.
+     */
+    protected Solution startSolution(Solution initialSolution) {
+        if (!resuming) currentSolution = copyCurrent(initialSolution);
+        return currentSolution;
+    }
+
+    /**
+     * Sets preallocated solutions to be recycled by the executions of the
+     * heuristic (if supported): the current solution is copied into the first
+     * one and each new best solution into the second one, instead of cloning
+     * them. Note that the solution returned by an execution is then
+     * overwritten by the next one.
+     *
+     * @param current the solution in which the current solution is kept.
+     * @param best    the solution in which the best solution is kept.
+     */
+    public void setBuffers(Solution current, Solution best) {
+        currentBuffer = current;
+        bestBuffer = best;
+    }
+
+    /**
+     * Returns a copy of the solution to be used as current solution: the
+     * current buffer (if set) or a clone.
+     *
+     * @param solution the solution to copy.
+     * @return the copy of the solution.
+     */
+    protected Solution copyCurrent(Solution solution) {
+        if (currentBuffer == null) return solution.clone();
+        currentBuffer.copyFrom(solution);
+        return currentBuffer;
+    }
+
+    /**
+     * Returns a copy of the solution to be kept as best solution: the best
+     * buffer (if set) or a clone.
+     *
+     * @param solution the solution to copy.
+     * @return the copy of the solution.
+     */
+    protected Solution copyBest(Solution solution) {
+        if (bestBuffer == null) return solution.clone();
+        bestBuffer.copyFrom(solution);
+        return bestBuffer;
+    }
+
+    /**
+     * Adds the counters of the moves of another heuristic (e.g. a copy of this
+     * heuristic executed by another thread) to the counters of the moves of
+     * this heuristic. The moves are matched by their order, and moves without
+     * a counterpart are ignored.
+     *
+     * @param heuristic the heuristic whose counters are added.
+     */
+    public void mergeStatistics(Heuristic heuristic) {
+        List<Move> otherMoves = heuristic.getMoves();
+        for (int k = 0; k < moves.size() && k < otherMoves.size(); k++)
+            moves.get(k).mergeStatistics(otherMoves.get(k));
+    }
+
+
     // region getters and setters
 
     /**
@@ -159,6 +307,24 @@ public abstract class Heuristic {
         return Collections.unmodifiableList(moves);
     }
 
+    /**
+     * Gets the shared incumbent to which improvements are published.
+     *
+     * @return the shared incumbent (or null).
+     */
+    public SharedIncumbent getIncumbent() {
+        return incumbent;
+    }
+
+    /**
+     * Sets the shared incumbent to which improvements are published.
+     *
+     * @param incumbent the shared incumbent (or null).
+     */
+    public void setIncumbent(SharedIncumbent incumbent) {
+        this.incumbent = incumbent;
+    }
+
     /**
      * Gets the number of iterations executed.
      *
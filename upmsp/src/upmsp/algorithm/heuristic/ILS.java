@@ -1,6 +1,8 @@
 package upmsp.algorithm.heuristic;
 
+import upmsp.algorithm.intensification.*;
 import upmsp.algorithm.neighborhood.*;
+import upmsp.algorithm.parallel.*;
 import upmsp.model.*;
 import upmsp.model.solution.*;
 import upmsp.util.*;
@@ -26,6 +28,17 @@ public class ILS extends Heuristic {
      */
     private Heuristic heuristic;
 
+    /**
+     * Intensification executed after each descent phase (optional)
+     */
+    private Resequencer resequencer = null;
+
+    /**
+     * Elite pool and path relinking (optional)
+     */
+    private ElitePool elitePool = null;
+    private PathRelinking pathRelinking = null;
+
     /**
      * Instantiates a new ILS.
      *
@@ -92,7 +105,9 @@ public class ILS extends Heuristic {
         long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
 
         bestSolution = initialSolution;
-        bestSolution = heuristic.run(initialSolution, finalTimeMillis - System.currentTimeMillis(), rnaMax, output);
+        bestSolution = descend(initialSolution, finalTimeMillis, output);
+        publish(bestSolution);
+        if (elitePool != null) elitePool.add(bestSolution);
         Solution solution = bestSolution.clone();
 
         int perturbLevel = p0;
@@ -101,14 +116,15 @@ public class ILS extends Heuristic {
 
         while (System.currentTimeMillis() < finalTimeMillis) {
             while (System.currentTimeMillis() < finalTimeMillis && nItersWithoutImprovement++ < maxIters) {
-                applyPerturbation(output, solution, perturbLevel);
-                solution = heuristic.run(solution, finalTimeMillis - System.currentTimeMillis(), rnaMax, output);
+                solution = perturbAndDescend(solution, perturbLevel, finalTimeMillis, output);
 
                 Util.safePrintStatus(output, heuristic.getNIters(), bestSolution, solution, "p-" + perturbLevel);
+                if (elitePool != null) elitePool.add(solution);
 
                 // if solution is improved...
                 if (solution.getCost() < bestSolution.getCost()) {
                     bestSolution = solution.clone();
+                    publish(bestSolution);
                     nItersInPerturb = 0;
                     perturbLevel = p0;
                 }
@@ -123,6 +139,12 @@ public class ILS extends Heuristic {
                     nItersInPerturb = 0;
                     perturbLevel = perturbLevel + p0 <= pMax ? perturbLevel + p0 : p0;
                     nIters++;
+
+                    // the search stagnated: relinking an elite solution with the best one
+                    if (elitePool != null && elitePool.size() > 1 && relink(finalTimeMillis, output)) {
+                        solution = bestSolution.clone();
+                        perturbLevel = p0;
+                    }
                 }
             }
 
@@ -135,6 +157,80 @@ public class ILS extends Heuristic {
         return bestSolution;
     }
 
+    /**
+     * Runs the descent phase (followed by the resequencing, if enabled) from
+     * a solution.
+     *
+     * @param solution        the initial solution of the descent.
+     * @param finalTimeMillis the time at which the descent must stop.
+     * @param output          output PrintStream for logging purposes.
+     * @return the solution obtained by the descent, which is a different
+     * object if the resequencing modifies it.
+     */
+    public Solution descend(Solution solution, long finalTimeMillis, PrintStream output) {
+        Solution result = heuristic.run(solution, finalTimeMillis - System.currentTimeMillis(), rnaMax, output);
+        if (resequencer != null) {
+            if (result == solution) result = result.clone();
+            resequencer.run(result);
+        }
+        return result;
+    }
+
+    /**
+     * Executes one ILS iteration: perturbs the solution (in place) with the
+     * given level and runs the descent phase from it.
+     *
+     * @param solution        the solution to perturb.
+     * @param perturbLevel    the perturbation level (number of random moves).
+     * @param finalTimeMillis the time at which the descent must stop.
+     * @param output          output PrintStream for logging purposes.
+     * @return the solution obtained by the descent.
+     */
+    public Solution perturbAndDescend(Solution solution, int perturbLevel, long finalTimeMillis, PrintStream output) {
+        applyPerturbation(output, solution, perturbLevel);
+        solution = heuristic.run(solution, finalTimeMillis - System.currentTimeMillis(), rnaMax, output);
+        if (resequencer != null) resequencer.run(solution);
+        return solution;
+    }
+
+    /**
+     * Sets the shared incumbent to which improvements are published (also by
+     * the descent phase).
+     *
+     * @param incumbent the shared incumbent (or null).
+     */
+    public void setIncumbent(SharedIncumbent incumbent) {
+        super.setIncumbent(incumbent);
+        heuristic.setIncumbent(incumbent);
+    }
+
+    /**
+     * Sets the elite pool, which receives the solutions of all descent phases,
+     * and enables the path relinking between elite solutions and the best one
+     * whenever the perturbation level changes (null disables both).
+     *
+     * @param elitePool        the elite pool.
+     * @param localSearchIters maximum number of iterations of the descent
+     *                         phase executed from the intermediate solutions
+     *                         of the path relinking.
+     * @param nIntermediates   number of (best) intermediate solutions from
+     *                         which the descent phase is executed.
+     */
+    public void setElitePool(ElitePool elitePool, long localSearchIters, int nIntermediates) {
+        this.elitePool = elitePool;
+        this.pathRelinking = elitePool != null ? new PathRelinking(problem, random, heuristic, localSearchIters, nIntermediates) : null;
+    }
+
+    /**
+     * Sets the resequencer to execute after each descent phase (null disables
+     * the resequencing).
+     *
+     * @param resequencer the resequencer.
+     */
+    public void setResequencer(Resequencer resequencer) {
+        this.resequencer = resequencer;
+    }
+
     /**
      * Returns the string representation of the heuristic.
      *
@@ -146,11 +242,36 @@ public class ILS extends Heuristic {
     }
 
 
+    /**
+     * Relinks a random elite solution (initiating) with the best solution
+     * (guiding) and updates the best solution if the relinking improves it.
+     *
+     * @return true if the best solution was improved and false otherwise.
+     */
+    private boolean relink(long finalTimeMillis, PrintStream output) {
+        Solution elite = elitePool.get(random.nextInt(elitePool.size()));
+        if (elite.getCost() == bestSolution.getCost()) return false;
+
+        Solution relinked = pathRelinking.relink(elite, bestSolution, finalTimeMillis);
+        if (relinked == null) return false;
+
+        Util.safePrintStatus(output, heuristic.getNIters(), bestSolution, relinked, "pr");
+        elitePool.add(relinked);
+        if (relinked.getCost() < bestSolution.getCost()) {
+            bestSolution = relinked;
+            publish(bestSolution);
+            return true;
+        }
+        return false;
+    }
+
     private void applyPerturbation(PrintStream output, Solution solution, int level) {
         for (int i = 0; i < level; i++) {
             Move move = moves.get(random.nextInt(moves.size()));
-            while (!move.hasMove(solution))
+            while (!move.hasMove(solution)) {
+                if (!hasMove(solution)) return;
                 move = moves.get(random.nextInt(moves.size()));
+            }
 
             move.doMove(solution);
             move.accept();
@@ -1,5 +1,6 @@
 package upmsp.algorithm.heuristic;
 
+import upmsp.algorithm.acceptance.*;
 import upmsp.algorithm.neighborhood.*;
 import upmsp.model.*;
 import upmsp.model.solution.*;
@@ -16,9 +17,9 @@ import java.util.*;
 public class LAHC extends Heuristic {
 
     /**
-     * LAHC list with solution costs.
+     * LAHC acceptance criterion (with the list of solution costs).
      */
-    private int[] list;
+    private final LAHCCriterion criterion;
 
 
     /**
@@ -32,7 +33,7 @@ public class LAHC extends Heuristic {
         super(problem, random, "LAHC");
 
         // initializing the late acceptance list
-        list = new int[listSize];
+        criterion = new LAHCCriterion(listSize);
     }
 
     /**
@@ -48,20 +49,18 @@ public class LAHC extends Heuristic {
         long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
 
         bestSolution = initialSolution;
-        Solution solution = initialSolution.clone();
+        Solution solution = startSolution(initialSolution);
 
         // initializing LAHC list
-        for (int i = 0; i < list.length; i++)
-            list[i] = initialSolution.getCost();
+        if (!isResuming()) criterion.reset(initialSolution.getCost());
 
         int nItersWithoutImprovement = 0;
-        int positionList = -1;
 
         while (System.currentTimeMillis() < finalTimeMillis) {
             while (System.currentTimeMillis() < finalTimeMillis && nItersWithoutImprovement++ < maxIters) {
-                positionList = (positionList + 1) % list.length;
-
                 Move move = selectMove(solution);
+                if (move == null) return bestSolution;
+
                 int delta = move.doMove(solution);
 
                 // if solution is improved...
@@ -70,13 +69,14 @@ public class LAHC extends Heuristic {
                     nItersWithoutImprovement = 0;
 
                     if (solution.getCost() < bestSolution.getCost()) {
-                        bestSolution = solution.clone();
+                        bestSolution = copyBest(solution);
+                        publish(bestSolution);
                         Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
                     }
                 }
 
                 // if solution is not improved, but is accepted...
-                else if (delta == 0 || solution.getCost() <= list[positionList]) {
+                else if (criterion.accept(solution.getCost() - delta, solution.getCost())) {
                     acceptMove(move);
                 }
 
@@ -85,14 +85,13 @@ public class LAHC extends Heuristic {
                     rejectMove(move);
                 }
 
-                list[positionList] = solution.getCost();
+                criterion.update(solution.getCost());
                 nIters++;
             }
 
             if (System.currentTimeMillis() < finalTimeMillis) {
                 nItersWithoutImprovement = 0;
-                for (int i = 0; i < list.length; i++)
-                    list[i] = initialSolution.getCost();
+                criterion.reset(initialSolution.getCost());
                 if (USE_LEARNING) learningAutomata.initProbabilities(getMoves());
                 Util.safePrintText(output, "Resetting LAHC list", "");
             }
@@ -107,6 +106,6 @@ public class LAHC extends Heuristic {
      * @return the string representation of the heuristic.
      */
     public String toString() {
-        return String.format("LAHC (listSize=%d)", list.length);
+        return String.format("LAHC (listSize=%d)", criterion.getListSize());
     }
 }
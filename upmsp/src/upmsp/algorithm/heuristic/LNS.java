@@ -0,0 +1,365 @@
+package upmsp.algorithm.heuristic;
+
+import upmsp.algorithm.acceptance.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class is a Large Neighborhood Search (ruin-and-recreate)
+ * implementation. At each iteration, between minRemove and maxRemove jobs are
+ * removed from the solution by one of three destroy operators (random jobs,
+ * jobs related by their setup times or jobs of the makespan machine) and then
+ * reinserted either greedily (in random order) or by regret-k insertion. The
+ * resulting solution is accepted or rejected by an acceptance criterion, such
+ * as the ones of SA and LAHC; rejected iterations are undone in place.
+ * <p>
+ * All buffers are preallocated, so that the search itself is allocation-free
+ * (except for cloning improved solutions).
+ *
+ * @author Tulio Toffolo
+ */
+public class LNS extends Heuristic {
+
+    /**
+     * LNS parameters.
+     */
+    private final int minRemove, maxRemove, regretK;
+    private final AcceptanceCriterion criterion;
+
+    // destroy buffers (removals are recorded in order, to be undone backwards)
+    private final int removed[], removedMachine[], removedPos[];
+    private final int candidates[], insertedMachine[], insertedPos[];
+    private final boolean removedFlag[];
+    private final int permutation[];
+    private final long keys[];
+    private int nRemoved;
+
+    // repair buffers (insertion values are indexed by candidate job and machine)
+    private final int bestPos[], bestValue[], topValues[];
+    private final boolean assigned[];
+
+    // statistics
+    private final long nDestroys[] = new long[3], nDestroyImprovements[] = new long[3];
+
+    /**
+     * Instantiates a new LNS.
+     *
+     * @param problem   problem reference.
+     * @param random    random number generator.
+     * @param minRemove minimum number of jobs removed per iteration.
+     * @param maxRemove maximum number of jobs removed per iteration.
+     * @param regretK   the k of the regret-k insertion (values smaller than 2
+     *                  result in greedy insertion).
+     * @param criterion acceptance criterion.
+     */
+    public LNS(Problem problem, Random random, int minRemove, int maxRemove, int regretK, AcceptanceCriterion criterion) {
+        super(problem, random, "LNS");
+
+        this.maxRemove = Math.max(1, Math.min(maxRemove, problem.nJobs));
+        this.minRemove = Math.max(1, Math.min(minRemove, this.maxRemove));
+        this.regretK = regretK;
+        this.criterion = criterion;
+
+        removed = new int[this.maxRemove];
+        removedMachine = new int[this.maxRemove];
+        removedPos = new int[this.maxRemove];
+        candidates = new int[this.maxRemove];
+        insertedMachine = new int[this.maxRemove];
+        insertedPos = new int[this.maxRemove];
+        removedFlag = new boolean[problem.nJobs];
+        permutation = new int[problem.nJobs];
+        keys = new long[problem.nJobs];
+        for (int j = 0; j < problem.nJobs; j++)
+            permutation[j] = j;
+
+        bestPos = new int[this.maxRemove * problem.nMachines];
+        bestValue = new int[this.maxRemove * problem.nMachines];
+        topValues = new int[Math.max(regretK, 1)];
+        assigned = new boolean[this.maxRemove];
+    }
+
+    /**
+     * Executes the Large Neighborhood Search.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations without improvements to execute.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the LNS.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        bestSolution = initialSolution;
+        Solution solution = initialSolution.clone();
+
+        criterion.reset(solution.getCost());
+        int nItersWithoutImprovement = 0;
+
+        while (System.currentTimeMillis() < finalTimeMillis && nItersWithoutImprovement++ < maxIters) {
+            int currentCost = solution.getCost();
+
+            int operator = random.nextInt(3);
+            destroy(solution, operator, minRemove + random.nextInt(maxRemove - minRemove + 1));
+            if (regretK >= 2) repairRegret(solution);
+            else repairGreedy(solution);
+            solution.updateCost();
+            nDestroys[operator]++;
+
+            if (criterion.accept(currentCost, solution.getCost())) {
+                if (solution.getCost() < currentCost) {
+                    nDestroyImprovements[operator]++;
+                    nItersWithoutImprovement = 0;
+                }
+
+                if (solution.getCost() < bestSolution.getCost()) {
+                    bestSolution = solution.clone();
+                    publish(bestSolution);
+                    Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
+                }
+            }
+            else {
+                undo(solution);
+            }
+
+            if (criterion.update(solution.getCost()))
+                Util.safePrintText(output, "Restarting LNS acceptance criterion", "");
+
+            nIters++;
+        }
+
+        return bestSolution;
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic (with parameters values).
+     */
+    public String toString() {
+        return String.format("LNS (remove=%d..%d, %s, acceptance=%s)", minRemove, maxRemove,
+          regretK >= 2 ? "regret-" + regretK : "greedy", criterion);
+    }
+
+    /**
+     * Prints the number of executions and of improvements of each destroy
+     * operator.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) {
+        String operators[] = { "random", "related", "makespan" };
+        Util.safePrintf(output, "LNS destroy operators:\n\n");
+        for (int i = 0; i < operators.length; i++) {
+            Util.safePrintf(output, "    %-10s executions=%-10s improvements=%-10s (%.2f%%)\n", operators[i],
+              Util.longToString(nDestroys[i]), Util.longToString(nDestroyImprovements[i]),
+              nDestroys[i] > 0 ? 100.0 * nDestroyImprovements[i] / nDestroys[i] : 0.0);
+        }
+        Util.safePrintf(output, "\n");
+    }
+
+
+    // region destroy operators
+
+    /**
+     * Removes {@param nJobs} jobs from the solution, selected by the given
+     * operator: 0 selects random jobs, 1 selects the jobs most related to a
+     * random seed job (by the setup times on the seed's machine) and 2 selects
+     * random jobs of the makespan machine.
+     */
+    private void destroy(Solution solution, int operator, int nJobs) {
+        int nSelected = 0;
+
+        if (operator == 1) {
+            int seed = random.nextInt(problem.nJobs);
+            int setup[][] = problem.setupTimes[findMachine(solution, seed).id];
+            for (int j = 0; j < problem.nJobs; j++)
+                keys[j] = (long) (setup[seed][j] + setup[j][seed]) * problem.nJobs + j;
+            keys[seed] = seed - problem.nJobs; // the seed itself is always removed
+            Arrays.sort(keys);
+            for (; nSelected < nJobs; nSelected++)
+                removedFlag[( int ) ((keys[nSelected] + problem.nJobs) % problem.nJobs)] = true;
+        }
+        else if (operator == 2 && solution.makespanMachine.getNJobs() > 0) {
+            Machine machine = solution.makespanMachine;
+            nSelected = Math.min(nJobs, machine.getNJobs());
+            System.arraycopy(machine.jobs, 0, permutation, 0, machine.getNJobs());
+            for (int i = 0; i < nSelected; i++) {
+                int k = i + random.nextInt(machine.getNJobs() - i);
+                int job = permutation[k];
+                permutation[k] = permutation[i];
+                permutation[i] = job;
+                removedFlag[job] = true;
+            }
+            for (int j = 0; j < problem.nJobs; j++)
+                permutation[j] = j;
+        }
+        else {
+            nSelected = nJobs;
+            for (int i = 0; i < nSelected; i++) {
+                int k = i + random.nextInt(problem.nJobs - i);
+                int job = permutation[k];
+                permutation[k] = permutation[i];
+                permutation[i] = job;
+                removedFlag[job] = true;
+            }
+        }
+
+        // removing the selected jobs (from the last positions, so that the
+        // stored positions remain valid when the removals are undone backwards)
+        nRemoved = 0;
+        for (Machine machine : solution.machines) {
+            for (int pos = machine.getNJobs() - 1; pos >= 0; pos--) {
+                int job = machine.jobs[pos];
+                if (!removedFlag[job]) continue;
+
+                removedFlag[job] = false;
+                removed[nRemoved] = job;
+                removedMachine[nRemoved] = machine.id;
+                removedPos[nRemoved] = pos;
+                nRemoved++;
+                machine.delJob(pos);
+            }
+        }
+    }
+
+    /**
+     * Returns the machine in which the job is currently assigned.
+     */
+    private Machine findMachine(Solution solution, int job) {
+        for (Machine machine : solution.machines)
+            for (int pos = 0; pos < machine.getNJobs(); pos++)
+                if (machine.jobs[pos] == job)
+                    return machine;
+        throw new IllegalStateException("Job " + job + " is not assigned to any machine.");
+    }
+
+    /**
+     * Undoes the last destroy and repair, restoring the solution.
+     */
+    private void undo(Solution solution) {
+        for (int i = nRemoved - 1; i >= 0; i--)
+            solution.machines[insertedMachine[i]].delJob(insertedPos[i]);
+        for (int i = nRemoved - 1; i >= 0; i--)
+            solution.machines[removedMachine[i]].addJob(removed[i], removedPos[i]);
+        solution.updateCost();
+    }
+
+    // endregion destroy operators
+
+
+    // region repair operators
+
+    /**
+     * Reinserts the removed jobs in a random order, each one in the machine and
+     * position that results in the smallest completion time.
+     */
+    private void repairGreedy(Solution solution) {
+        System.arraycopy(removed, 0, candidates, 0, nRemoved);
+        for (int i = 0; i < nRemoved; i++) {
+            int k = i + random.nextInt(nRemoved - i);
+            int job = candidates[k];
+            candidates[k] = candidates[i];
+            candidates[i] = job;
+
+            Machine bestMachine = null;
+            int bestMachinePos = 0, bestMachineValue = Integer.MAX_VALUE;
+            for (Machine machine : solution.machines) {
+                int pos = machine.getBestPositionAddJob(job);
+                int value = machine.getMakespan() + machine.getDeltaCostAddJob(job, pos);
+                if (value < bestMachineValue) {
+                    bestMachineValue = value;
+                    bestMachine = machine;
+                    bestMachinePos = pos;
+                }
+            }
+            insert(i, job, bestMachine, bestMachinePos);
+        }
+    }
+
+    /**
+     * Reinserts the removed jobs by regret-k insertion: at each step, the job
+     * with the largest regret (the sum of the differences between its k best
+     * insertion values, over different machines, and its best one) is inserted
+     * in its best machine and position. Insertion values of a job are cached per
+     * machine and only recomputed for the machine that received the last job.
+     */
+    private void repairRegret(Solution solution) {
+        final int nMachines = solution.machines.length;
+
+        System.arraycopy(removed, 0, candidates, 0, nRemoved);
+        for (int i = 0; i < nRemoved; i++) {
+            assigned[i] = false;
+            for (int m = 0; m < nMachines; m++)
+                evaluate(solution.machines[m], i);
+        }
+
+        for (int step = 0; step < nRemoved; step++) {
+            int selected = -1, selectedMachine = -1, selectedRegret = -1, selectedValue = Integer.MAX_VALUE;
+
+            for (int i = 0; i < nRemoved; i++) {
+                if (assigned[i]) continue;
+
+                // k smallest insertion values (over machines) of the job
+                int nTop = 0, bestMachine = -1;
+                for (int m = 0; m < nMachines; m++) {
+                    int value = bestValue[i * nMachines + m];
+                    if (nTop == topValues.length && value >= topValues[nTop - 1]) continue;
+                    if (nTop < topValues.length) nTop++;
+                    int k = nTop - 1;
+                    for (; k > 0 && topValues[k - 1] > value; k--)
+                        topValues[k] = topValues[k - 1];
+                    topValues[k] = value;
+                    if (k == 0) bestMachine = m;
+                }
+
+                int regret = 0;
+                for (int k = 1; k < nTop; k++)
+                    regret += topValues[k] - topValues[0];
+
+                if (regret > selectedRegret || (regret == selectedRegret && topValues[0] < selectedValue)) {
+                    selected = i;
+                    selectedMachine = bestMachine;
+                    selectedRegret = regret;
+                    selectedValue = topValues[0];
+                }
+            }
+
+            assigned[selected] = true;
+            Machine machine = solution.machines[selectedMachine];
+            insert(step, candidates[selected], machine, bestPos[selected * nMachines + selectedMachine]);
+
+            // only the insertion values in the modified machine change
+            for (int i = 0; i < nRemoved; i++)
+                if (!assigned[i])
+                    evaluate(machine, i);
+        }
+    }
+
+    /**
+     * Computes the best insertion position and value (resulting completion
+     * time) of the i-th removed job in the machine.
+     */
+    private void evaluate(Machine machine, int i) {
+        int job = candidates[i];
+        int pos = machine.getBestPositionAddJob(job);
+        bestPos[i * problem.nMachines + machine.id] = pos;
+        bestValue[i * problem.nMachines + machine.id] = machine.getMakespan() + machine.getDeltaCostAddJob(job, pos);
+    }
+
+    /**
+     * Inserts the job in the machine, recording the insertion (as the
+     * {@param step}-th one) to allow undoing it.
+     */
+    private void insert(int step, int job, Machine machine, int pos) {
+        machine.addJob(job, pos);
+        insertedMachine[step] = machine.id;
+        insertedPos[step] = pos;
+    }
+
+    // endregion repair operators
+}
@@ -0,0 +1,164 @@
+package upmsp.algorithm.heuristic;
+
+import org.apache.commons.math3.util.*;
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class is a Simulated Annealing at a fixed temperature (i.e., a
+ * Metropolis sampler), to be used as a replica of the Parallel Tempering. The
+ * replica keeps its current solution between calls of {@link #step(long,
+ * long, PrintStream)}, so that it can be executed in rounds, and its
+ * temperature can be changed between rounds (when replicas exchange
+ * temperatures).
+ *
+ * @author Tulio Toffolo
+ */
+public class ReplicaSA extends Heuristic {
+
+    private double temperature;
+    private Solution solution;
+
+    /**
+     * Instantiates a new ReplicaSA.
+     *
+     * @param problem     problem reference.
+     * @param random      random number generator.
+     * @param temperature the (initial) temperature.
+     */
+    public ReplicaSA(Problem problem, Random random, double temperature) {
+        super(problem, random, "SA replica");
+        this.temperature = temperature;
+    }
+
+    /**
+     * Executes the replica at its temperature until the time limit.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations to execute.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the replica.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        start(initialSolution);
+        step(maxIters, finalTimeMillis, output);
+
+        return bestSolution;
+    }
+
+    /**
+     * Starts the replica from (a copy of) the given solution.
+     *
+     * @param initialSolution the initial (input) solution.
+     */
+    public void start(Solution initialSolution) {
+        bestSolution = initialSolution;
+        solution = initialSolution.clone();
+    }
+
+    /**
+     * Executes a round of iterations at the current temperature, starting from
+     * the current solution of the replica.
+     *
+     * @param nSteps          number of iterations of the round.
+     * @param finalTimeMillis the time at which the round must stop (even if
+     *                        not all iterations were executed).
+     * @param output          output PrintStream for logging purposes.
+     */
+    public void step(long nSteps, long finalTimeMillis, PrintStream output) {
+        for (long i = 0; i < nSteps; i++) {
+            if ((i & 127) == 0 && System.currentTimeMillis() >= finalTimeMillis) break;
+
+            Move move = selectMove(solution);
+            if (move == null) break;
+
+            int delta = move.doMove(solution);
+
+            // non-worsening moves are always accepted, while worsening ones are accepted with a probability
+            if (delta <= 0 || random.nextDouble() < 1 / FastMath.exp(delta / temperature)) {
+                acceptMove(move);
+
+                if (solution.getCost() < bestSolution.getCost()) {
+                    bestSolution = solution.clone();
+                    publish(bestSolution);
+                    Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
+                }
+            }
+            else {
+                rejectMove(move);
+            }
+
+            nIters++;
+        }
+    }
+
+    /**
+     * Samples the cost variations of random neighbors of a solution (the
+     * neighbors are evaluated and rejected, so the solution is unchanged).
+     *
+     * @param solution the solution.
+     * @param nSamples number of neighbors to sample.
+     * @return the sorted positive cost variations (worsening deltas) of the
+     * sampled neighbors.
+     */
+    public int[] sampleDeltas(Solution solution, int nSamples) {
+        int deltas[] = new int[nSamples], nDeltas = 0;
+        for (int i = 0; i < nSamples; i++) {
+            Move move = selectMove(solution);
+            if (move == null) break;
+
+            int delta = move.doMove(solution);
+            move.reject();
+            if (delta > 0)
+                deltas[nDeltas++] = delta;
+        }
+
+        deltas = Arrays.copyOf(deltas, nDeltas);
+        Arrays.sort(deltas);
+        return deltas;
+    }
+
+    /**
+     * Gets the current solution of the replica, which must not be modified.
+     *
+     * @return the current solution of the replica.
+     */
+    public Solution getSolution() {
+        return solution;
+    }
+
+    /**
+     * Gets the temperature of the replica.
+     *
+     * @return the temperature of the replica.
+     */
+    public double getTemperature() {
+        return temperature;
+    }
+
+    /**
+     * Sets the temperature of the replica.
+     *
+     * @param temperature the new temperature.
+     */
+    public void setTemperature(double temperature) {
+        this.temperature = temperature;
+    }
+
+    /**
+     * Returns the string representation of this heuristic.
+     *
+     * @return the string representation of this heuristic (with parameters values).
+     */
+    public String toString() {
+        return String.format("SA replica (temperature=%.2f)", temperature);
+    }
+}
@@ -1,6 +1,6 @@
 package upmsp.algorithm.heuristic;
 
-import org.apache.commons.math3.util.*;
+import upmsp.algorithm.acceptance.*;
 import upmsp.algorithm.neighborhood.*;
 import upmsp.model.*;
 import upmsp.model.solution.*;
@@ -22,7 +22,7 @@ public class SA extends Heuristic {
     private double alpha, t0;
     private int saMax = 10000;
 
-    private final static double EPS = 1e-6;
+    private final SACriterion criterion;
 
     /**
      * Instantiates a new SA.
@@ -40,6 +40,7 @@ public class SA extends Heuristic {
         this.alpha = alpha;
         this.t0 = t0;
         this.saMax = saMax;
+        this.criterion = new SACriterion(random, alpha, t0, saMax);
     }
 
     /**
@@ -55,14 +56,15 @@ public class SA extends Heuristic {
         long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
 
         bestSolution = initialSolution;
-        Solution solution = initialSolution.clone();
+        Solution solution = startSolution(initialSolution);
 
-        double temperature = this.t0;
+        if (!isResuming()) criterion.reset(initialSolution.getCost());
         int nItersWithoutImprovement = 0;
-        int itersInTemperature = 0;
 
         while (System.currentTimeMillis() < finalTimeMillis) {
             Move move = selectMove(solution);
+            if (move == null) break;
+
             int delta = move.doMove(solution);
 
             // if solution is improved...
@@ -72,37 +74,24 @@ public class SA extends Heuristic {
 
                 if (solution.getCost() < bestSolution.getCost()) {
                     bestSolution = solution.clone();
+                    publish(bestSolution);
                     Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
                 }
             }
 
-            // if solution is not improved, but is accepted...
-            else if (delta == 0) {
+            // solution is not improved, but may be accepted (with a probability if it is worse)...
+            else if (criterion.accept(solution.getCost() - delta, solution.getCost())) {
                 acceptMove(move);
             }
 
-            // solution is not improved, but may be accepted with a probability...
+            // if solution is rejected..
             else {
-                double x = random.nextDouble();
-                if (x < 1 / FastMath.exp(delta / temperature)) {
-                    acceptMove(move);
-                }
-
-                // if solution is rejected..
-                else {
-                    rejectMove(move);
-                }
+                rejectMove(move);
             }
 
             // if necessary, updates temperature
-            if (++itersInTemperature >= saMax) {
-                itersInTemperature = 0;
-                temperature = alpha * temperature;
-                if (temperature < EPS) {
-                    temperature = t0;
-                    Util.safePrintText(output, "Re-heating Simulated Annealing", "");
-                }
-            }
+            if (criterion.update(solution.getCost()))
+                Util.safePrintText(output, "Re-heating Simulated Annealing", "");
 
             nIters++;
         }
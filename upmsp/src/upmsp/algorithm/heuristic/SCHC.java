@@ -18,7 +18,7 @@ public class SCHC extends Heuristic {
     /**
      * SCHC parameters.
      */
-    private int stepSize, costBound;
+    private int stepSize, costBound, stepCounter;
 
     /**
      * Instantiates a new SCHC.
@@ -48,18 +48,22 @@ public class SCHC extends Heuristic {
         long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
 
         bestSolution = initialSolution;
-        Solution solution = initialSolution.clone();
+        Solution solution = startSolution(initialSolution);
 
-        costBound = bestSolution.getCost();
+        if (!isResuming()) {
+            costBound = bestSolution.getCost();
+            stepCounter = 0;
+        }
 
         int nItersWithoutImprovement = 0;
-        int stepCounter = 0;
 
         while (System.currentTimeMillis() < finalTimeMillis) {
             while (System.currentTimeMillis() < finalTimeMillis && nItersWithoutImprovement++ < maxIters) {
                 stepCounter++;
 
                 Move move = selectMove(solution);
+                if (move == null) return bestSolution;
+
                 double delta = move.doMove(solution);
 
                 // if solution is improved...
@@ -69,6 +73,7 @@ public class SCHC extends Heuristic {
 
                     if (solution.getCost() < bestSolution.getCost()) {
                         bestSolution = solution.clone();
+                        publish(bestSolution);
                         Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
                     }
                 }
@@ -0,0 +1,92 @@
+package upmsp.algorithm.heuristic;
+
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class represents a Descent Heuristic that systematically enumerates
+ * the neighborhoods (first or best improvement). Contrary to {@link Descent},
+ * which samples random neighbors, this heuristic stops as soon as a full pass
+ * over all neighborhoods finds no improving neighbor, i.e. as soon as the
+ * solution is certified to be a local optimum. Moves that do not support
+ * enumeration are ignored.
+ *
+ * @author Tulio Toffolo
+ */
+public class SystematicDescent extends Heuristic {
+
+    private final boolean firstImprovement;
+
+    /**
+     * Instantiates a new SystematicDescent object.
+     *
+     * @param problem          problem reference.
+     * @param random           random number generator.
+     * @param firstImprovement true if the first improving neighbor of each
+     *                         neighborhood should be applied or false if the
+     *                         best one should be applied.
+     */
+    public SystematicDescent(Problem problem, Random random, boolean firstImprovement) {
+        super(problem, random, "Systematic Descent (" + (firstImprovement ? "first" : "best") + " improvement)");
+        this.firstImprovement = firstImprovement;
+    }
+
+    /**
+     * Executes the SystematicDescent heuristic.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of moves to apply.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the heuristic.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        bestSolution = initialSolution;
+        Solution solution = initialSolution.clone();
+
+        List<Move> enumerableMoves = new ArrayList<>();
+        for (Move move : moves)
+            if (move.hasEnumeration())
+                enumerableMoves.add(move);
+
+        // moves are visited in a round-robin fashion; the search stops after a
+        // full pass without improvements
+        int index = 0, nMovesWithoutImprovement = 0;
+        long nApplied = 0;
+
+        while (nMovesWithoutImprovement < enumerableMoves.size() && nApplied < maxIters
+          && System.currentTimeMillis() < finalTimeMillis) {
+            Move move = enumerableMoves.get(index);
+            index = (index + 1) % enumerableMoves.size();
+
+            if (!move.enumerate(solution, firstImprovement)) {
+                nMovesWithoutImprovement++;
+                continue;
+            }
+
+            move.doSelectedMove(solution);
+            acceptMove(move);
+            nMovesWithoutImprovement = 0;
+            nApplied++;
+
+            if (solution.getCost() < bestSolution.getCost()) {
+                bestSolution = solution.clone();
+                publish(bestSolution);
+                Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
+            }
+
+            nIters++;
+        }
+
+        // only non-worsening moves are applied, so the final solution is the
+        // best one (and includes sideways improvements)
+        return bestSolution = solution;
+    }
+}
@@ -0,0 +1,143 @@
+package upmsp.algorithm.heuristic;
+
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class is a Tabu Search implementation. In each iteration, the
+ * neighborhoods that support systematic enumeration report (without applying
+ * any candidate) their best non-tabu neighbor, and the best of them is
+ * applied, even if it worsens the solution. Since enumerating all
+ * neighborhoods may be expensive, only a random sample of them may be
+ * enumerated in each iteration (candidate list).
+ * <p>
+ * The memory is a {@link TabuList} of (job, machine) attributes: when a move
+ * is applied, the jobs moved become tabu on the machines they left (or within
+ * which they were moved), with a random tenure. A tabu neighbor is allowed if
+ * it improves the best solution (aspiration by global best). Moves that do
+ * not support enumeration are ignored.
+ *
+ * @author Tulio Toffolo
+ */
+public class TabuSearch extends Heuristic {
+
+    private final TabuList tabuList;
+    private final List<Move> enumerableMoves = new ArrayList<>();
+    private final int nNeighborhoods;
+
+    private long nBlocked = 0;
+
+    /**
+     * Instantiates a new TabuSearch.
+     *
+     * @param problem        problem reference.
+     * @param random         random number generator.
+     * @param minTenure      minimum number of iterations during which an
+     *                       attribute is tabu.
+     * @param maxTenure      maximum number of iterations during which an
+     *                       attribute is tabu.
+     * @param nNeighborhoods number of (randomly selected) neighborhoods
+     *                       enumerated per iteration, or 0 to enumerate all
+     *                       of them.
+     */
+    public TabuSearch(Problem problem, Random random, int minTenure, int maxTenure, int nNeighborhoods) {
+        super(problem, random, "Tabu Search");
+        this.nNeighborhoods = nNeighborhoods;
+        tabuList = new TabuList(problem, random, minTenure, maxTenure);
+    }
+
+    /**
+     * Adds a move to the heuristic (the move shares the tabu list of the
+     * heuristic).
+     *
+     * @param move the move to be added.
+     */
+    public void addMove(Move move) {
+        super.addMove(move);
+        move.setTabuList(tabuList);
+        if (move.hasEnumeration()) enumerableMoves.add(move);
+    }
+
+    /**
+     * Executes the Tabu Search.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations without improvements to execute.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the Tabu Search.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        bestSolution = initialSolution;
+        Solution solution = initialSolution.clone();
+
+        tabuList.reset();
+        int nEnumerated = nNeighborhoods > 0 ? Math.min(nNeighborhoods, enumerableMoves.size()) : enumerableMoves.size();
+        long nItersWithoutImprovement = 0;
+
+        while (System.currentTimeMillis() < finalTimeMillis && nItersWithoutImprovement++ < maxIters) {
+            tabuList.setAspirationCost(bestSolution.getCost());
+
+            // selecting the best non-tabu neighbor among the (sampled) neighborhoods
+            Move bestMove = null;
+            for (int i = 0; i < nEnumerated; i++) {
+                if (nEnumerated < enumerableMoves.size())
+                    Collections.swap(enumerableMoves, i, i + random.nextInt(enumerableMoves.size() - i));
+                Move move = enumerableMoves.get(i);
+                move.enumerate(solution, false);
+                if (move.hasSelectedNeighbor() && (bestMove == null || move.getSelectedDelta() < bestMove.getSelectedDelta()
+                  || (move.getSelectedDelta() == bestMove.getSelectedDelta()
+                  && move.getSelectedLocalDelta() < bestMove.getSelectedLocalDelta())))
+                    bestMove = move;
+            }
+
+            // if all neighbors are tabu, the attributes are left to expire
+            if (bestMove == null) {
+                nBlocked++;
+            }
+            else {
+                bestMove.doSelectedMove(solution);
+                acceptMove(bestMove);
+
+                if (solution.getCost() < bestSolution.getCost()) {
+                    bestSolution = solution.clone();
+                    publish(bestSolution);
+                    nItersWithoutImprovement = 0;
+                    Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
+                }
+            }
+
+            tabuList.nextIteration();
+            nIters++;
+        }
+
+        return bestSolution;
+    }
+
+    /**
+     * Prints the number of iterations in which all neighbors were tabu.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) {
+        Util.safePrintf(output, "Tabu search: %s iterations, %s with all neighbors tabu\n\n", Util.longToString(nIters),
+          Util.longToString(nBlocked));
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic.
+     */
+    public String toString() {
+        return String.format("%s (tenure=%d..%d, neighborhoods=%s)", name, tabuList.getMinTenure(), tabuList.getMaxTenure(),
+          nNeighborhoods > 0 ? nNeighborhoods : "all");
+    }
+}
@@ -0,0 +1,171 @@
+package upmsp.algorithm.heuristic;
+
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class is a Variable Neighborhood Descent implementation. The
+ * neighborhoods are explored in a configured order (ideally the cheapest
+ * first) and the search returns to the first neighborhood after any
+ * improvement; it stops when no neighborhood improves the solution.
+ * Neighborhoods supporting systematic enumeration are fully enumerated (first
+ * or best improvement), while the others are explored by sampling a limited
+ * number of random neighbors.
+ * <p>
+ * The order is given by a list of move names; each name selects the move with
+ * that name and its makespan-machine variant (which is explored first). Moves
+ * not listed are not used.
+ *
+ * @author Tulio Toffolo
+ */
+public class VND extends Heuristic {
+
+    public static final String DEFAULT_ORDER = "Switch,Shift,Reversal,TaskMove,SimpSwap,Swap,2-Shift";
+
+    private final String order[];
+    private final boolean firstImprovement;
+    private final long nSamples;
+
+    private final List<Move> sequence = new ArrayList<>();
+
+    /**
+     * Instantiates a new VND.
+     *
+     * @param problem          problem reference.
+     * @param random           random number generator.
+     * @param order            comma-separated list with the names of the moves,
+     *                         in the order in which they are explored.
+     * @param firstImprovement true if enumerations should stop at the first
+     *                         improving neighbor or false otherwise.
+     * @param nSamples         number of random neighbors sampled from moves that
+     *                         do not support enumeration.
+     */
+    public VND(Problem problem, Random random, String order, boolean firstImprovement, long nSamples) {
+        super(problem, random, "VND");
+        this.order = order.split(",");
+        this.firstImprovement = firstImprovement;
+        this.nSamples = nSamples;
+    }
+
+    /**
+     * Adds a move to the heuristic (moves not included in the order are kept
+     * but never explored).
+     *
+     * @param move the move to be added.
+     */
+    public void addMove(Move move) {
+        super.addMove(move);
+
+        sequence.clear();
+        for (String name : order) {
+            for (Move m : moves)
+                if (m.name.equalsIgnoreCase(name.trim() + "(mk)"))
+                    sequence.add(m);
+            for (Move m : moves)
+                if (m.name.equalsIgnoreCase(name.trim()))
+                    sequence.add(m);
+        }
+    }
+
+    /**
+     * Returns the moves in the order in which they are explored.
+     *
+     * @return an unmodifiableList with the moves in the order in which they
+     * are explored.
+     */
+    public List<Move> getSequence() {
+        return Collections.unmodifiableList(sequence);
+    }
+
+    /**
+     * Executes the Variable Neighborhood Descent.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of moves to apply.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the VND.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        bestSolution = initialSolution;
+        Solution solution = initialSolution.clone();
+
+        int k = 0;
+        long nApplied = 0;
+
+        while (k < sequence.size() && nApplied < maxIters && System.currentTimeMillis() < finalTimeMillis) {
+            Move move = sequence.get(k);
+
+            boolean improved = false;
+            if (move.hasEnumeration()) {
+                if (move.enumerate(solution, firstImprovement)) {
+                    move.doSelectedMove(solution);
+                    acceptMove(move);
+                    improved = true;
+                }
+                nIters++;
+            }
+            else {
+                improved = sample(move, solution, finalTimeMillis);
+            }
+
+            // returning to the first neighborhood after an improvement
+            if (improved) {
+                k = 0;
+                nApplied++;
+
+                if (solution.getCost() < bestSolution.getCost()) {
+                    bestSolution = solution.clone();
+                    publish(bestSolution);
+                    Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
+                }
+            }
+            else {
+                k++;
+            }
+        }
+
+        // only non-worsening moves are applied, so the final solution is the
+        // best one (and includes sideways improvements)
+        return bestSolution = solution;
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic (with parameters values).
+     */
+    public String toString() {
+        return String.format("VND (order=%s, %s improvement, nSamples=%s)", String.join(",", order),
+          firstImprovement ? "first" : "best", Util.longToString(nSamples));
+    }
+
+
+    /**
+     * Samples random neighbors of a move (which does not support enumeration)
+     * until an improving one is found or the sample limit is reached.
+     *
+     * @return true if an improving neighbor was found (and applied) and false
+     * otherwise.
+     */
+    private boolean sample(Move move, Solution solution, long finalTimeMillis) {
+        for (long i = 0; i < nSamples && move.hasMove(solution); i++) {
+            if ((i & 1023) == 0 && System.currentTimeMillis() >= finalTimeMillis) break;
+            nIters++;
+
+            if (move.doMove(solution) < 0) {
+                acceptMove(move);
+                return true;
+            }
+            rejectMove(move);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,159 @@
+package upmsp.algorithm.intensification;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents a pool of elite (good and diverse) solutions. The
+ * distance between two solutions is the number of jobs assigned to different
+ * machines plus the number of jobs with different predecessors (i.e. of
+ * broken arcs). The attributes of the elite solutions (machine and
+ * predecessor of each job) are stored when they enter the pool, so that the
+ * distance to a candidate is computed in O(n).
+ * <p>
+ * If a candidate is closer than minDistance to an elite solution, it replaces
+ * the closest elite solution if it is better than it. Otherwise, the
+ * candidate is added to the pool if the pool is not full, or it replaces the
+ * worst elite solution if it is better than it. Solutions are copied into
+ * preallocated slots.
+ *
+ * @author Tulio Toffolo
+ */
+public class ElitePool {
+
+    public final Problem problem;
+    public final int capacity, minDistance;
+
+    private final Solution elites[];
+    private final int machineOf[][], predecessor[][];
+    private int size = 0;
+
+    private final int candidateMachineOf[], candidatePredecessor[];
+
+    /**
+     * Instantiates a new ElitePool.
+     *
+     * @param problem     problem reference.
+     * @param capacity    maximum number of elite solutions.
+     * @param minDistance minimum distance between elite solutions.
+     */
+    public ElitePool(Problem problem, int capacity, int minDistance) {
+        this.problem = problem;
+        this.capacity = capacity;
+        this.minDistance = minDistance;
+
+        elites = new Solution[capacity];
+        machineOf = new int[capacity][problem.nJobs];
+        predecessor = new int[capacity][problem.nJobs];
+        for (int i = 0; i < capacity; i++)
+            elites[i] = new Solution(problem);
+
+        candidateMachineOf = new int[problem.nJobs];
+        candidatePredecessor = new int[problem.nJobs];
+    }
+
+    /**
+     * Offers a solution to the pool (the solution is copied if it enters the
+     * pool).
+     *
+     * @param solution the candidate solution.
+     * @return true if the solution entered the pool and false otherwise.
+     */
+    public boolean add(Solution solution) {
+        computeAttributes(solution, candidateMachineOf, candidatePredecessor);
+
+        int closest = -1, closestDistance = Integer.MAX_VALUE;
+        int worst = -1;
+        for (int i = 0; i < size; i++) {
+            int distance = getDistance(i, candidateMachineOf, candidatePredecessor);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = i;
+            }
+            if (worst < 0 || elites[i].getCost() > elites[worst].getCost()) worst = i;
+        }
+        if (closestDistance == 0) return false;
+
+        int slot;
+        if (closestDistance < minDistance) {
+            // too close to an elite solution: replacing it only if the candidate is better
+            if (solution.getCost() >= elites[closest].getCost()) return false;
+            slot = closest;
+        }
+        else if (size < capacity) {
+            slot = size++;
+        }
+        else {
+            if (solution.getCost() >= elites[worst].getCost()) return false;
+            slot = worst;
+        }
+
+        elites[slot].copyFrom(solution);
+        System.arraycopy(candidateMachineOf, 0, machineOf[slot], 0, problem.nJobs);
+        System.arraycopy(candidatePredecessor, 0, predecessor[slot], 0, problem.nJobs);
+        return true;
+    }
+
+    /**
+     * Gets the i-th elite solution, which must not be modified.
+     *
+     * @param i index of the elite solution.
+     * @return the i-th elite solution.
+     */
+    public Solution get(int i) {
+        return elites[i];
+    }
+
+    /**
+     * Gets the distance between two elite solutions.
+     *
+     * @param i index of the first elite solution.
+     * @param j index of the second elite solution.
+     * @return the distance between the elite solutions.
+     */
+    public int getDistance(int i, int j) {
+        return getDistance(i, machineOf[j], predecessor[j]);
+    }
+
+    /**
+     * Gets the number of elite solutions in the pool.
+     *
+     * @return the number of elite solutions in the pool.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Stores the machine and the predecessor (or -1 for the first job of a
+     * machine) of each job of a solution.
+     *
+     * @param solution    the solution.
+     * @param machineOf   array to store the machine of each job.
+     * @param predecessor array to store the predecessor of each job.
+     */
+    public static void computeAttributes(Solution solution, int machineOf[], int predecessor[]) {
+        for (Machine machine : solution.machines) {
+            for (int k = 0; k < machine.getNJobs(); k++) {
+                machineOf[machine.jobs[k]] = machine.id;
+                predecessor[machine.jobs[k]] = k > 0 ? machine.jobs[k - 1] : -1;
+            }
+        }
+    }
+
+
+    /**
+     * Returns the distance between elite solution {@param i} and a solution
+     * with the given attributes.
+     */
+    private int getDistance(int i, int otherMachineOf[], int otherPredecessor[]) {
+        int distance = 0;
+        for (int j = 0; j < problem.nJobs; j++) {
+            if (machineOf[i][j] != otherMachineOf[j]) distance++;
+            if (predecessor[i][j] != otherPredecessor[j]) distance++;
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,246 @@
+package upmsp.algorithm.intensification;
+
+import upmsp.algorithm.heuristic.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class implements the path relinking between two solutions: starting
+ * from an initiating solution, jobs are moved, one at a time, to the machine
+ * and predecessor they have in a guiding solution, until the guiding solution
+ * is (almost) reached. In each step, the move resulting in the smallest
+ * makespan is selected among (at most {@link #MAX_CANDIDATES} sampled) jobs
+ * whose attributes differ from the guiding solution. A job is inserted right
+ * after its guiding predecessor when that job is already in the guiding
+ * machine, or in the best position of the guiding machine otherwise.
+ * <p>
+ * The walk is incremental: the jobs with differing attributes are kept in a
+ * list updated after each step (only the moved job and its old and new
+ * successors may change) and moves are evaluated in O(1) with respect to the
+ * other machines. The best {@code nIntermediates} intermediate solutions are
+ * kept (copied into preallocated slots) and a short local search is executed
+ * from each of them.
+ *
+ * @author Tulio Toffolo
+ */
+public class PathRelinking {
+
+    public final static int MAX_CANDIDATES = 64;
+
+    public final Problem problem;
+    public final Random random;
+
+    private final Heuristic localSearch;
+    private final long localSearchIters;
+
+    private final Solution current;
+    private final Solution intermediates[];
+    private int nIntermediates;
+
+    private final int guideMachine[], guidePredecessor[], machineOf[], predecessor[];
+    private final int differing[], differingIndex[];
+    private int nDiffering;
+
+    /**
+     * Instantiates a new PathRelinking.
+     *
+     * @param problem          problem reference.
+     * @param random           random number generator.
+     * @param localSearch      local search executed from the best intermediate
+     *                         solutions.
+     * @param localSearchIters maximum number of iterations (as interpreted by
+     *                         the local search) of each local search.
+     * @param nIntermediates   number of (best) intermediate solutions from which
+     *                         the local search is executed.
+     */
+    public PathRelinking(Problem problem, Random random, Heuristic localSearch, long localSearchIters, int nIntermediates) {
+        this.problem = problem;
+        this.random = random;
+        this.localSearch = localSearch;
+        this.localSearchIters = localSearchIters;
+
+        current = new Solution(problem);
+        intermediates = new Solution[Math.max(1, nIntermediates)];
+        for (int i = 0; i < intermediates.length; i++)
+            intermediates[i] = new Solution(problem);
+
+        guideMachine = new int[problem.nJobs];
+        guidePredecessor = new int[problem.nJobs];
+        machineOf = new int[problem.nJobs];
+        predecessor = new int[problem.nJobs];
+        differing = new int[problem.nJobs];
+        differingIndex = new int[problem.nJobs];
+    }
+
+    /**
+     * Relinks two solutions (which are not modified) and returns the best
+     * solution obtained by the local searches executed from the best
+     * intermediate solutions of the path.
+     *
+     * @param initiating      the initiating solution.
+     * @param guiding         the guiding solution.
+     * @param finalTimeMillis the time at which the relinking must stop.
+     * @return the best solution obtained (a new solution) or null if the path
+     * has no intermediate solution.
+     */
+    public Solution relink(Solution initiating, Solution guiding, long finalTimeMillis) {
+        current.copyFrom(initiating);
+        ElitePool.computeAttributes(guiding, guideMachine, guidePredecessor);
+        ElitePool.computeAttributes(current, machineOf, predecessor);
+
+        nDiffering = 0;
+        for (int j = 0; j < problem.nJobs; j++) {
+            if (machineOf[j] != guideMachine[j] || predecessor[j] != guidePredecessor[j]) {
+                differingIndex[j] = nDiffering;
+                differing[nDiffering++] = j;
+            }
+            else {
+                differingIndex[j] = -1;
+            }
+        }
+
+        // walking from the initiating solution towards the guiding one
+        nIntermediates = 0;
+        int maxSteps = 2 * nDiffering;
+        for (int step = 0; step < maxSteps && nDiffering > 1 && System.currentTimeMillis() < finalTimeMillis; step++) {
+            if (!applyBestStep()) break;
+            if (nDiffering > 0) storeIntermediate();
+        }
+
+        // executing the local search from the best intermediate solutions
+        Solution best = null;
+        for (int i = 0; i < nIntermediates && System.currentTimeMillis() < finalTimeMillis; i++) {
+            Solution result = localSearch.run(intermediates[i], finalTimeMillis - System.currentTimeMillis(), localSearchIters, null);
+            if (best == null || result.getCost() < best.getCost())
+                best = result == intermediates[i] ? result.clone() : result;
+        }
+        return best;
+    }
+
+
+    /**
+     * Selects and applies the step (among sampled differing jobs) resulting in
+     * the smallest makespan.
+     *
+     * @return true if a step was applied and false otherwise.
+     */
+    private boolean applyBestStep() {
+        int bestJob = -1, bestPos = -1, bestCost = Integer.MAX_VALUE;
+
+        int nCandidates = Math.min(nDiffering, MAX_CANDIDATES);
+        for (int c = 0; c < nCandidates; c++) {
+            int job = nDiffering > MAX_CANDIDATES ? differing[random.nextInt(nDiffering)] : differing[c];
+            Machine from = current.machines[machineOf[job]], to = current.machines[guideMachine[job]];
+
+            int index = indexOf(from, job);
+            if (from == to) {
+                int pos = getTargetPosition(to, job, index);
+                if (pos == index) continue;
+                int cost = Math.max(current.getCostWithout(from, null), from.getMakespan() + from.getDeltaCostShiftJob(index, pos));
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestJob = job;
+                    bestPos = pos;
+                }
+            }
+            else {
+                int pos = getTargetPosition(to, job, -1);
+                int cost = Math.max(current.getCostWithout(from, to), Math.max(from.getMakespan() + from.getDeltaCostDelJob(index),
+                  to.getMakespan() + to.getDeltaCostAddJob(job, pos)));
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestJob = job;
+                    bestPos = pos;
+                }
+            }
+        }
+        if (bestJob < 0) return false;
+
+        // applying the step
+        Machine from = current.machines[machineOf[bestJob]], to = current.machines[guideMachine[bestJob]];
+        int index = indexOf(from, bestJob);
+        int oldNext = index + 1 < from.getNJobs() ? from.jobs[index + 1] : -1;
+        from.delJob(index);
+        to.addJob(bestJob, bestPos);
+        machineOf[bestJob] = to.id;
+        int newNext = bestPos + 1 < to.getNJobs() ? to.jobs[bestPos + 1] : -1;
+        current.updateCost();
+
+        // updating the list of differing jobs
+        updateDiffering(bestJob);
+        if (oldNext >= 0) updateDiffering(oldNext);
+        if (newNext >= 0) updateDiffering(newNext);
+        return true;
+    }
+
+    /**
+     * Returns the position of machine {@param machine} in which job {@param
+     * job} should be inserted: right after its guiding predecessor (if it is
+     * in the machine) or in the best position otherwise. If the job is already
+     * in the machine, in position {@param index}, the returned position refers
+     * to the sequence without it.
+     */
+    private int getTargetPosition(Machine machine, int job, int index) {
+        int guide = guidePredecessor[job];
+        if (guide < 0)
+            return 0;
+        if (machineOf[guide] == machine.id) {
+            int pos = indexOf(machine, guide) + 1;
+            return index >= 0 && index < pos ? pos - 1 : pos;
+        }
+        return index >= 0 ? index : machine.getBestPositionAddJob(job);
+    }
+
+    /**
+     * Updates whether job {@param job} has attributes that differ from the
+     * guiding solution.
+     */
+    private void updateDiffering(int job) {
+        Machine machine = current.machines[machineOf[job]];
+        int index = indexOf(machine, job);
+        predecessor[job] = index > 0 ? machine.jobs[index - 1] : -1;
+        boolean differs = machineOf[job] != guideMachine[job] || predecessor[job] != guidePredecessor[job];
+
+        if (differs && differingIndex[job] < 0) {
+            differingIndex[job] = nDiffering;
+            differing[nDiffering++] = job;
+        }
+        else if (!differs && differingIndex[job] >= 0) {
+            int last = differing[--nDiffering];
+            differing[differingIndex[job]] = last;
+            differingIndex[last] = differingIndex[job];
+            differingIndex[job] = -1;
+        }
+    }
+
+    /**
+     * Stores the current solution among the best intermediate solutions (if
+     * it is better than the worst of them).
+     */
+    private void storeIntermediate() {
+        int slot = nIntermediates;
+        if (nIntermediates == intermediates.length) {
+            slot = 0;
+            for (int i = 1; i < nIntermediates; i++)
+                if (intermediates[i].getCost() > intermediates[slot].getCost())
+                    slot = i;
+            if (current.getCost() >= intermediates[slot].getCost()) return;
+        }
+        else {
+            nIntermediates++;
+        }
+        intermediates[slot].copyFrom(current);
+    }
+
+    /**
+     * Returns the position of job {@param job} in machine {@param machine}.
+     */
+    private static int indexOf(Machine machine, int job) {
+        for (int k = 0; k < machine.getNJobs(); k++)
+            if (machine.jobs[k] == job)
+                return k;
+        throw new IllegalStateException("job " + job + " is not in machine " + machine.id);
+    }
+}
@@ -0,0 +1,235 @@
+package upmsp.algorithm.intensification;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+/**
+ * This class reoptimizes the sequences of jobs of the machines of a solution.
+ * Sequencing the jobs of a machine is an asymmetric TSP path problem (with
+ * free start and end) over the setup times. Machines with up to {@code
+ * maxExactJobs} jobs are solved exactly with the Held-Karp dynamic programming
+ * algorithm; on larger machines, windows of {@code windowSize} consecutive
+ * jobs (with fixed predecessor and successor) are solved exactly until no
+ * window can be improved.
+ * <p>
+ * The DP tables are preallocated once per thread, so that the resequencing is
+ * allocation-free. Machines whose signature did not change since they were
+ * last resequenced are skipped.
+ *
+ * @author Tulio Toffolo
+ */
+public class Resequencer {
+
+    /**
+     * Largest supported maxExactJobs: the tables have (2^n * n) entries and
+     * job indices are stored in bytes.
+     */
+    public final static int MAX_EXACT_JOBS = 20;
+
+    public final Problem problem;
+
+    private final int maxExactJobs, windowSize, parallelThreshold;
+    private final long signatures[];
+    private final ThreadLocal<Workspace> workspaces;
+
+    private final AtomicLong nImprovements = new AtomicLong();
+
+    /**
+     * Instantiates a new Resequencer.
+     *
+     * @param problem           problem reference.
+     * @param maxExactJobs      maximum number of jobs of a machine to solve its
+     *                          sequence exactly (at most {@link
+     *                          #MAX_EXACT_JOBS}).
+     * @param windowSize        number of consecutive jobs in each window of
+     *                          larger machines (between 2 and maxExactJobs).
+     * @param parallelThreshold minimum number of machines to resequence the
+     *                          machines in parallel.
+     */
+    public Resequencer(Problem problem, int maxExactJobs, int windowSize, int parallelThreshold) {
+        if (maxExactJobs < 1 || maxExactJobs > MAX_EXACT_JOBS)
+            throw new IllegalArgumentException("The resequencer supports 1 to " + MAX_EXACT_JOBS + " exact jobs.");
+
+        this.problem = problem;
+        this.maxExactJobs = maxExactJobs;
+        this.windowSize = Math.min(Math.max(windowSize, 2), maxExactJobs);
+        this.parallelThreshold = parallelThreshold;
+
+        signatures = new long[problem.nMachines];
+        workspaces = ThreadLocal.withInitial(() -> new Workspace(maxExactJobs));
+    }
+
+    /**
+     * Resequences all machines of the solution.
+     *
+     * @param solution the solution to improve.
+     * @return the (delta) change in the makespan of the solution.
+     */
+    public int run(Solution solution) {
+        int initialCost = solution.getCost();
+
+        if (solution.machines.length >= parallelThreshold)
+            IntStream.range(0, solution.machines.length).parallel().forEach(m -> resequence(solution.machines[m]));
+        else
+            for (Machine machine : solution.machines)
+                resequence(machine);
+
+        solution.updateCost();
+        return solution.getCost() - initialCost;
+    }
+
+    /**
+     * Resequences the jobs of a machine. Note that the solution cost is not
+     * updated by this method.
+     *
+     * @param machine the machine.
+     * @return true if the makespan of the machine was improved and false
+     * otherwise.
+     */
+    public boolean resequence(Machine machine) {
+        if (machine.getNJobs() < 2 || signatures[machine.id] == machine.getSignature())
+            return false;
+
+        Workspace ws = workspaces.get();
+        boolean improved = false;
+
+        if (machine.getNJobs() <= maxExactJobs) {
+            improved = optimize(ws, machine, 0, machine.getNJobs());
+        }
+        else {
+            int step = Math.max(1, windowSize / 2);
+            boolean changed;
+            do {
+                changed = false;
+                for (int index = 0; index < machine.getNJobs() - windowSize + step; index += step)
+                    changed |= optimize(ws, machine, Math.min(index, machine.getNJobs() - windowSize), windowSize);
+                improved |= changed;
+            }
+            while (changed);
+        }
+
+        if (improved) nImprovements.incrementAndGet();
+        signatures[machine.id] = machine.getSignature();
+        return improved;
+    }
+
+    /**
+     * Gets the number of machines improved so far.
+     *
+     * @return the number of machines improved.
+     */
+    public long getNImprovements() {
+        return nImprovements.get();
+    }
+
+    /**
+     * Returns the string representation of the resequencer.
+     *
+     * @return the string representation of the resequencer.
+     */
+    public String toString() {
+        return String.format("Resequencer (maxExactJobs=%d, windowSize=%d)", maxExactJobs, windowSize);
+    }
+
+
+    /**
+     * Optimally reorders the {@param length} jobs starting in position {@param
+     * index} of the machine, keeping the jobs before and after them fixed.
+     *
+     * @return true if the machine was improved and false otherwise.
+     */
+    private boolean optimize(Workspace ws, Machine machine, int index, int length) {
+        final int setup[][] = problem.setupTimes[machine.id];
+        final int cost[] = ws.cost, dist[] = ws.dist, start[] = ws.start, end[] = ws.end, nodes[] = ws.nodes;
+        final int k = length;
+
+        int prev = index > 0 ? machine.jobs[index - 1] : -1;
+        int next = index + length < machine.getNJobs() ? machine.jobs[index + length] : -1;
+
+        // local distance matrix and current cost of the subsequence
+        int currentCost = 0;
+        for (int i = 0; i < k; i++) {
+            nodes[i] = machine.jobs[index + i];
+            start[i] = prev >= 0 ? setup[prev][nodes[i]] : 0;
+            end[i] = next >= 0 ? setup[nodes[i]][next] : 0;
+        }
+        for (int i = 0; i < k; i++)
+            for (int j = 0; j < k; j++)
+                dist[i * k + j] = setup[nodes[i]][nodes[j]];
+        currentCost += start[0] + end[k - 1];
+        for (int i = 0; i < k - 1; i++)
+            currentCost += dist[i * k + i + 1];
+
+        // Held-Karp: cost[mask * k + last] is the cost of the best path visiting
+        // the nodes in mask and ending in last
+        for (int mask = 1; mask < 1 << k; mask++) {
+            for (int last = 0; last < k; last++) {
+                if ((mask & (1 << last)) == 0) continue;
+
+                int rest = mask ^ (1 << last);
+                if (rest == 0) {
+                    cost[mask * k + last] = start[last];
+                    continue;
+                }
+
+                int bestCost = Integer.MAX_VALUE, bestPrev = -1;
+                for (int p = 0; p < k; p++) {
+                    if ((rest & (1 << p)) == 0) continue;
+                    int value = cost[rest * k + p] + dist[p * k + last];
+                    if (value < bestCost) {
+                        bestCost = value;
+                        bestPrev = p;
+                    }
+                }
+                cost[mask * k + last] = bestCost;
+                ws.parent[mask * k + last] = ( byte ) bestPrev;
+            }
+        }
+
+        int full = (1 << k) - 1, bestCost = Integer.MAX_VALUE, last = -1;
+        for (int i = 0; i < k; i++) {
+            if (cost[full * k + i] + end[i] < bestCost) {
+                bestCost = cost[full * k + i] + end[i];
+                last = i;
+            }
+        }
+        if (bestCost >= currentCost) return false;
+
+        // reconstructing the optimal order
+        for (int i = k - 1, mask = full; i >= 0; i--) {
+            ws.sequence[i] = nodes[last];
+            int p = ws.parent[mask * k + last];
+            mask ^= 1 << last;
+            last = p;
+        }
+
+        int makespan = machine.getMakespan();
+        machine.setJobs(index, ws.sequence, k);
+        assert machine.getMakespan() == makespan - (currentCost - bestCost);
+
+        return true;
+    }
+
+    /**
+     * Preallocated tables used by the dynamic programming algorithm (one per
+     * thread).
+     */
+    private static class Workspace {
+        final int cost[];
+        final byte parent[];
+        final int dist[], start[], end[], nodes[], sequence[];
+
+        Workspace(int maxJobs) {
+            cost = new int[(1 << maxJobs) * maxJobs];
+            parent = new byte[(1 << maxJobs) * maxJobs];
+            dist = new int[maxJobs * maxJobs];
+            start = new int[maxJobs];
+            end = new int[maxJobs];
+            nodes = new int[maxJobs];
+            sequence = new int[maxJobs];
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package upmsp.algorithm.multilevel;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents a hierarchy of coarsened problems. A cluster is a
+ * fixed sequence of jobs, i.e. a super-job whose process time in a machine is
+ * the sum of the process times and internal setup times of its jobs, and whose
+ * setup time to another cluster is the setup time between its last job and
+ * the first job of the other cluster.
+ * <p>
+ * In each level, the nodes (jobs or clusters) of the previous level are
+ * matched in pairs: each node is matched with the best of (at most {@link
+ * #N_CANDIDATES}) randomly sampled unmatched nodes, in the best orientation.
+ * The loss of a pair is the process time of the merged cluster in its best
+ * machine minus the process times of the two nodes in their own best
+ * machines, so that it penalizes both the internal setup time and the
+ * merging of nodes that prefer different machines.
+ * <p>
+ * Only the first and last jobs, the process times and the children of each
+ * node are stored (O(n * m) memory per level), so that the coarsening runs in
+ * O(n * N_CANDIDATES * m) time. The setup matrices of a coarse problem are
+ * built on demand (see {@link #createProblem(int)}), so that only one coarse
+ * problem needs to be kept in memory at a time.
+ *
+ * @author Tulio Toffolo
+ */
+public class Coarsening {
+
+    public final static int N_CANDIDATES = 32;
+
+    public final Problem problem;
+
+    private final List<int[][]> children = new ArrayList<>();
+    private final List<int[]> firstJobs = new ArrayList<>();
+    private final List<int[]> lastJobs = new ArrayList<>();
+    private final List<int[][]> processTimes = new ArrayList<>();
+
+    /**
+     * Coarsens a problem until it has at most {@param maxNodes} nodes (or
+     * until a level does not reduce the number of nodes significantly). Level
+     * 0 is the original problem.
+     *
+     * @param problem  the (original) problem.
+     * @param random   random number generator.
+     * @param maxNodes maximum number of nodes of the coarsest level.
+     */
+    public Coarsening(Problem problem, Random random, int maxNodes) {
+        this.problem = problem;
+
+        int identity[] = new int[problem.nJobs];
+        for (int j = 0; j < problem.nJobs; j++)
+            identity[j] = j;
+        children.add(null);
+        firstJobs.add(identity);
+        lastJobs.add(identity);
+        processTimes.add(problem.processTimes);
+
+        maxNodes = Math.max(maxNodes, 2 * problem.nMachines);
+        while (getNNodes(getNLevels() - 1) > maxNodes) {
+            int nNodes = getNNodes(getNLevels() - 1);
+            coarsen(random);
+            if (getNNodes(getNLevels() - 1) > 0.9 * nNodes) break;
+        }
+    }
+
+    /**
+     * Builds the (coarse) problem of a level. Its matrices have the size of
+     * the level, and are computed from the original matrices.
+     *
+     * @param level the level.
+     * @return the problem of the level (the original problem for level 0).
+     */
+    public Problem createProblem(int level) {
+        if (level == 0) return problem;
+
+        int nNodes = getNNodes(level);
+        int first[] = firstJobs.get(level), last[] = lastJobs.get(level);
+
+        int setupTimes[][][] = new int[problem.nMachines][nNodes][nNodes];
+        for (int m = 0; m < problem.nMachines; m++) {
+            for (int a = 0; a < nNodes; a++) {
+                int row[] = problem.setupTimes[m][last[a]];
+                for (int b = 0; b < nNodes; b++)
+                    setupTimes[m][a][b] = a != b ? row[first[b]] : 0;
+            }
+        }
+        return new Problem(processTimes.get(level), setupTimes);
+    }
+
+    /**
+     * Gets the number of levels (including level 0, i.e. the original
+     * problem).
+     *
+     * @return the number of levels.
+     */
+    public int getNLevels() {
+        return firstJobs.size();
+    }
+
+    /**
+     * Gets the number of nodes (jobs of the coarse problem) of a level.
+     *
+     * @param level the level.
+     * @return the number of nodes of the level.
+     */
+    public int getNNodes(int level) {
+        return firstJobs.get(level).length;
+    }
+
+    /**
+     * Uncoarsens a solution of a level into a solution of the previous
+     * (finer) level: each node is replaced by its children, in the same
+     * machine and in their order.
+     *
+     * @param coarse the solution of level {@param level}.
+     * @param level  the level of the coarse solution (at least 1).
+     * @param fine   the solution of level {@param level} - 1 (overwritten).
+     */
+    public void uncoarsen(Solution coarse, int level, Solution fine) {
+        int nodeChildren[][] = children.get(level);
+        int sequence[] = new int[fine.problem.nJobs];
+        for (int m = 0; m < problem.nMachines; m++) {
+            Machine machine = coarse.machines[m];
+            int length = 0;
+            for (int k = 0; k < machine.getNJobs(); k++)
+                for (int child : nodeChildren[machine.jobs[k]])
+                    sequence[length++] = child;
+            fine.machines[m].setSequence(sequence, length);
+        }
+        fine.updateCost();
+    }
+
+
+    /**
+     * Creates a new level by matching the nodes of the last level.
+     */
+    private void coarsen(Random random) {
+        int level = getNLevels() - 1;
+        int nNodes = getNNodes(level);
+        int first[] = firstJobs.get(level), last[] = lastJobs.get(level);
+        int process[][] = processTimes.get(level);
+
+        int bestProcess[] = new int[nNodes];
+        Arrays.fill(bestProcess, Integer.MAX_VALUE);
+        for (int m = 0; m < problem.nMachines; m++)
+            for (int node = 0; node < nNodes; node++)
+                bestProcess[node] = Math.min(bestProcess[node], process[m][node]);
+
+        int order[] = new int[nNodes];
+        for (int i = 0; i < nNodes; i++)
+            order[i] = i;
+        for (int i = nNodes - 1; i > 0; i--) {
+            int k = random.nextInt(i + 1);
+            int aux = order[i];
+            order[i] = order[k];
+            order[k] = aux;
+        }
+
+        boolean matched[] = new boolean[nNodes];
+        List<int[]> newChildren = new ArrayList<>();
+        for (int a : order) {
+            if (matched[a]) continue;
+            matched[a] = true;
+
+            // selecting the best sampled unmatched node (and orientation)
+            int best = -1, bestLoss = Integer.MAX_VALUE;
+            boolean bestAfter = true;
+            for (int c = 0; c < N_CANDIDATES; c++) {
+                int b = random.nextInt(nNodes);
+                if (matched[b]) continue;
+
+                int processAB = Integer.MAX_VALUE, processBA = Integer.MAX_VALUE;
+                for (int m = 0; m < problem.nMachines; m++) {
+                    processAB = Math.min(processAB, process[m][a] + problem.setupTimes[m][last[a]][first[b]] + process[m][b]);
+                    processBA = Math.min(processBA, process[m][b] + problem.setupTimes[m][last[b]][first[a]] + process[m][a]);
+                }
+                int loss = Math.min(processAB, processBA) - bestProcess[a] - bestProcess[b];
+                if (loss < bestLoss) {
+                    best = b;
+                    bestAfter = processAB <= processBA;
+                    bestLoss = loss;
+                }
+            }
+
+            if (best < 0) {
+                newChildren.add(new int[]{ a });
+            }
+            else {
+                matched[best] = true;
+                newChildren.add(bestAfter ? new int[]{ a, best } : new int[]{ best, a });
+            }
+        }
+
+        int nodeChildren[][] = newChildren.toArray(new int[newChildren.size()][]);
+        int newFirst[] = new int[nodeChildren.length], newLast[] = new int[nodeChildren.length];
+        int newProcess[][] = new int[problem.nMachines][nodeChildren.length];
+        for (int node = 0; node < nodeChildren.length; node++) {
+            int nodeFirst = nodeChildren[node][0], nodeLast = nodeChildren[node][nodeChildren[node].length - 1];
+            newFirst[node] = first[nodeFirst];
+            newLast[node] = last[nodeLast];
+            for (int m = 0; m < problem.nMachines; m++) {
+                newProcess[m][node] = process[m][nodeFirst];
+                if (nodeLast != nodeFirst)
+                    newProcess[m][node] += problem.setupTimes[m][last[nodeFirst]][first[nodeLast]] + process[m][nodeLast];
+            }
+        }
+        children.add(nodeChildren);
+        firstJobs.add(newFirst);
+        lastJobs.add(newLast);
+        processTimes.add(newProcess);
+    }
+}
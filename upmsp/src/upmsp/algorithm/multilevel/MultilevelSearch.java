@@ -0,0 +1,135 @@
+package upmsp.algorithm.multilevel;
+
+import upmsp.algorithm.constructive.*;
+import upmsp.algorithm.heuristic.*;
+import upmsp.algorithm.neighborhood.*;
+import upmsp.algorithm.parallel.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class is a multilevel search: the problem is coarsened (see {@link
+ * Coarsening}), the coarsest problem is solved by a heuristic starting from a
+ * greedy solution, and the solution is then uncoarsened and refined by the
+ * heuristic level by level, up to the original problem. Note that
+ * uncoarsening preserves the makespan, so that each level starts from a
+ * solution as good as the one obtained in the previous level.
+ * <p>
+ * The time limit is divided among the levels proportionally to their number
+ * of jobs. The heuristic of each level is created by the given factory; the
+ * moves of this heuristic are those of the heuristic of the original problem,
+ * into which the counters of the other levels are merged.
+ *
+ * @author Tulio Toffolo
+ */
+public class MultilevelSearch extends Heuristic {
+
+    private final int maxNodes;
+    private final HeuristicFactory factory;
+    private final Heuristic finest;
+
+    private Coarsening coarsening;
+
+    /**
+     * Instantiates a new MultilevelSearch.
+     *
+     * @param problem  problem reference.
+     * @param random   random number generator.
+     * @param maxNodes maximum number of jobs of the coarsest problem.
+     * @param factory  factory of the heuristic of each level.
+     */
+    public MultilevelSearch(Problem problem, Random random, int maxNodes, HeuristicFactory factory) {
+        super(problem, random, "Multilevel Search");
+        this.maxNodes = maxNodes;
+        this.factory = factory;
+
+        finest = factory.create(problem, new Random(random.nextLong()));
+        moves.addAll(finest.getMoves());
+    }
+
+    /**
+     * Executes the multilevel search.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations without improvements of the heuristic of each level.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered (for the original problem).
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        coarsening = new Coarsening(problem, random, maxNodes);
+        int coarsest = coarsening.getNLevels() - 1;
+        Util.safePrintText(output, String.format("Coarsened to %d levels", coarsest + 1),
+          coarsening.getNNodes(coarsest) + " jobs");
+
+        long totalNodes = 0;
+        for (int level = 0; level <= coarsest; level++)
+            totalNodes += coarsening.getNNodes(level);
+
+        Problem levelProblem = coarsening.createProblem(coarsest);
+        Solution solution = SimpleConstructive.greedySolution(levelProblem, random);
+
+        for (int level = coarsest; level > 0; level--) {
+            long levelMillis = (finalTimeMillis - System.currentTimeMillis()) * coarsening.getNNodes(level) / totalNodes;
+            totalNodes -= coarsening.getNNodes(level);
+
+            Heuristic heuristic = factory.create(levelProblem, new Random(random.nextLong()));
+            solution = heuristic.run(solution, levelMillis, maxIters, null);
+            nIters += heuristic.getNIters();
+            mergeStatistics(heuristic);
+            Util.safePrintStatus(output, nIters, solution, solution, "L" + level + " (" + coarsening.getNNodes(level) + " jobs)");
+
+            // uncoarsening the solution
+            levelProblem = coarsening.createProblem(level - 1);
+            Solution fineSolution = new Solution(levelProblem);
+            coarsening.uncoarsen(solution, level, fineSolution);
+            solution = fineSolution;
+        }
+
+        // refining the solution of the original problem (or keeping the initial one, if better)
+        if (initialSolution.getCost() < solution.getCost())
+            solution = initialSolution.clone();
+        finest.setIncumbent(incumbent);
+        publish(solution);
+        bestSolution = finest.run(solution, finalTimeMillis - System.currentTimeMillis(), maxIters, output);
+        return bestSolution;
+    }
+
+    /**
+     * Gets the total number of iterations performed (in all levels).
+     *
+     * @return the total number of iterations performed.
+     */
+    public long getNIters() {
+        return nIters + finest.getNIters();
+    }
+
+    /**
+     * Prints the number of jobs of each level.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) {
+        if (coarsening == null) return;
+        StringBuilder sizes = new StringBuilder();
+        for (int level = 0; level < coarsening.getNLevels(); level++)
+            sizes.append(level > 0 ? " -> " : "").append(coarsening.getNNodes(level));
+        Util.safePrintf(output, "Multilevel search: %d levels with %s jobs\n\n", coarsening.getNLevels(), sizes);
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic.
+     */
+    public String toString() {
+        return String.format("%s (maxJobs=%d) of %s", name, maxNodes, finest);
+    }
+
+}
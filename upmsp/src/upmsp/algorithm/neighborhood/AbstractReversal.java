@@ -0,0 +1,73 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This abstract class contains the state, the systematic enumeration and the
+ * undo of the Reversal neighborhood, which are shared by its variants (that
+ * only differ in how a neighbor is sampled by doMove()).
+ *
+ * @author Tulio Toffolo
+ */
+public abstract class AbstractReversal extends Move {
+
+    protected Machine machine;
+    protected int pos1, pos2;
+    protected boolean useMakespanMachine;
+
+    /**
+     * Instantiates a new move of the Reversal neighborhood.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param name               name of the move.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if the makespan machine should be always
+     *                           considered or false otherwise.
+     */
+    protected AbstractReversal(Problem problem, Random random, String name, int priority, boolean useMakespanMachine) {
+        super(problem, random, name, priority);
+        this.useMakespanMachine = useMakespanMachine;
+    }
+
+    public boolean enumerate(Solution solution, boolean firstImprovement) {
+        clearSelection();
+        for (Machine m : solution.machines) {
+            if (useMakespanMachine && m != solution.makespanMachine) continue;
+            for (int p1 = 0; p1 < m.getNJobs(); p1++) {
+                for (int p2 = p1 + 1; p2 < m.getNJobs(); p2++) {
+                    int localDelta = m.getDeltaCostReverseJobs(p1, p2);
+                    int delta = getNeighborDelta(solution, m, m.getMakespan() + localDelta, null, 0);
+                    if (isTabu(solution, delta, m.jobs[p1], m) || isTabu(solution, delta, m.jobs[p2], m)) continue;
+                    if (offerNeighbor(delta, localDelta)) {
+                        machine = m;
+                        pos1 = p1;
+                        pos2 = p2;
+                        if (firstImprovement && isSelectedImproving()) return true;
+                    }
+                }
+            }
+        }
+        return isSelectedImproving();
+    }
+
+    public boolean hasMove(Solution solution) {
+        return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
+    }
+
+    protected void applySelectedMove() {
+        makeTabu(machine.jobs[pos1], machine);
+        makeTabu(machine.jobs[pos2], machine);
+        machine.reverseJobs(pos1, pos2);
+    }
+
+    public void reject() {
+        super.reject();
+
+        machine.reverseJobs(pos1, pos2);
+        currentSolution.updateCost();
+    }
+}
@@ -0,0 +1,76 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This abstract class contains the state, the systematic enumeration and the
+ * undo of the Shift neighborhood, which are shared by its variants (that
+ * only differ in how a neighbor is sampled by doMove()).
+ *
+ * @author Tulio Toffolo
+ */
+public abstract class AbstractShift extends Move {
+
+    protected Machine machine;
+    protected int pos1, pos2, job;
+    protected boolean useMakespanMachine;
+
+    /**
+     * Instantiates a new move of the Shift neighborhood.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param name               name of the move.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if the makespan machine should be always
+     *                           considered or false otherwise.
+     */
+    protected AbstractShift(Problem problem, Random random, String name, int priority, boolean useMakespanMachine) {
+        super(problem, random, name, priority);
+        this.useMakespanMachine = useMakespanMachine;
+    }
+
+    public boolean enumerate(Solution solution, boolean firstImprovement) {
+        clearSelection();
+        for (Machine m : solution.machines) {
+            if (useMakespanMachine && m != solution.makespanMachine) continue;
+            for (int from = 0; from < m.getNJobs(); from++) {
+                for (int to = 0; to < m.getNJobs(); to++) {
+                    if (from == to) continue;
+                    int localDelta = m.getDeltaCostShiftJob(from, to);
+                    int delta = getNeighborDelta(solution, m, m.getMakespan() + localDelta, null, 0);
+                    if (isTabu(solution, delta, m.jobs[from], m)) continue;
+                    if (offerNeighbor(delta, localDelta)) {
+                        machine = m;
+                        pos1 = from;
+                        pos2 = to;
+                        job = m.jobs[from];
+                        if (firstImprovement && isSelectedImproving()) return true;
+                    }
+                }
+            }
+        }
+        return isSelectedImproving();
+    }
+
+    public boolean hasMove(Solution solution) {
+        return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
+    }
+
+    protected void applySelectedMove() {
+        makeTabu(job, machine);
+        machine.delJob(pos1);
+        machine.addJob(job, pos2);
+    }
+
+    public void reject() {
+        super.reject();
+
+        machine.delJob(pos2);
+        machine.addJob(job, pos1);
+        currentSolution.updateCost();
+    }
+}
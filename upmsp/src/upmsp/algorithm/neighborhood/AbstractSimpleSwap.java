@@ -0,0 +1,82 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This abstract class contains the state, the systematic enumeration and the
+ * undo of the Simple Swap neighborhood, which are shared by its variants (that
+ * only differ in how a neighbor is sampled by doMove()).
+ *
+ * @author Tulio Toffolo
+ */
+public abstract class AbstractSimpleSwap extends Move {
+
+    protected Machine machine1, machine2;
+    protected int posM1, posM2, job1, job2;
+    protected boolean useMakespanMachine;
+
+    /**
+     * Instantiates a new move of the Simple Swap neighborhood.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param name               name of the move.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if the makespan machine should be always
+     *                           considered or false otherwise.
+     */
+    protected AbstractSimpleSwap(Problem problem, Random random, String name, int priority, boolean useMakespanMachine) {
+        super(problem, random, name, priority);
+        this.useMakespanMachine = useMakespanMachine;
+    }
+
+    public boolean enumerate(Solution solution, boolean firstImprovement) {
+        clearSelection();
+        for (Machine m1 : solution.machines) {
+            if (useMakespanMachine && m1 != solution.makespanMachine) continue;
+            for (Machine m2 : solution.machines) {
+                if (m1 == m2 || (!useMakespanMachine && m2.id < m1.id)) continue;
+                for (int p1 = 0; p1 < m1.getNJobs(); p1++) {
+                    for (int p2 = 0; p2 < m2.getNJobs(); p2++) {
+                        int localDelta1 = m1.getDeltaCostSetJob(m2.jobs[p2], p1);
+                        int localDelta2 = m2.getDeltaCostSetJob(m1.jobs[p1], p2);
+                        int delta = getNeighborDelta(solution, m1, m1.getMakespan() + localDelta1, m2, m2.getMakespan() + localDelta2);
+                        if (isTabu(solution, delta, m1.jobs[p1], m2) || isTabu(solution, delta, m2.jobs[p2], m1)) continue;
+                        if (offerNeighbor(delta, localDelta1 + localDelta2)) {
+                            machine1 = m1;
+                            machine2 = m2;
+                            posM1 = p1;
+                            posM2 = p2;
+                            job1 = m1.jobs[p1];
+                            job2 = m2.jobs[p2];
+                            if (firstImprovement && isSelectedImproving()) return true;
+                        }
+                    }
+                }
+            }
+        }
+        return isSelectedImproving();
+    }
+
+    public boolean hasMove(Solution solution) {
+        return solution.getNMachines() > 1;
+    }
+
+    protected void applySelectedMove() {
+        makeTabu(job1, machine1);
+        makeTabu(job2, machine2);
+        machine1.setJob(job2, posM1);
+        machine2.setJob(job1, posM2);
+    }
+
+    public void reject() {
+        super.reject();
+
+        machine1.setJob(job1, posM1);
+        machine2.setJob(job2, posM2);
+        currentSolution.updateCost();
+    }
+}
@@ -0,0 +1,158 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This abstract class contains the state, the systematic enumeration and the
+ * undo of the Swap neighborhood, which are shared by its variants (that
+ * only differ in how a neighbor is sampled by doMove()).
+ *
+ * @author Tulio Toffolo
+ */
+public abstract class AbstractSwap extends Move {
+
+    protected Machine machine1, machine2;
+    protected int pos1M1, pos2M1, pos1M2, pos2M2, job1, job2;
+    protected boolean useMakespanMachine;
+
+    // the three best insertion arcs (positions) of each job of a machine in the other machine of the pair
+    private final int bestArcs1[], bestArcs2[], arcCosts[] = new int[3];
+
+    /**
+     * Instantiates a new move of the Swap neighborhood.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param name               name of the move.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if the makespan machine should be always
+     *                           considered or false otherwise.
+     */
+    protected AbstractSwap(Problem problem, Random random, String name, int priority, boolean useMakespanMachine) {
+        super(problem, random, name, priority);
+        this.useMakespanMachine = useMakespanMachine;
+        bestArcs1 = new int[3 * problem.nJobs];
+        bestArcs2 = new int[3 * problem.nJobs];
+    }
+
+    /**
+     * Enumerates the swaps of all pairs of machines. The best insertion of a
+     * job in a machine without the job it replaces is either the best
+     * insertion in the complete machine that does not use the two arcs
+     * adjacent to the replaced job or the arc that closes the gap it leaves.
+     * Hence, the three best insertion arcs of every job are computed once per
+     * pair of machines, and each neighbor is evaluated in O(1).
+     */
+    public boolean enumerate(Solution solution, boolean firstImprovement) {
+        clearSelection();
+        for (Machine m1 : solution.machines) {
+            if (useMakespanMachine && m1 != solution.makespanMachine) continue;
+            for (Machine m2 : solution.machines) {
+                if (m1 == m2 || (!useMakespanMachine && m2.id < m1.id)) continue;
+                computeBestArcs(m1, m2, bestArcs2);
+                computeBestArcs(m2, m1, bestArcs1);
+                for (int p1 = 0; p1 < m1.getNJobs(); p1++) {
+                    for (int p2 = 0; p2 < m2.getNJobs(); p2++) {
+                        int to1 = getBestPositionReplaceJob(m1, p1, m2.jobs[p2], bestArcs2, 3 * p2);
+                        int to2 = getBestPositionReplaceJob(m2, p2, m1.jobs[p1], bestArcs1, 3 * p1);
+                        assert to1 == m1.getBestPositionReplaceJob(p1, m2.jobs[p2]) && to2 == m2.getBestPositionReplaceJob(p2, m1.jobs[p1]);
+                        int localDelta1 = m1.getDeltaCostReplaceJob(p1, m2.jobs[p2], to1);
+                        int localDelta2 = m2.getDeltaCostReplaceJob(p2, m1.jobs[p1], to2);
+                        int delta = getNeighborDelta(solution, m1, m1.getMakespan() + localDelta1, m2, m2.getMakespan() + localDelta2);
+                        if (isTabu(solution, delta, m1.jobs[p1], m2) || isTabu(solution, delta, m2.jobs[p2], m1)) continue;
+                        if (offerNeighbor(delta, localDelta1 + localDelta2)) {
+                            machine1 = m1;
+                            machine2 = m2;
+                            pos1M1 = p1;
+                            pos1M2 = p2;
+                            pos2M1 = to1;
+                            pos2M2 = to2;
+                            job1 = m1.jobs[p1];
+                            job2 = m2.jobs[p2];
+                            if (firstImprovement && isSelectedImproving()) return true;
+                        }
+                    }
+                }
+            }
+        }
+        return isSelectedImproving();
+    }
+
+    /**
+     * Computes the three best insertion arcs (positions) of each job of machine
+     * {@param from} in machine {@param into}, ordered by cost and then by
+     * position (-1 if the machine has fewer arcs). The arcs of the job in
+     * position p are stored in arcs[3p], arcs[3p + 1] and arcs[3p + 2].
+     */
+    private void computeBestArcs(Machine into, Machine from, int arcs[]) {
+        for (int p = 0; p < from.getNJobs(); p++) {
+            int job = from.jobs[p], offset = 3 * p;
+            arcs[offset] = arcs[offset + 1] = arcs[offset + 2] = -1;
+            for (int a = 0; a <= into.getNJobs(); a++) {
+                int cost = into.getDeltaCostAddJob(job, a);
+
+                // inserting the arc in the (sorted) list of best arcs
+                int k = 3;
+                while (k > 0 && (arcs[offset + k - 1] < 0 || cost < arcCosts[k - 1])) k--;
+                if (k == 3) continue;
+                for (int i = 2; i > k; i--) {
+                    arcs[offset + i] = arcs[offset + i - 1];
+                    arcCosts[i] = arcCosts[i - 1];
+                }
+                arcs[offset + k] = a;
+                arcCosts[k] = cost;
+            }
+        }
+    }
+
+    /**
+     * Gets the position in which adding job {@param job} to machine {@param
+     * machine} without the job in position {@param index} results in the
+     * smallest increase in the makespan (ties are broken by the smallest
+     * position), given the best arcs of the job (starting at {@param offset}).
+     */
+    private int getBestPositionReplaceJob(Machine machine, int index, int job, int arcs[], int offset) {
+        // arc that closes the gap left by the removed job
+        int pos = index;
+        int cost = machine.getDeltaCostReplaceJob(index, job, index) - machine.getDeltaCostDelJob(index);
+
+        // best arc of the complete machine not adjacent to the removed job
+        for (int k = 0; k < 3 && arcs[offset + k] >= 0; k++) {
+            int a = arcs[offset + k];
+            if (a == index || a == index + 1) continue;
+
+            int arcPos = a < index ? a : a - 1;
+            int arcCost = machine.getDeltaCostAddJob(job, a);
+            if (arcCost < cost || (arcCost == cost && arcPos < pos))
+                pos = arcPos;
+            break;
+        }
+        return pos;
+    }
+
+    public boolean hasMove(Solution solution) {
+        return solution.getNMachines() > 1;
+    }
+
+    protected void applySelectedMove() {
+        makeTabu(job1, machine1);
+        makeTabu(job2, machine2);
+        machine1.delJob(pos1M1);
+        machine2.delJob(pos1M2);
+        machine1.addJob(job2, pos2M1);
+        machine2.addJob(job1, pos2M2);
+    }
+
+    public void reject() {
+        super.reject();
+
+        machine1.delJob(pos2M1);
+        machine2.delJob(pos2M2);
+        machine1.addJob(job1, pos1M1);
+        machine2.addJob(job2, pos1M2);
+        currentSolution.updateCost();
+    }
+}
@@ -0,0 +1,77 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This abstract class contains the state, the systematic enumeration and the
+ * undo of the Switch neighborhood, which are shared by its variants (that
+ * only differ in how a neighbor is sampled by doMove()).
+ *
+ * @author Tulio Toffolo
+ */
+public abstract class AbstractSwitch extends Move {
+
+    protected Machine machine;
+    protected int pos1, pos2, job1, job2;
+    protected boolean useMakespanMachine;
+
+    /**
+     * Instantiates a new move of the Switch neighborhood.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param name               name of the move.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if the makespan machine should be always
+     *                           considered or false otherwise.
+     */
+    protected AbstractSwitch(Problem problem, Random random, String name, int priority, boolean useMakespanMachine) {
+        super(problem, random, name, priority);
+        this.useMakespanMachine = useMakespanMachine;
+    }
+
+    public boolean enumerate(Solution solution, boolean firstImprovement) {
+        clearSelection();
+        for (Machine m : solution.machines) {
+            if (useMakespanMachine && m != solution.makespanMachine) continue;
+            for (int p1 = 0; p1 < m.getNJobs(); p1++) {
+                for (int p2 = p1 + 1; p2 < m.getNJobs(); p2++) {
+                    int localDelta = m.getDeltaCostSwapJobs(p1, p2);
+                    int delta = getNeighborDelta(solution, m, m.getMakespan() + localDelta, null, 0);
+                    if (isTabu(solution, delta, m.jobs[p1], m) || isTabu(solution, delta, m.jobs[p2], m)) continue;
+                    if (offerNeighbor(delta, localDelta)) {
+                        machine = m;
+                        pos1 = p1;
+                        pos2 = p2;
+                        job1 = m.jobs[p1];
+                        job2 = m.jobs[p2];
+                        if (firstImprovement && isSelectedImproving()) return true;
+                    }
+                }
+            }
+        }
+        return isSelectedImproving();
+    }
+
+    public boolean hasMove(Solution solution) {
+        return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
+    }
+
+    protected void applySelectedMove() {
+        makeTabu(job1, machine);
+        makeTabu(job2, machine);
+        machine.setJob(job2, pos1);
+        machine.setJob(job1, pos2);
+    }
+
+    public void reject() {
+        super.reject();
+
+        machine.setJob(job1, pos1);
+        machine.setJob(job2, pos2);
+        currentSolution.updateCost();
+    }
+}
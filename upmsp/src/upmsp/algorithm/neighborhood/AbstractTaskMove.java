@@ -0,0 +1,76 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This abstract class contains the state, the systematic enumeration and the
+ * undo of the Task Move neighborhood, which are shared by its variants (that
+ * only differ in how a neighbor is sampled by doMove()).
+ *
+ * @author Tulio Toffolo
+ */
+public abstract class AbstractTaskMove extends Move {
+
+    protected Machine machine1, machine2;
+    protected int posM1, posM2, job;
+    protected boolean useMakespanMachine;
+
+    /**
+     * Instantiates a new move of the Task Move neighborhood.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param name               name of the move.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if the makespan machine should be always
+     *                           considered or false otherwise.
+     */
+    protected AbstractTaskMove(Problem problem, Random random, String name, int priority, boolean useMakespanMachine) {
+        super(problem, random, name, priority);
+        this.useMakespanMachine = useMakespanMachine;
+    }
+
+    public boolean enumerate(Solution solution, boolean firstImprovement) {
+        clearSelection();
+        for (Machine m1 : solution.machines) {
+            if (useMakespanMachine && m1 != solution.makespanMachine) continue;
+            for (Machine m2 : solution.machines) {
+                if (m1 == m2) continue;
+                for (int p1 = 0; p1 < m1.getNJobs(); p1++) {
+                    int j = m1.jobs[p1];
+                    int p2 = getBestPositionAddJob(m2, j);
+                    int localDelta1 = m1.getDeltaCostDelJob(p1);
+                    int localDelta2 = m2.getDeltaCostAddJob(j, p2);
+                    int delta = getNeighborDelta(solution, m1, m1.getMakespan() + localDelta1, m2, m2.getMakespan() + localDelta2);
+                    if (isTabu(solution, delta, j, m2)) continue;
+                    if (offerNeighbor(delta, localDelta1 + localDelta2)) {
+                        machine1 = m1;
+                        machine2 = m2;
+                        posM1 = p1;
+                        posM2 = p2;
+                        job = j;
+                        if (firstImprovement && isSelectedImproving()) return true;
+                    }
+                }
+            }
+        }
+        return isSelectedImproving();
+    }
+
+    protected void applySelectedMove() {
+        makeTabu(job, machine1);
+        machine1.delJob(posM1);
+        machine2.addJob(job, posM2);
+    }
+
+    public void reject() {
+        super.reject();
+
+        machine1.addJob(job, posM1);
+        machine2.delJob(posM2);
+        currentSolution.updateCost();
+    }
+}
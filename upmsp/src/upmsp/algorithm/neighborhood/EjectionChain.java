@@ -0,0 +1,167 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents an Ejection Chain Move. A neighbor in the Ejection Chain structure is generated by moving one
+ * job from a machine, m1, to another machine, m2, ejecting the best job of m2 to a third machine, m3, and so on, until
+ * the chain reaches its maximum depth. All insertions are performed in the best position of the target machine and the
+ * chain is closed as soon as the target machine ends below the current makespan. It is also pruned whenever even the
+ * best ejection leaves the target machine above the current makespan, since such chain cannot improve the solution.
+ * <p>
+ * The parameter "bestMachine" determines whether the target machines are the best ones (considering best-insertion
+ * deltas) or random ones. The parameter "useMakespanMachine" determines whether m1 is always the machine with the
+ * largest total execution time or not.
+ *
+ * @author Tulio Toffolo
+ */
+public class EjectionChain extends Move {
+
+    private final int maxDepth;
+    private boolean bestMachine, useMakespanMachine;
+
+    // chain data: job k is moved from machines[k] (position delPos[k]) to machines[k + 1] (position addPos[k])
+    private final Machine machines[];
+    private final int jobs[], delPos[], addPos[];
+    private final boolean visited[];
+    private int depth;
+
+    /**
+     * Instantiates a new Ejection Chain Move.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param priority           the priority of this neighborhood.
+     * @param maxDepth           maximum number of jobs moved in the chain.
+     * @param bestMachine        true if the target machines should be the best ones or false if they should be random.
+     * @param useMakespanMachine true if the makespan machine should be always considered or false otherwise.
+     */
+    public EjectionChain(Problem problem, Random random, int priority, int maxDepth, boolean bestMachine, boolean useMakespanMachine) {
+        super(problem, random, "EjChain" + (bestMachine ? "Smart" : "") + (useMakespanMachine ? "(mk)" : ""), priority);
+        this.maxDepth = maxDepth;
+        this.bestMachine = bestMachine;
+        this.useMakespanMachine = useMakespanMachine;
+
+        machines = new Machine[maxDepth + 1];
+        jobs = new int[maxDepth];
+        delPos = new int[maxDepth];
+        addPos = new int[maxDepth];
+        visited = new boolean[problem.nMachines];
+    }
+
+    public void accept() {
+        super.accept();
+    }
+
+    public int doMove(Solution solution) {
+        super.doMove(solution);
+
+        // selecting first machine of the chain
+        if (useMakespanMachine && solution.makespanMachine.getNJobs() > 0) {
+            machines[0] = solution.makespanMachine;
+        }
+        else {
+            int m;
+            do {
+                m = random.nextInt(solution.machines.length);
+            }
+            while (solution.machines[m].getNJobs() == 0);
+            machines[0] = solution.machines[m];
+        }
+        visited[machines[0].id] = true;
+
+        // selecting (and removing) the first job of the chain
+        delPos[0] = random.nextInt(machines[0].getNJobs());
+        jobs[0] = machines[0].jobs[delPos[0]];
+        machines[0].delJob(delPos[0]);
+
+        depth = 0;
+        while (true) {
+            Machine target = selectTarget(solution, jobs[depth]);
+            if (target == null) {
+                // no machine is available: the job goes back to its machine (at the best position)
+                target = machines[depth];
+            }
+
+            // inserting job in the best position of the target machine
+            machines[depth + 1] = target;
+            addPos[depth] = getBestPositionAddJob(target, jobs[depth]);
+            target.addJob(jobs[depth], addPos[depth]);
+            visited[target.id] = true;
+            depth++;
+
+            // closing the chain if the target machine is below the makespan (or maximum depth is reached)
+            if (target.getMakespan() < initialCost || depth == maxDepth || target == machines[depth - 1])
+                break;
+
+            // ejecting the best job from the target machine (except the one just inserted)
+            int pos = -1, cost = Integer.MAX_VALUE;
+            for (int p = 0; p < target.getNJobs(); p++) {
+                if (p == addPos[depth - 1]) continue;
+                int simulatedCost = target.getDeltaCostDelJob(p);
+                if (simulatedCost < cost) {
+                    cost = simulatedCost;
+                    pos = p;
+                }
+            }
+
+            // pruning the chain: even the best ejection cannot bring the machine below the makespan
+            if (pos < 0 || target.getMakespan() + cost >= initialCost)
+                break;
+
+            delPos[depth] = pos;
+            jobs[depth] = target.jobs[pos];
+            target.delJob(pos);
+        }
+
+        for (int k = 0; k <= depth; k++)
+            visited[machines[k].id] = false;
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    public boolean hasMove(Solution solution) {
+        return problem.nMachines > 1 && (!useMakespanMachine || solution.makespanMachine.getNJobs() > 0);
+    }
+
+    public void reject() {
+        super.reject();
+
+        for (int k = depth - 1; k >= 0; k--) {
+            machines[k + 1].delJob(addPos[k]);
+            machines[k].addJob(jobs[k], delPos[k]);
+        }
+        currentSolution.updateCost();
+    }
+
+
+    private Machine selectTarget(Solution solution, int job) {
+        if (!bestMachine) {
+            int nAvailable = 0;
+            for (Machine machine : solution.machines)
+                if (!visited[machine.id]) nAvailable++;
+            if (nAvailable == 0) return null;
+
+            int index = random.nextInt(nAvailable);
+            for (Machine machine : solution.machines)
+                if (!visited[machine.id] && index-- == 0)
+                    return machine;
+        }
+
+        Machine target = null;
+        int cost = Integer.MAX_VALUE;
+        for (Machine machine : solution.machines) {
+            if (visited[machine.id]) continue;
+            int simulatedCost = machine.getMakespan() + machine.getDeltaCostAddJob(job, getBestPositionAddJob(machine, job));
+            if (simulatedCost < cost) {
+                cost = simulatedCost;
+                target = machine;
+            }
+        }
+        return target;
+    }
+}
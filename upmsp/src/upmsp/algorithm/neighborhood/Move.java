@@ -24,12 +24,22 @@ public abstract class Move {
     protected int initialCost = Integer.MAX_VALUE;
     protected int priority = 1;
 
+    protected InsertionCache insertionCache = null;
+    protected TabuList tabuList = null;
+
+    // neighbor selected by the last call to enumerate()
+    protected boolean hasSelected = false;
+    protected int selectedDelta = Integer.MAX_VALUE;
+    protected int selectedLocalDelta = Integer.MAX_VALUE;
+
     // basic statistics for future analysis
     private long nIters = 0;
     private long nImprovements = 0;
     private long nSideways = 0;
     private long nWorsens = 0;
     private long nRejects = 0;
+    protected long nCacheHits = 0;
+    protected long nCacheMisses = 0;
 
 
     /**
@@ -83,15 +93,64 @@ public abstract class Move {
      */
     public int doMove(Solution solution) {
         assert hasMove(solution) : "Error: move " + name + " being executed with hasMove() = false.";
-        assert !intermediateState : "Error: calling doMove before mandatory call to accept() or reject().";
-        intermediateState = true;
-
-        nIters++;
-        currentSolution = solution;
-        initialCost = solution.getCost();
+        startMove(solution);
         return deltaCost = Integer.MAX_VALUE;
     }
 
+    /**
+     * This method applies the neighbor selected by the last call to {@link
+     * #enumerate(Solution, boolean)} and returns its impact (delta cost) in the
+     * solution. Just as with {@link #doMove(Solution)}, either accept() or
+     * reject() must be called afterwards.
+     *
+     * @param solution the solution to be modified (the same solution given to
+     *                 enumerate()).
+     * @return the impact (delta cost) of this move in the solution.
+     */
+    public int doSelectedMove(Solution solution) {
+        assert hasSelected : "Error: move " + name + " being executed without a selected neighbor.";
+        startMove(solution);
+        hasSelected = false;
+
+        applySelectedMove();
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    /**
+     * This method systematically enumerates the neighborhood of the solution
+     * (without modifying it) and selects its best neighbor or, if {@param
+     * firstImprovement} is true, its first improving neighbor. Neighbors are
+     * compared lexicographically: first by the resulting makespan of the
+     * solution and then by the change in the completion times of the machines
+     * involved. The selected neighbor can be applied with {@link
+     * #doSelectedMove(Solution)}. Moves without enumeration (see {@link
+     * #hasEnumeration()}) select no neighbor and return false.
+     *
+     * @param solution         the solution whose neighborhood is enumerated.
+     * @param firstImprovement true if the enumeration should stop at the first
+     *                         improving neighbor and false otherwise.
+     * @return true if the selected neighbor improves the solution and false
+     * otherwise (in which case the solution is a local optimum with respect to
+     * this neighborhood).
+     */
+    public boolean enumerate(Solution solution, boolean firstImprovement) {
+        clearSelection();
+        return false;
+    }
+
+    /**
+     * This method returns a boolean indicating whether this neighborhood
+     * supports systematic enumeration.
+     *
+     * @return true if {@link #enumerate(Solution, boolean)} is implemented and
+     * false otherwise.
+     */
+    public boolean hasEnumeration() {
+        return false;
+    }
+
     public int getDeltaCost() {
         return deltaCost;
     }
@@ -117,6 +176,160 @@ public abstract class Move {
         nRejects++;
     }
 
+    /**
+     * Applies the neighbor selected by enumerate() to the current solution.
+     * Subclasses that support enumeration must override this method so that
+     * reject() is able to undo the modification; by default, nothing is done
+     * (no neighbor is ever selected).
+     */
+    protected void applySelectedMove() {
+    }
+
+    /**
+     * Clears the selected neighbor (to be called at the beginning of
+     * enumerate()).
+     */
+    protected void clearSelection() {
+        hasSelected = false;
+        selectedDelta = Integer.MAX_VALUE;
+        selectedLocalDelta = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets the (delta) change in the makespan of the solution if the makespans
+     * of machines {@param machine1} and {@param machine2} change to {@param
+     * makespan1} and {@param makespan2}, respectively. This evaluation is O(1)
+     * and does not modify the solution.
+     *
+     * @param solution  the solution.
+     * @param machine1  the first machine.
+     * @param makespan1 the new makespan of the first machine.
+     * @param machine2  the second machine (or null).
+     * @param makespan2 the new makespan of the second machine (ignored if
+     *                  machine2 is null).
+     * @return the delta makespan of the solution.
+     */
+    protected int getNeighborDelta(Solution solution, Machine machine1, int makespan1, Machine machine2, int makespan2) {
+        int cost = Math.max(solution.getCostWithout(machine1, machine2), makespan1);
+        if (machine2 != null) cost = Math.max(cost, makespan2);
+        return cost - solution.getCost();
+    }
+
+    /**
+     * Returns whether placing job {@param job} on machine {@param machine} is
+     * tabu, considering the tabu list (if any) and the aspiration criterion,
+     * for a neighbor with delta makespan {@param delta}. Enumerations skip
+     * neighbors for which any of their attributes is tabu.
+     *
+     * @param solution the solution.
+     * @param delta    the delta makespan of the neighbor.
+     * @param job      the job.
+     * @param machine  the machine on which the job is placed.
+     * @return true if the attribute is tabu (and not aspirated) and false
+     * otherwise.
+     */
+    protected boolean isTabu(Solution solution, int delta, int job, Machine machine) {
+        return tabuList != null && tabuList.isTabu(job, machine) && !tabuList.aspires(solution.getCost() + delta);
+    }
+
+    /**
+     * Makes attribute (job {@param job}, machine {@param machine}) tabu, if a
+     * tabu list is set. Enumerating moves call this method when the selected
+     * neighbor is applied.
+     *
+     * @param job     the job.
+     * @param machine the machine the job leaves (or within which it is moved).
+     */
+    protected void makeTabu(int job, Machine machine) {
+        if (tabuList != null) tabuList.add(job, machine);
+    }
+
+    /**
+     * Offers a neighbor to the current selection. The neighbor is selected if it
+     * is better than the currently selected one, in which case the caller must
+     * store the attributes of the neighbor.
+     *
+     * @param delta      the delta makespan of the solution.
+     * @param localDelta the sum of the delta makespans of the machines involved.
+     * @return true if the neighbor was selected and false otherwise.
+     */
+    protected boolean offerNeighbor(int delta, int localDelta) {
+        if (delta < selectedDelta || (delta == selectedDelta && localDelta < selectedLocalDelta)) {
+            hasSelected = true;
+            selectedDelta = delta;
+            selectedLocalDelta = localDelta;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the selected neighbor improves the solution, i.e. whether
+     * it decreases the makespan or, keeping the makespan, the completion times
+     * of the machines involved.
+     *
+     * @return true if the selected neighbor is improving and false otherwise.
+     */
+    protected boolean isSelectedImproving() {
+        return hasSelected && (selectedDelta < 0 || (selectedDelta == 0 && selectedLocalDelta < 0));
+    }
+
+    /**
+     * Starts the execution of a move, updating counters and storing the
+     * initial state of the solution.
+     *
+     * @param solution the solution to be modified.
+     */
+    private void startMove(Solution solution) {
+        assert !intermediateState : "Error: calling doMove before mandatory call to accept() or reject().";
+        intermediateState = true;
+
+        nIters++;
+        currentSolution = solution;
+        initialCost = solution.getCost();
+    }
+
+    /**
+     * Gets the best position to add job {@param job} to machine {@param machine}, using the insertion cache (if
+     * available). Note that the cache should only be used for machines in a "stable" state, i.e. not for machines from
+     * which a job was just (temporarily) removed.
+     *
+     * @param machine the machine.
+     * @param job     the job to add.
+     * @return the best position to add the job.
+     */
+    protected int getBestPositionAddJob(Machine machine, int job) {
+        if (insertionCache == null)
+            return machine.getBestPositionAddJob(job);
+
+        int pos = insertionCache.getPosition(machine, job);
+        if (pos >= 0) {
+            nCacheHits++;
+            return pos;
+        }
+
+        nCacheMisses++;
+        pos = machine.getBestPositionAddJob(job);
+        insertionCache.put(machine, job, pos, machine.getDeltaCostAddJob(job, pos));
+        return pos;
+    }
+
+    /**
+     * Adds the counters of another move (e.g. the same neighborhood executed
+     * by another thread) to the counters of this move.
+     *
+     * @param move the move whose counters are added.
+     */
+    public void mergeStatistics(Move move) {
+        nIters += move.nIters;
+        nImprovements += move.nImprovements;
+        nSideways += move.nSideways;
+        nWorsens += move.nWorsens;
+        nRejects += move.nRejects;
+        nCacheHits += move.nCacheHits;
+        nCacheMisses += move.nCacheMisses;
+    }
+
     /**
      * This method is called whenever the neighborhood should be reset (mainly to avoid the need of creating another
      * object).
@@ -126,6 +339,42 @@ public abstract class Move {
 
     // region simple getters and setters
 
+    public int getSelectedDelta() {
+        return selectedDelta;
+    }
+
+    public int getSelectedLocalDelta() {
+        return selectedLocalDelta;
+    }
+
+    public boolean hasSelectedNeighbor() {
+        return hasSelected;
+    }
+
+    public InsertionCache getInsertionCache() {
+        return insertionCache;
+    }
+
+    public void setInsertionCache(InsertionCache insertionCache) {
+        this.insertionCache = insertionCache;
+    }
+
+    public TabuList getTabuList() {
+        return tabuList;
+    }
+
+    public void setTabuList(TabuList tabuList) {
+        this.tabuList = tabuList;
+    }
+
+    public long getNCacheHits() {
+        return nCacheHits;
+    }
+
+    public long getNCacheMisses() {
+        return nCacheMisses;
+    }
+
     public int getPriority() {
         return priority;
     }
@@ -0,0 +1,292 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents a Repartition Move, a large neighborhood that
+ * reoptimizes two machines, m1 and m2, at once: the jobs of both machines are
+ * reassigned and resequenced so that the largest of their completion times is
+ * minimized (ties are broken by the sum of the completion times).
+ * <p>
+ * If the machines have at most {@code maxExactJobs} jobs together, the
+ * subproblem is solved exactly by dynamic programming: the best sequence (an
+ * asymmetric TSP path) of every subset of jobs is computed for each machine
+ * with the Held-Karp algorithm and the best split is selected. Otherwise, the
+ * jobs are greedily reinserted in a random order and the two machines are
+ * improved by relocating and swapping jobs between them, evaluating at most
+ * {@code nodeLimit} neighbors. The parameter "useMakespanMachine" determines
+ * whether m1 is always the machine with the largest total execution time or
+ * not.
+ *
+ * @author Tulio Toffolo
+ */
+public class Repartition extends Move {
+
+    /**
+     * Largest supported maxExactJobs: the tables have (2^n * n) entries and
+     * job indices are stored in bytes.
+     */
+    public final static int MAX_EXACT_JOBS = 20;
+
+    private Machine machine1, machine2;
+    private boolean useMakespanMachine;
+
+    private final int maxExactJobs, nodeLimit;
+
+    // original sequences (for reject) and jobs of the subproblem
+    private final int original1[], original2[], union[];
+    private int nOriginal1, nOriginal2;
+
+    // dynamic programming tables
+    private final int path[], best1[], best2[], sequence1[], sequence2[];
+    private final byte parent1[], parent2[], last1[], last2[];
+
+    /**
+     * Instantiates a new Repartition Move.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param priority           the priority of this neighborhood.
+     * @param maxExactJobs       maximum number of jobs (of both machines) to
+     *                           solve the subproblem exactly (at most {@link
+     *                           #MAX_EXACT_JOBS}).
+     * @param nodeLimit          maximum number of neighbors evaluated by the
+     *                           heuristic improvement of larger subproblems.
+     * @param useMakespanMachine true if the makespan machine should be always
+     *                           considered or false otherwise.
+     */
+    public Repartition(Problem problem, Random random, int priority, int maxExactJobs, int nodeLimit, boolean useMakespanMachine) {
+        super(problem, random, "Repartition" + (useMakespanMachine ? "(mk)" : ""), priority);
+        if (maxExactJobs < 0 || maxExactJobs > MAX_EXACT_JOBS)
+            throw new IllegalArgumentException("Repartition supports at most " + MAX_EXACT_JOBS + " exact jobs.");
+        this.useMakespanMachine = useMakespanMachine;
+        this.maxExactJobs = maxExactJobs;
+        this.nodeLimit = nodeLimit;
+
+        original1 = new int[problem.nJobs];
+        original2 = new int[problem.nJobs];
+        union = new int[problem.nJobs];
+        sequence1 = new int[problem.nJobs];
+        sequence2 = new int[problem.nJobs];
+
+        path = new int[(1 << maxExactJobs) * maxExactJobs];
+        parent1 = new byte[(1 << maxExactJobs) * maxExactJobs];
+        parent2 = new byte[(1 << maxExactJobs) * maxExactJobs];
+        best1 = new int[1 << maxExactJobs];
+        best2 = new int[1 << maxExactJobs];
+        last1 = new byte[1 << maxExactJobs];
+        last2 = new byte[1 << maxExactJobs];
+    }
+
+    public void accept() {
+        super.accept();
+    }
+
+    public int doMove(Solution solution) {
+        super.doMove(solution);
+
+        // selecting machines to involve in operation
+        if (useMakespanMachine && solution.makespanMachine.getNJobs() > 0) {
+            int m;
+            do {
+                m = random.nextInt(solution.machines.length);
+            }
+            while (m == solution.makespanMachine.id);
+
+            machine1 = solution.makespanMachine;
+            machine2 = solution.machines[m];
+        }
+        else {
+            int m1, m2;
+            do {
+                m1 = random.nextInt(solution.machines.length);
+                m2 = random.nextInt(solution.machines.length);
+            }
+            while (m1 == m2 || solution.machines[m1].getNJobs() == 0);
+            machine1 = solution.machines[m1];
+            machine2 = solution.machines[m2];
+        }
+
+        // storing original sequences
+        nOriginal1 = machine1.getNJobs();
+        nOriginal2 = machine2.getNJobs();
+        System.arraycopy(machine1.jobs, 0, original1, 0, nOriginal1);
+        System.arraycopy(machine2.jobs, 0, original2, 0, nOriginal2);
+
+        int nUnion = nOriginal1 + nOriginal2;
+        System.arraycopy(original1, 0, union, 0, nOriginal1);
+        System.arraycopy(original2, 0, union, nOriginal1, nOriginal2);
+
+        if (nUnion <= maxExactJobs)
+            solveExact(nUnion);
+        else
+            solveHeuristic(nUnion);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    public boolean hasMove(Solution solution) {
+        return solution.getNMachines() > 0 && problem.nMachines > 1;
+    }
+
+    public void reject() {
+        super.reject();
+
+        machine1.setSequence(original1, nOriginal1);
+        machine2.setSequence(original2, nOriginal2);
+        currentSolution.updateCost();
+    }
+
+
+    /**
+     * Solves the subproblem exactly. The best sequence of each subset of jobs
+     * is computed for both machines, and then the best split is selected.
+     */
+    private void solveExact(int n) {
+        computeBestSequences(machine1.id, n, best1, last1, parent1);
+        computeBestSequences(machine2.id, n, best2, last2, parent2);
+
+        int full = (1 << n) - 1, bestMask = 0;
+        int bestMakespan = Integer.MAX_VALUE, bestSum = Integer.MAX_VALUE;
+        for (int mask = 0; mask <= full; mask++) {
+            int c1 = best1[mask], c2 = best2[full ^ mask];
+            int makespan = Math.max(c1, c2);
+            if (makespan < bestMakespan || (makespan == bestMakespan && c1 + c2 < bestSum)) {
+                bestMakespan = makespan;
+                bestSum = c1 + c2;
+                bestMask = mask;
+            }
+        }
+
+        machine1.setSequence(sequence1, buildSequence(n, bestMask, last1, parent1, sequence1));
+        machine2.setSequence(sequence2, buildSequence(n, full ^ bestMask, last2, parent2, sequence2));
+    }
+
+    /**
+     * Computes, with the Held-Karp algorithm, the smallest completion time of
+     * every subset of the first {@param n} jobs of the union on machine
+     * {@param machine}, as well as the last job of the corresponding sequence
+     * (and the parent table to rebuild it).
+     */
+    private void computeBestSequences(int machine, int n, int best[], byte last[], byte parent[]) {
+        final int setup[][] = problem.setupTimes[machine];
+        final int process[] = problem.processTimes[machine];
+
+        best[0] = 0;
+        for (int mask = 1; mask < 1 << n; mask++) {
+            int processSum = 0, bestPath = Integer.MAX_VALUE, bestLast = -1;
+
+            for (int j = 0; j < n; j++) {
+                if ((mask & (1 << j)) == 0) continue;
+                processSum += process[union[j]];
+
+                int rest = mask ^ (1 << j), value = 0, bestPrev = -1;
+                if (rest != 0) {
+                    value = Integer.MAX_VALUE;
+                    for (int p = 0; p < n; p++) {
+                        if ((rest & (1 << p)) == 0) continue;
+                        int cost = path[rest * n + p] + setup[union[p]][union[j]];
+                        if (cost < value) {
+                            value = cost;
+                            bestPrev = p;
+                        }
+                    }
+                }
+                path[mask * n + j] = value;
+                parent[mask * n + j] = ( byte ) bestPrev;
+
+                if (value < bestPath) {
+                    bestPath = value;
+                    bestLast = j;
+                }
+            }
+
+            best[mask] = bestPath + processSum;
+            last[mask] = ( byte ) bestLast;
+        }
+    }
+
+    /**
+     * Rebuilds the best sequence of the jobs in {@param mask} into {@param
+     * sequence} and returns its length.
+     */
+    private int buildSequence(int n, int mask, byte last[], byte parent[], int sequence[]) {
+        int length = Integer.bitCount(mask);
+        for (int i = length - 1, j = last[mask]; i >= 0; i--) {
+            sequence[i] = union[j];
+            int p = parent[mask * n + j];
+            mask ^= 1 << j;
+            j = p;
+        }
+        return length;
+    }
+
+    /**
+     * Solves the subproblem heuristically: the jobs are reinserted in a random
+     * order, each one in the machine and position resulting in the smallest
+     * completion time, and the machines are then improved by relocating and
+     * swapping jobs between them.
+     */
+    private void solveHeuristic(int n) {
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int job = union[i];
+            union[i] = union[j];
+            union[j] = job;
+        }
+
+        machine1.setSequence(union, 0);
+        machine2.setSequence(union, 0);
+        for (int i = 0; i < n; i++) {
+            int job = union[i];
+            int pos1 = machine1.getBestPositionAddJob(job), pos2 = machine2.getBestPositionAddJob(job);
+            int value1 = machine1.getMakespan() + machine1.getDeltaCostAddJob(job, pos1);
+            int value2 = machine2.getMakespan() + machine2.getDeltaCostAddJob(job, pos2);
+            if (value1 <= value2) machine1.addJob(job, pos1);
+            else machine2.addJob(job, pos2);
+        }
+
+        int nNodes = 0;
+        boolean improved = true;
+        while (improved && nNodes < nodeLimit) {
+            improved = false;
+
+            // the machine with the largest completion time gives away jobs
+            Machine from = machine1.getMakespan() >= machine2.getMakespan() ? machine1 : machine2;
+            Machine to = from == machine1 ? machine2 : machine1;
+
+            for (int i = 0; i < from.getNJobs() && nNodes < nodeLimit && !improved; i++) {
+                int job = from.jobs[i];
+                int newFrom = from.getMakespan() + from.getDeltaCostDelJob(i);
+
+                // relocating job
+                int pos = to.getBestPositionAddJob(job);
+                int newTo = to.getMakespan() + to.getDeltaCostAddJob(job, pos);
+                nNodes++;
+                if (Math.max(newFrom, newTo) < from.getMakespan()) {
+                    from.delJob(i);
+                    to.addJob(job, pos);
+                    improved = true;
+                    break;
+                }
+
+                // swapping job with each job of the other machine
+                for (int k = 0; k < to.getNJobs() && nNodes < nodeLimit; k++) {
+                    nNodes++;
+                    int newFromSwap = from.getMakespan() + from.getDeltaCostSetJob(to.jobs[k], i);
+                    int newToSwap = to.getMakespan() + to.getDeltaCostSetJob(job, k);
+                    if (Math.max(newFromSwap, newToSwap) < from.getMakespan()) {
+                        from.setJob(to.jobs[k], i);
+                        to.setJob(job, k);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents a Reversal Move. A neighbor in the Reversal Move structure is generated by reversing the order
+ * of a subsequence of jobs of a machine. Since setup times are asymmetric, the delta cost is obtained in O(1) with the
+ * cumulative setup sums maintained by {@link Machine}. The parameter "useMakespanMachine" determines whether the machine
+ * with the largest total execution time is always used.
+ *
+ * @author Tulio Toffolo
+ */
+public class Reversal extends AbstractReversal {
+
+    /**
+     * Instantiates a new Reversal Move.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if the makespan machine should be always considered or false otherwise.
+     */
+    public Reversal(Problem problem, Random random, int priority, boolean useMakespanMachine) {
+        super(problem, random, "Reversal" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
+    }
+
+    public void accept() {
+        super.accept();
+    }
+
+    public int doMove(Solution solution) {
+        super.doMove(solution);
+
+        // selecting machine for operation
+        if (useMakespanMachine && solution.makespanMachine.getNJobs() > 1) {
+            machine = solution.makespanMachine;
+        }
+        else {
+            int m;
+            do {
+                m = random.nextInt(solution.machines.length);
+            }
+            while (solution.machines[m].getNJobs() <= 1);
+            machine = solution.machines[m];
+        }
+
+        // selecting subsequence to reverse
+        do {
+            pos1 = random.nextInt(machine.getNJobs());
+            pos2 = random.nextInt(machine.getNJobs());
+        }
+        while (pos1 == pos2);
+        if (pos1 > pos2) {
+            int pos = pos1;
+            pos1 = pos2;
+            pos2 = pos;
+        }
+
+        // reversing jobs
+        machine.reverseJobs(pos1, pos2);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    public boolean hasEnumeration() {
+        return true;
+    }
+}
@@ -0,0 +1,82 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents a Reversal Move. A neighbor in the Reversal Move structure is generated by reversing the order
+ * of a subsequence of jobs of a machine. In this version, one endpoint of the subsequence is randomly selected and the
+ * other one is chosen as the best possible, which is evaluated in O(n) thanks to the O(1) delta cost calculation of
+ * {@link Machine#getDeltaCostReverseJobs(int, int)}. The parameter "useMakespanMachine" determines whether the machine
+ * with the largest total execution time is always used.
+ *
+ * @author Tulio Toffolo
+ */
+public class ReversalSmart extends AbstractReversal {
+
+    /**
+     * Instantiates a new Reversal Move.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if the makespan machine should be always considered or false otherwise.
+     */
+    public ReversalSmart(Problem problem, Random random, int priority, boolean useMakespanMachine) {
+        super(problem, random, "ReversalSmart" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
+    }
+
+    public void accept() {
+        super.accept();
+    }
+
+    public int doMove(Solution solution) {
+        super.doMove(solution);
+
+        // selecting machine for operation
+        if (useMakespanMachine && solution.makespanMachine.getNJobs() > 1) {
+            machine = solution.makespanMachine;
+        }
+        else {
+            int m;
+            do {
+                m = random.nextInt(solution.machines.length);
+            }
+            while (solution.machines[m].getNJobs() <= 1);
+            machine = solution.machines[m];
+        }
+
+        // selecting first endpoint of the subsequence
+        int pos = random.nextInt(machine.getNJobs());
+
+        // selecting the other endpoint
+        int cost = Integer.MAX_VALUE;
+        for (int p = 0; p < machine.getNJobs(); p++) {
+            if (p == pos) continue;
+            int simulatedCost = p < pos ? machine.getDeltaCostReverseJobs(p, pos) : machine.getDeltaCostReverseJobs(pos, p);
+            if (simulatedCost < cost) {
+                cost = simulatedCost;
+                pos1 = Math.min(p, pos);
+                pos2 = Math.max(p, pos);
+            }
+        }
+
+        // reversing jobs
+        machine.reverseJobs(pos1, pos2);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    /**
+     * The neighborhood of this move is the one of {@link Reversal}, which already
+     * enumerates it; this variant only samples neighbors differently.
+     *
+     * @return false.
+     */
+    public boolean hasEnumeration() {
+        return false;
+    }
+}
@@ -0,0 +1,142 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This abstract class represents a "scan-mode" Move. Instead of sampling a random neighbor, a ScanMove deterministically
+ * scans the machines (and their jobs) looking for an improving neighbor, skipping those whose don't-look bit is set. The
+ * bit of a job is set when no improving neighbor involving it is found and the bit of a machine is set when all its
+ * jobs have their bits set. The bits are cleared by the solution whenever a machine is modified.
+ * <p>
+ * Since only improving neighbors are applied, {@link #hasMove(Solution)} performs the scan and returns false once the
+ * neighborhood has converged (all relevant bits are set), which allows local search methods to stop early.
+ *
+ * @author Tulio Toffolo
+ */
+public abstract class ScanMove extends Move {
+
+    protected final int dontLookBit;
+    protected final int minJobs;
+    protected final boolean useMakespanMachine;
+
+    private Solution candidateSolution = null;
+    private int machineCursor = 0;
+
+    /**
+     * Instantiates a new ScanMove.
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param name               the name of this neighborhood (for debugging purposes).
+     * @param priority           the priority of this neighborhood.
+     * @param dontLookBit        the index of the don't-look bit used by this neighborhood.
+     * @param minJobs            minimum number of jobs a machine must have to be scanned.
+     * @param useMakespanMachine true if only the makespan machine should be scanned or false otherwise.
+     */
+    public ScanMove(Problem problem, Random random, String name, int priority, int dontLookBit, int minJobs, boolean useMakespanMachine) {
+        super(problem, random, name, priority);
+        this.dontLookBit = dontLookBit;
+        this.minJobs = minJobs;
+        this.useMakespanMachine = useMakespanMachine;
+    }
+
+    public int doMove(Solution solution) {
+        super.doMove(solution);
+
+        if (!hasValidCandidate(solution)) {
+            boolean found = findCandidate(solution);
+            assert found : "Error: move " + name + " has no improving neighbor.";
+        }
+        candidateSolution = null;
+
+        applyCandidate();
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    public boolean hasMove(Solution solution) {
+        return hasValidCandidate(solution) || findCandidate(solution);
+    }
+
+    public void reject() {
+        super.reject();
+
+        undoCandidate();
+        currentSolution.updateCost();
+    }
+
+    public void reset() {
+        candidateSolution = null;
+    }
+
+
+    /**
+     * Applies the candidate (improving) neighbor found by the last call to {@link #evaluate(Solution, Machine, int)}.
+     */
+    protected abstract void applyCandidate();
+
+    /**
+     * Evaluates the neighbors involving the job in position {@param pos} of machine {@param machine}, storing the best
+     * one as candidate if it is improving.
+     *
+     * @param solution the current solution.
+     * @param machine  the machine.
+     * @param pos      the position of the job in the machine.
+     * @return true if an improving candidate was found and false otherwise.
+     */
+    protected abstract boolean evaluate(Solution solution, Machine machine, int pos);
+
+    /**
+     * Checks whether the machines involved in the stored candidate are unchanged since its evaluation.
+     *
+     * @return true if the candidate is still valid and false otherwise.
+     */
+    protected abstract boolean isCandidateUnchanged();
+
+    /**
+     * Undoes the last candidate applied.
+     */
+    protected abstract void undoCandidate();
+
+
+    private boolean findCandidate(Solution solution) {
+        if (useMakespanMachine)
+            return scanMachine(solution, solution.makespanMachine);
+
+        for (int i = 0; i < solution.machines.length; i++) {
+            Machine machine = solution.machines[(machineCursor + i) % solution.machines.length];
+            if (scanMachine(solution, machine)) {
+                machineCursor = machine.id;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasValidCandidate(Solution solution) {
+        return candidateSolution == solution && isCandidateUnchanged();
+    }
+
+    private boolean scanMachine(Solution solution, Machine machine) {
+        if (machine.getNJobs() < minJobs || solution.isDontLookMachine(machine.id, dontLookBit))
+            return false;
+
+        for (int pos = 0; pos < machine.getNJobs(); pos++) {
+            int job = machine.jobs[pos];
+            if (solution.isDontLookJob(job, dontLookBit)) continue;
+
+            if (evaluate(solution, machine, pos)) {
+                candidateSolution = solution;
+                return true;
+            }
+            solution.setDontLookJob(job, dontLookBit);
+        }
+
+        solution.setDontLookMachine(machine.id, dontLookBit);
+        return false;
+    }
+}
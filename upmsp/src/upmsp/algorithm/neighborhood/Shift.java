@@ -14,11 +14,7 @@ import java.util.*;
  *
  * @author Tulio Toffolo
  */
-public class Shift extends Move {
-
-    private Machine machine;
-    private int pos1, pos2, job;
-    private boolean useMakespanMachine;
+public class Shift extends AbstractShift {
 
     /**
      * Instantiates a new Shift Move.
@@ -30,8 +26,7 @@ public class Shift extends Move {
      *                           considered or false otherwise.
      */
     public Shift(Problem problem, Random random, int priority, boolean useMakespanMachine) {
-        super(problem, random, "Shift" + (useMakespanMachine ? "(mk)" : ""), priority);
-        this.useMakespanMachine = useMakespanMachine;
+        super(problem, random, "Shift" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
     }
 
     public void accept() {
@@ -70,15 +65,7 @@ public class Shift extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
-    public boolean hasMove(Solution solution) {
-        return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
-    }
-
-    public void reject() {
-        super.reject();
-
-        machine.delJob(pos2);
-        machine.addJob(job, pos1);
-        currentSolution.updateCost();
+    public boolean hasEnumeration() {
+        return true;
     }
 }
@@ -0,0 +1,67 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents the scan-mode version of the Shift Move (see {@link ShiftSmart} and {@link ScanMove}). Each job
+ * of a machine is evaluated in its best position of the same machine and the move is applied only if it reduces the
+ * completion time of the machine.
+ *
+ * @author Tulio Toffolo
+ */
+public class ShiftScan extends ScanMove {
+
+    public final static int DONT_LOOK_BIT = 0;
+
+    private Machine machine;
+    private int pos1, pos2, job;
+    private long signature;
+
+    /**
+     * Instantiates a new Shift Move (scan-mode).
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if only the makespan machine should be scanned or false otherwise.
+     */
+    public ShiftScan(Problem problem, Random random, int priority, boolean useMakespanMachine) {
+        super(problem, random, "ShiftScan" + (useMakespanMachine ? "(mk)" : ""), priority, DONT_LOOK_BIT, 2, useMakespanMachine);
+    }
+
+    protected void applyCandidate() {
+        machine.delJob(pos1);
+        machine.addJob(job, pos2);
+    }
+
+    protected boolean evaluate(Solution solution, Machine machine, int pos) {
+        int bestPos = -1, cost = 0;
+        for (int p = 0; p < machine.getNJobs(); p++) {
+            int simulatedCost = machine.getDeltaCostShiftJob(pos, p);
+            if (simulatedCost < cost) {
+                cost = simulatedCost;
+                bestPos = p;
+            }
+        }
+        if (bestPos < 0) return false;
+
+        this.machine = machine;
+        this.signature = machine.getSignature();
+        this.pos1 = pos;
+        this.pos2 = bestPos;
+        this.job = machine.jobs[pos];
+        return true;
+    }
+
+    protected boolean isCandidateUnchanged() {
+        return machine.getSignature() == signature;
+    }
+
+    protected void undoCandidate() {
+        machine.delJob(pos2);
+        machine.addJob(job, pos1);
+    }
+}
@@ -13,11 +13,7 @@ import java.util.*;
  *
  * @author Tulio Toffolo
  */
-public class ShiftSmart extends Move {
-
-    private Machine machine;
-    private int pos1, pos2, job;
-    private boolean useMakespanMachine;
+public class ShiftSmart extends AbstractShift {
 
     /**
      * Instantiates a new Shift Move.
@@ -28,8 +24,7 @@ public class ShiftSmart extends Move {
      * @param useMakespanMachine true if the makespan machine should be always considered or false otherwise.
      */
     public ShiftSmart(Problem problem, Random random, int priority, boolean useMakespanMachine) {
-        super(problem, random, "ShiftSmart" + (useMakespanMachine ? "(mk)" : ""), priority);
-        this.useMakespanMachine = useMakespanMachine;
+        super(problem, random, "ShiftSmart" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
     }
 
     public void accept() {
@@ -57,17 +52,10 @@ public class ShiftSmart extends Move {
         job = machine.jobs[pos1];
         machine.delJob(pos1);
 
-        // selecting destination position
-        pos2 = random.nextInt(machine.getNJobs() + 1);
-        int cost = Integer.MAX_VALUE;
-        for (int p = 0; p <= machine.getNJobs(); p++) {
-            if (p == pos1) continue;
-            int simulatedCost = machine.getDeltaCostAddJob(job, p);
-            if (simulatedCost < cost) {
-                cost = simulatedCost;
-                pos2 = p;
-            }
-        }
+        // selecting destination position (the initial random draw of the
+        // original scan is kept, so that a given seed reproduces the same runs)
+        random.nextInt(machine.getNJobs() + 1);
+        pos2 = machine.getBestPositionAddJob(job, pos1);
 
         // moving jobs
         machine.addJob(job, pos2);
@@ -76,15 +64,13 @@ public class ShiftSmart extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
-    public boolean hasMove(Solution solution) {
-        return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
-    }
-
-    public void reject() {
-        super.reject();
-
-        machine.delJob(pos2);
-        machine.addJob(job, pos1);
-        currentSolution.updateCost();
+    /**
+     * The neighborhood of this move is the one of {@link Shift}, which already
+     * enumerates it; this variant only samples neighbors differently.
+     *
+     * @return false.
+     */
+    public boolean hasEnumeration() {
+        return false;
     }
 }
@@ -12,11 +12,7 @@ import java.util.*;
  *
  * @author Tulio Toffolo
  */
-public class SimpleSwap extends Move {
-
-    private Machine machine1, machine2;
-    private int posM1, posM2, job1, job2;
-    private boolean useMakespanMachine;
+public class SimpleSwap extends AbstractSimpleSwap {
 
     /**
      * Instantiates a new SimpleSwap Move.
@@ -27,8 +23,7 @@ public class SimpleSwap extends Move {
      * @param useMakespanMachine true if the makespan machine should be always considered or false otherwise.
      */
     public SimpleSwap(Problem problem, Random random, int priority, boolean useMakespanMachine) {
-        super(problem, random, "SimpSwap" + (useMakespanMachine ? "(mk)" : ""), priority);
-        this.useMakespanMachine = useMakespanMachine;
+        super(problem, random, "SimpSwap" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
     }
 
     public void accept() {
@@ -74,15 +69,7 @@ public class SimpleSwap extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
-    public boolean hasMove(Solution solution) {
-        return solution.getNMachines() > 1;
-    }
-
-    public void reject() {
-        super.reject();
-
-        machine1.setJob(job1, posM1);
-        machine2.setJob(job2, posM2);
-        currentSolution.updateCost();
+    public boolean hasEnumeration() {
+        return true;
     }
 }
@@ -14,11 +14,7 @@ import java.util.*;
  *
  * @author Tulio Toffolo
  */
-public class Swap extends Move {
-
-    private Machine machine1, machine2;
-    private int pos1M1, pos2M1, pos1M2, pos2M2, job1, job2;
-    private boolean useMakespanMachine;
+public class Swap extends AbstractSwap {
 
     /**
      * Instantiates a new Swap Move.
@@ -30,8 +26,7 @@ public class Swap extends Move {
      *                           considered or false otherwise.
      */
     public Swap(Problem problem, Random random, int priority, boolean useMakespanMachine) {
-        super(problem, random, "Swap" + (useMakespanMachine ? "(mk)" : ""), priority);
-        this.useMakespanMachine = useMakespanMachine;
+        super(problem, random, "Swap" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
     }
 
     public void accept() {
@@ -81,17 +76,7 @@ public class Swap extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
-    public boolean hasMove(Solution solution) {
-        return solution.getNMachines() > 1;
-    }
-
-    public void reject() {
-        super.reject();
-
-        machine1.delJob(pos2M1);
-        machine2.delJob(pos2M2);
-        machine1.addJob(job1, pos1M1);
-        machine2.addJob(job2, pos1M2);
-        currentSolution.updateCost();
+    public boolean hasEnumeration() {
+        return true;
     }
 }
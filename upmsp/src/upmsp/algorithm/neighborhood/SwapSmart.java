@@ -12,11 +12,7 @@ import java.util.*;
  *
  * @author Tulio Toffolo
  */
-public class SwapSmart extends Move {
-
-    private Machine machine1, machine2;
-    private int pos1M1, pos2M1, pos1M2, pos2M2, job1, job2;
-    private boolean useMakespanMachine;
+public class SwapSmart extends AbstractSwap {
 
     /**
      * Instantiates a new Swap Move.
@@ -27,8 +23,7 @@ public class SwapSmart extends Move {
      * @param useMakespanMachine true if the makespan machine should be always considered or false otherwise.
      */
     public SwapSmart(Problem problem, Random random, int priority, boolean useMakespanMachine) {
-        super(problem, random, "SwapSmart" + (useMakespanMachine ? "(mk)" : ""), priority);
-        this.useMakespanMachine = useMakespanMachine;
+        super(problem, random, "SwapSmart" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
     }
 
     public void accept() {
@@ -71,26 +66,10 @@ public class SwapSmart extends Move {
         machine2.delJob(pos1M2);
 
         // selecting position to insert in machine 1
-        pos2M1 = 0;
-        int cost = Integer.MAX_VALUE;
-        for (int p = 0; p <= machine1.getNJobs(); p++) {
-            int simulatedCost = machine1.getDeltaCostAddJob(job2, p);
-            if (simulatedCost < cost) {
-                cost = simulatedCost;
-                pos2M1 = p;
-            }
-        }
+        pos2M1 = machine1.getBestPositionAddJob(job2);
 
         // selecting position to insert in machine2
-        pos2M2 = 0;
-        cost = Integer.MAX_VALUE;
-        for (int p = 0; p <= machine2.getNJobs(); p++) {
-            int simulatedCost = machine2.getDeltaCostAddJob(job1, p);
-            if (simulatedCost < cost) {
-                cost = simulatedCost;
-                pos2M2 = p;
-            }
-        }
+        pos2M2 = machine2.getBestPositionAddJob(job1);
 
         machine1.addJob(job2, pos2M1);
         machine2.addJob(job1, pos2M2);
@@ -99,17 +78,13 @@ public class SwapSmart extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
-    public boolean hasMove(Solution solution) {
-        return solution.getNMachines() > 1;
-    }
-
-    public void reject() {
-        super.reject();
-
-        machine1.delJob(pos2M1);
-        machine2.delJob(pos2M2);
-        machine1.addJob(job1, pos1M1);
-        machine2.addJob(job2, pos1M2);
-        currentSolution.updateCost();
+    /**
+     * The neighborhood of this move is the one of {@link Swap}, which already
+     * enumerates it; this variant only samples neighbors differently.
+     *
+     * @return false.
+     */
+    public boolean hasEnumeration() {
+        return false;
     }
 }
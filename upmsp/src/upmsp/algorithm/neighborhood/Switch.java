@@ -13,11 +13,7 @@ import java.util.*;
  *
  * @author Tulio Toffolo
  */
-public class Switch extends Move {
-
-    private Machine machine;
-    private int pos1, pos2, job1, job2;
-    private boolean useMakespanMachine;
+public class Switch extends AbstractSwitch {
 
     /**
      * Instantiates a new Switch.
@@ -29,8 +25,7 @@ public class Switch extends Move {
      *                           considered or false otherwise.
      */
     public Switch(Problem problem, Random random, int priority, boolean useMakespanMachine) {
-        super(problem, random, "Switch" + (useMakespanMachine ? "(mk)" : ""), priority);
-        this.useMakespanMachine = useMakespanMachine;
+        super(problem, random, "Switch" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
     }
 
     public void accept() {
@@ -67,15 +62,7 @@ public class Switch extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
-    public boolean hasMove(Solution solution) {
-        return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
-    }
-
-    public void reject() {
-        super.reject();
-
-        machine.setJob(job1, pos1);
-        machine.setJob(job2, pos2);
-        currentSolution.updateCost();
+    public boolean hasEnumeration() {
+        return true;
     }
 }
@@ -0,0 +1,71 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents the scan-mode version of the Switch Move (see {@link SwitchSmart} and {@link ScanMove}). Each
+ * job of a machine is evaluated against its best partner of the same machine and the move is applied only if it
+ * reduces the completion time of the machine.
+ *
+ * @author Tulio Toffolo
+ */
+public class SwitchScan extends ScanMove {
+
+    public final static int DONT_LOOK_BIT = 1;
+
+    private Machine machine;
+    private int pos1, pos2;
+    private long signature;
+
+    /**
+     * Instantiates a new Switch Move (scan-mode).
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if only the makespan machine should be scanned or false otherwise.
+     */
+    public SwitchScan(Problem problem, Random random, int priority, boolean useMakespanMachine) {
+        super(problem, random, "SwitchScan" + (useMakespanMachine ? "(mk)" : ""), priority, DONT_LOOK_BIT, 2, useMakespanMachine);
+    }
+
+    protected void applyCandidate() {
+        swapJobs();
+    }
+
+    protected boolean evaluate(Solution solution, Machine machine, int pos) {
+        int bestPos = -1, cost = 0;
+        for (int p = 0; p < machine.getNJobs(); p++) {
+            int simulatedCost = machine.getDeltaCostSwapJobs(pos, p);
+            if (simulatedCost < cost) {
+                cost = simulatedCost;
+                bestPos = p;
+            }
+        }
+        if (bestPos < 0) return false;
+
+        this.machine = machine;
+        this.signature = machine.getSignature();
+        this.pos1 = pos;
+        this.pos2 = bestPos;
+        return true;
+    }
+
+    protected boolean isCandidateUnchanged() {
+        return machine.getSignature() == signature;
+    }
+
+    protected void undoCandidate() {
+        swapJobs();
+    }
+
+
+    private void swapJobs() {
+        int job1 = machine.jobs[pos1], job2 = machine.jobs[pos2];
+        machine.setJob(job2, pos1);
+        machine.setJob(job1, pos2);
+    }
+}
@@ -12,11 +12,7 @@ import java.util.*;
  *
  * @author Tulio Toffolo
  */
-public class SwitchSmart extends Move {
-
-    private Machine machine;
-    private int pos1, pos2, job1, job2;
-    private boolean useMakespanMachine;
+public class SwitchSmart extends AbstractSwitch {
 
     /**
      * Instantiates a new Switch.
@@ -27,8 +23,7 @@ public class SwitchSmart extends Move {
      * @param useMakespanMachine true if the makespan machine should be always considered or false otherwise.
      */
     public SwitchSmart(Problem problem, Random random, int priority, boolean useMakespanMachine) {
-        super(problem, random, "SwitchSmart" + (useMakespanMachine ? "(mk)" : ""), priority);
-        this.useMakespanMachine = useMakespanMachine;
+        super(problem, random, "SwitchSmart" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
     }
 
     public void accept() {
@@ -76,15 +71,13 @@ public class SwitchSmart extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
-    public boolean hasMove(Solution solution) {
-        return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
-    }
-
-    public void reject() {
-        super.reject();
-
-        machine.setJob(job1, pos1);
-        machine.setJob(job2, pos2);
-        currentSolution.updateCost();
+    /**
+     * The neighborhood of this move is the one of {@link Switch}, which already
+     * enumerates it; this variant only samples neighbors differently.
+     *
+     * @return false.
+     */
+    public boolean hasEnumeration() {
+        return false;
     }
 }
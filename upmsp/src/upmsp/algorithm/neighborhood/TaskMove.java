@@ -12,11 +12,7 @@ import java.util.*;
  *
  * @author Tulio Toffolo
  */
-public class TaskMove extends Move {
-
-    private Machine machine1, machine2;
-    private int posM1, posM2, job;
-    private boolean useMakespanMachine;
+public class TaskMove extends AbstractTaskMove {
 
     /**
      * Instantiates a new Task move.
@@ -27,8 +23,7 @@ public class TaskMove extends Move {
      * @param useMakespanMachine the use makespan machine
      */
     public TaskMove(Problem problem, Random random, int priority, boolean useMakespanMachine) {
-        super(problem, random, "TaskMove" + (useMakespanMachine ? "(mk)" : ""), priority);
-        this.useMakespanMachine = useMakespanMachine;
+        super(problem, random, "TaskMove" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
     }
 
     public void accept() {
@@ -73,11 +68,7 @@ public class TaskMove extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
-    public void reject() {
-        super.reject();
-
-        machine1.addJob(job, posM1);
-        machine2.delJob(posM2);
-        currentSolution.updateCost();
+    public boolean hasEnumeration() {
+        return true;
     }
 }
@@ -0,0 +1,147 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * This class represents a Task Move (as in the paper) with best-improvement selection of the destination machine. A
+ * neighbor is generated by moving one job from one machine, m1, to the best position of the best machine, m2, i.e. the
+ * machine which ends with the smallest completion time after receiving the job. The insertion scans of the different
+ * machines are independent, so they are spread over the common fork-join pool when the instance is large enough;
+ * below the threshold the machines are scanned sequentially. If an insertion cache is available, it is looked up
+ * first and only the machines without a valid entry are scanned (in parallel, if the instance is large enough). The
+ * parameter "useMakespanMachine" determines whether m1 is always the machine with the largest total execution time
+ * or not.
+ *
+ * @author Tulio Toffolo
+ */
+public class TaskMoveBest extends AbstractTaskMove {
+
+    private final int parallelThreshold;
+    private final int bestPos[], bestCost[];
+    private final Machine scanMachines[];
+
+    /**
+     * Instantiates a new Task move (with best-improvement selection of the destination machine).
+     *
+     * @param problem            the problem
+     * @param random             the random
+     * @param priority           the priority
+     * @param parallelThreshold  minimum number of jobs for which the machines are scanned in parallel
+     * @param useMakespanMachine the use makespan machine
+     */
+    public TaskMoveBest(Problem problem, Random random, int priority, int parallelThreshold, boolean useMakespanMachine) {
+        super(problem, random, "TaskMoveBest" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
+        this.parallelThreshold = parallelThreshold;
+
+        bestPos = new int[problem.nMachines];
+        bestCost = new int[problem.nMachines];
+        scanMachines = new Machine[problem.nMachines];
+    }
+
+    public void accept() {
+        super.accept();
+    }
+
+    public int doMove(Solution solution) {
+        super.doMove(solution);
+
+        // selecting source machine
+        if (useMakespanMachine && solution.makespanMachine.getNJobs() > 0) {
+            machine1 = solution.makespanMachine;
+        }
+        else {
+            int m;
+            do {
+                m = random.nextInt(solution.machines.length);
+            }
+            while (solution.machines[m].getNJobs() == 0);
+            machine1 = solution.machines[m];
+        }
+
+        // selecting job to perform operation
+        posM1 = random.nextInt(machine1.getNJobs());
+        job = machine1.jobs[posM1];
+        machine1.delJob(posM1);
+
+        // scanning all destination machines (the ones without a valid cache entry in parallel if the instance is
+        // large enough)
+        int nScans = 0;
+        for (Machine machine : solution.machines)
+            if (insertionCache == null || !lookupCache(machine))
+                scanMachines[nScans++] = machine;
+
+        if (nScans > 1 && problem.nJobs >= parallelThreshold)
+            IntStream.range(0, nScans).parallel().forEach(k -> scanMachine(scanMachines[k]));
+        else
+            for (int k = 0; k < nScans; k++)
+                scanMachine(scanMachines[k]);
+
+        // the cache is only updated by this thread
+        if (insertionCache != null) {
+            for (int k = 0; k < nScans; k++) {
+                Machine machine = scanMachines[k];
+                if (machine == machine1) continue;
+                nCacheMisses++;
+                insertionCache.put(machine, job, bestPos[machine.id], bestCost[machine.id] - machine.getMakespan());
+            }
+        }
+
+        // selecting the best destination machine (ties are broken by the smallest id)
+        int cost = Integer.MAX_VALUE;
+        for (int m = 0; m < solution.machines.length; m++) {
+            if (bestCost[m] < cost) {
+                cost = bestCost[m];
+                machine2 = solution.machines[m];
+                posM2 = bestPos[m];
+            }
+        }
+        machine2.addJob(job, posM2);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    /**
+     * The neighborhood of this move is contained in the one of {@link
+     * TaskMove}, which already enumerates it.
+     *
+     * @return false.
+     */
+    public boolean hasEnumeration() {
+        return false;
+    }
+
+    public boolean hasMove(Solution solution) {
+        return problem.nMachines > 1 && (!useMakespanMachine || solution.makespanMachine.getNJobs() > 0);
+    }
+
+    private boolean lookupCache(Machine machine) {
+        if (machine == machine1) {
+            bestCost[machine.id] = Integer.MAX_VALUE;
+            return true;
+        }
+
+        int pos = insertionCache.getPosition(machine, job);
+        if (pos < 0) return false;
+
+        nCacheHits++;
+        bestPos[machine.id] = pos;
+        bestCost[machine.id] = machine.getMakespan() + insertionCache.getDeltaCost(machine, job);
+        return true;
+    }
+
+    private void scanMachine(Machine machine) {
+        if (machine == machine1) {
+            bestCost[machine.id] = Integer.MAX_VALUE;
+            return;
+        }
+
+        int pos = machine.getBestPositionAddJob(job);
+        bestPos[machine.id] = pos;
+        bestCost[machine.id] = machine.getMakespan() + machine.getDeltaCostAddJob(job, pos);
+    }
+}
@@ -0,0 +1,77 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents the scan-mode version of the Task Move (see {@link TaskMoveSmart} and {@link ScanMove}). Each
+ * job of a machine, m1, is evaluated in its best position of every other machine, m2, and the move is applied only if
+ * it reduces the largest completion time among m1 and m2.
+ *
+ * @author Tulio Toffolo
+ */
+public class TaskMoveScan extends ScanMove {
+
+    public final static int DONT_LOOK_BIT = 2;
+
+    private Machine machine1, machine2;
+    private int posM1, posM2, job;
+    private long signature1, signature2;
+
+    /**
+     * Instantiates a new Task Move (scan-mode).
+     *
+     * @param problem            problem.
+     * @param random             random number generator.
+     * @param priority           the priority of this neighborhood.
+     * @param useMakespanMachine true if only the makespan machine should be scanned (as m1) or false otherwise.
+     */
+    public TaskMoveScan(Problem problem, Random random, int priority, boolean useMakespanMachine) {
+        super(problem, random, "TaskMoveScan" + (useMakespanMachine ? "(mk)" : ""), priority, DONT_LOOK_BIT, 1, useMakespanMachine);
+    }
+
+    protected void applyCandidate() {
+        machine1.delJob(posM1);
+        machine2.addJob(job, posM2);
+    }
+
+    protected boolean evaluate(Solution solution, Machine machine, int pos) {
+        int job = machine.jobs[pos];
+        int makespan1 = machine.getMakespan() + machine.getDeltaCostDelJob(pos);
+
+        Machine bestMachine = null;
+        int bestPos = -1, cost = machine.getMakespan();
+        for (Machine target : solution.machines) {
+            if (target == machine || target.getMakespan() >= cost) continue;
+
+            int p = getBestPositionAddJob(target, job);
+            int simulatedCost = Math.max(makespan1, target.getMakespan() + target.getDeltaCostAddJob(job, p));
+            if (simulatedCost < cost) {
+                cost = simulatedCost;
+                bestMachine = target;
+                bestPos = p;
+            }
+        }
+        if (bestMachine == null) return false;
+
+        this.machine1 = machine;
+        this.machine2 = bestMachine;
+        this.signature1 = machine.getSignature();
+        this.signature2 = bestMachine.getSignature();
+        this.posM1 = pos;
+        this.posM2 = bestPos;
+        this.job = job;
+        return true;
+    }
+
+    protected boolean isCandidateUnchanged() {
+        return machine1.getSignature() == signature1 && machine2.getSignature() == signature2;
+    }
+
+    protected void undoCandidate() {
+        machine2.delJob(posM2);
+        machine1.addJob(job, posM1);
+    }
+}
@@ -12,11 +12,7 @@ import java.util.*;
  *
  * @author Tulio Toffolo
  */
-public class TaskMoveSmart extends Move {
-
-    private Machine machine1, machine2;
-    private int posM1, posM2, job;
-    private boolean useMakespanMachine;
+public class TaskMoveSmart extends AbstractTaskMove {
 
     /**
      * Instantiates a new Task move.
@@ -27,8 +23,7 @@ public class TaskMoveSmart extends Move {
      * @param useMakespanMachine the use makespan machine
      */
     public TaskMoveSmart(Problem problem, Random random, int priority, boolean useMakespanMachine) {
-        super(problem, random, "TaskMoveSmart" + (useMakespanMachine ? "(mk)" : ""), priority);
-        this.useMakespanMachine = useMakespanMachine;
+        super(problem, random, "TaskMoveSmart" + (useMakespanMachine ? "(mk)" : ""), priority, useMakespanMachine);
     }
 
     public void accept() {
@@ -65,27 +60,23 @@ public class TaskMoveSmart extends Move {
         job = machine1.jobs[posM1];
         machine1.delJob(posM1);
 
-        // adding job to destination machine
-        posM2 = random.nextInt(machine2.getNJobs() + 1);
-        int cost = Integer.MAX_VALUE;
-        for (int p = 0; p <= machine2.getNJobs(); p++) {
-            int simulatedCost = machine2.getDeltaCostAddJob(job, p);
-            if (simulatedCost < cost) {
-                cost = simulatedCost;
-                posM2 = p;
-            }
-        }
+        // adding job to destination machine (the initial random draw of the
+        // original scan is kept, so that a given seed reproduces the same runs)
+        random.nextInt(machine2.getNJobs() + 1);
+        posM2 = getBestPositionAddJob(machine2, job);
         machine2.addJob(job, posM2);
 
         solution.updateCost();
         return deltaCost = solution.getCost() - initialCost;
     }
 
-    public void reject() {
-        super.reject();
-
-        machine1.addJob(job, posM1);
-        machine2.delJob(posM2);
-        currentSolution.updateCost();
+    /**
+     * The neighborhood of this move is the one of {@link TaskMove}, which already
+     * enumerates it; this variant only samples neighbors differently.
+     *
+     * @return false.
+     */
+    public boolean hasEnumeration() {
+        return false;
     }
 }
@@ -58,15 +58,7 @@ public class TwoShiftSmart extends Move {
         machine.delJob(pos1_1);
 
         // selecting destination position for job1
-        int cost = Integer.MAX_VALUE;
-        for (int p = 0; p <= machine.getNJobs(); p++) {
-            if (p == pos1_1) continue;
-            int simulatedCost = machine.getDeltaCostAddJob(job1, p);
-            if (simulatedCost < cost) {
-                cost = simulatedCost;
-                pos1_2 = p;
-            }
-        }
+        pos1_2 = machine.getBestPositionAddJob(job1, pos1_1);
         machine.addJob(job1, pos1_2);
 
         // selecting job2 to perform operation
@@ -78,15 +70,7 @@ public class TwoShiftSmart extends Move {
         machine.delJob(pos2_1);
 
         // selecting destination position
-        cost = Integer.MAX_VALUE;
-        for (int p = 0; p <= machine.getNJobs(); p++) {
-            if (p == pos2_1) continue;
-            int simulatedCost = machine.getDeltaCostAddJob(job2, p);
-            if (simulatedCost < cost) {
-                cost = simulatedCost;
-                pos2_2 = p;
-            }
-        }
+        pos2_2 = machine.getBestPositionAddJob(job2, pos2_1);
         machine.addJob(job2, pos2_2);
 
         solution.updateCost();
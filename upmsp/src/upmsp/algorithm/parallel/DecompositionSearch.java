@@ -0,0 +1,316 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.algorithm.heuristic.*;
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class is a decompose-and-solve heuristic for large instances. The
+ * machines and jobs are partitioned into loosely coupled groups, based on the
+ * process times:
+ * <ul>
+ * <li>machines with similar process times (L1 distance between their process
+ * time vectors) are grouped: the groups are seeded with mutually distant
+ * machines (farthest-point seeding) and the other machines join the nearest
+ * seed whose group is not full;</li>
+ * <li>each job joins the group in which it has the smallest process time,
+ * unless that group is overloaded; jobs with the largest regret (difference
+ * between their second best and best groups) are assigned first.</li>
+ * </ul>
+ * Each group becomes a sub-problem, which is a view of the parent problem
+ * (see {@link Problem#Problem(Problem, int[])}), i.e. the matrices are shared
+ * and only the machine indices are remapped. The sub-problems are solved
+ * concurrently, each one by its own heuristic created by the given factory,
+ * starting from a greedy solution, for a share of the time limit. The
+ * schedules are then merged into a solution of the whole problem, which is
+ * repaired (improved) by a global heuristic in the remaining time.
+ * <p>
+ * Since the jobs of a sub-problem keep their indices, heuristics which
+ * iterate over all jobs of the problem (such as LNS) cannot solve
+ * sub-problems. The moves of this heuristic are those of the global
+ * heuristic, into which the counters of the sub-problem heuristics are
+ * merged.
+ *
+ * @author Tulio Toffolo
+ */
+public class DecompositionSearch extends Heuristic {
+
+    public final static double LOAD_SLACK = 0.1;
+
+    private final int nThreads;
+    private final double decompositionShare;
+    private final HeuristicFactory factory;
+    private final Heuristic repair;
+
+    private final int machineGroups[][];
+    private final List<List<Integer>> jobGroups = new ArrayList<>();
+    private int decomposedCost = -1;
+
+    /**
+     * Instantiates a new DecompositionSearch.
+     *
+     * @param problem            problem reference.
+     * @param random             random number generator.
+     * @param nGroups            number of groups (sub-problems).
+     * @param nThreads           number of threads solving sub-problems.
+     * @param decompositionShare fraction of the time limit given to the
+     *                           sub-problems (the remaining time is given to
+     *                           the repair phase).
+     * @param factory            factory of the heuristics (of the sub-problems
+     *                           and of the repair phase).
+     */
+    public DecompositionSearch(Problem problem, Random random, int nGroups, int nThreads, double decompositionShare,
+                               HeuristicFactory factory) {
+        super(problem, random, "Decomposition Search");
+        this.nThreads = Math.max(1, nThreads);
+        this.decompositionShare = decompositionShare;
+        this.factory = factory;
+
+        repair = factory.create(problem, new Random(random.nextLong()));
+        moves.addAll(repair.getMoves());
+
+        nGroups = Math.max(1, Math.min(nGroups, problem.nMachines));
+        machineGroups = new int[nGroups][];
+        for (int g = 0; g < nGroups; g++) {
+            machineGroups[g] = new int[g < problem.nMachines % nGroups ? problem.nMachines / nGroups + 1 : problem.nMachines / nGroups];
+            jobGroups.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Executes the decomposition search.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations without improvements of each heuristic.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        partitionMachines();
+        partitionJobs();
+
+        // creating the sub-problems and their heuristics (in this thread, so that the seeds are deterministic)
+        Problem subProblems[] = new Problem[machineGroups.length];
+        Solution subSolutions[] = new Solution[machineGroups.length];
+        Heuristic heuristics[] = new Heuristic[machineGroups.length];
+        for (int g = 0; g < machineGroups.length; g++) {
+            subProblems[g] = new Problem(problem, machineGroups[g]);
+            subSolutions[g] = greedySolution(subProblems[g], jobGroups.get(g));
+            heuristics[g] = factory.create(subProblems[g], new Random(random.nextLong()));
+        }
+
+        // solving the sub-problems concurrently
+        long subMillis = Math.round(timeLimitMillis * decompositionShare);
+        List<Callable<Solution>> tasks = new ArrayList<>();
+        for (int g = 0; g < machineGroups.length; g++) {
+            final int group = g;
+            tasks.add(() -> heuristics[group].run(subSolutions[group], subMillis, maxIters, null));
+        }
+
+        ExecutorService executor = MultiStart.newExecutor(Math.min(nThreads, machineGroups.length));
+        try {
+            List<Solution> results = MultiStart.execute(executor, tasks);
+            for (int g = 0; g < machineGroups.length; g++)
+                subSolutions[g] = results.get(g);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        // merging the schedules of the sub-problems
+        Solution solution = new Solution(problem);
+        for (int g = 0; g < machineGroups.length; g++) {
+            for (int i = 0; i < machineGroups[g].length; i++) {
+                Machine machine = subSolutions[g].machines[i];
+                solution.machines[machineGroups[g][i]].setSequence(machine.jobs, machine.getNJobs());
+            }
+            nIters += heuristics[g].getNIters();
+            mergeStatistics(heuristics[g]);
+        }
+        solution.updateCost();
+        decomposedCost = solution.getCost();
+        Util.safePrintStatus(output, nIters, solution, solution, "merged (" + machineGroups.length + " groups)");
+
+        // repairing the merged solution (or the initial one, if better)
+        if (initialSolution.getCost() < solution.getCost())
+            solution = initialSolution.clone();
+        repair.setIncumbent(incumbent);
+        publish(solution);
+        bestSolution = repair.run(solution, finalTimeMillis - System.currentTimeMillis(), maxIters, output);
+        return bestSolution;
+    }
+
+    /**
+     * Gets the total number of iterations performed (in the sub-problems and
+     * in the repair phase).
+     *
+     * @return the total number of iterations performed.
+     */
+    public long getNIters() {
+        return nIters + repair.getNIters();
+    }
+
+    /**
+     * Prints the groups (number of machines and jobs) and the makespan of the
+     * merged solution.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) {
+        if (decomposedCost < 0) return;
+        StringBuilder groups = new StringBuilder();
+        for (int g = 0; g < machineGroups.length; g++)
+            groups.append(g > 0 ? ", " : "").append(machineGroups[g].length).append("m/").append(jobGroups.get(g).size()).append("j");
+        Util.safePrintf(output, "Decomposition: groups [%s]; merged makespan=%d\n\n", groups, decomposedCost);
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic.
+     */
+    public String toString() {
+        return String.format("%s (groups=%d, threads=%d, share=%.2f) of %s", name, machineGroups.length, nThreads,
+          decompositionShare, repair);
+    }
+
+
+    /**
+     * Partitions the machines: the groups are seeded with mutually distant
+     * machines and the other machines join the nearest seed whose group is not
+     * full.
+     */
+    private void partitionMachines() {
+        int distances[][] = new int[problem.nMachines][problem.nMachines];
+        for (int m1 = 0; m1 < problem.nMachines; m1++) {
+            for (int m2 = m1 + 1; m2 < problem.nMachines; m2++) {
+                int distance = 0;
+                for (int j = 0; j < problem.nJobs; j++)
+                    distance += Math.abs(problem.processTimes[m1][j] - problem.processTimes[m2][j]);
+                distances[m1][m2] = distances[m2][m1] = distance;
+            }
+        }
+
+        // farthest-point seeding
+        int sizes[] = new int[machineGroups.length];
+        boolean assigned[] = new boolean[problem.nMachines];
+        int minDistance[] = new int[problem.nMachines];
+        Arrays.fill(minDistance, Integer.MAX_VALUE);
+        int seed = random.nextInt(problem.nMachines);
+        for (int g = 0; g < machineGroups.length; g++) {
+            machineGroups[g][sizes[g]++] = seed;
+            assigned[seed] = true;
+            for (int m = 0; m < problem.nMachines; m++)
+                minDistance[m] = Math.min(minDistance[m], distances[seed][m]);
+            for (int m = 0; m < problem.nMachines; m++)
+                if (!assigned[m] && (assigned[seed] || minDistance[m] > minDistance[seed]))
+                    seed = m;
+        }
+
+        // assigning the other machines (in random order) to the nearest seed with room
+        List<Integer> others = new ArrayList<>();
+        for (int m = 0; m < problem.nMachines; m++)
+            if (!assigned[m]) others.add(m);
+        Collections.shuffle(others, random);
+        for (int m : others) {
+            int best = -1;
+            for (int g = 0; g < machineGroups.length; g++)
+                if (sizes[g] < machineGroups[g].length && (best < 0 || distances[machineGroups[g][0]][m] < distances[machineGroups[best][0]][m]))
+                    best = g;
+            machineGroups[best][sizes[best]++] = m;
+        }
+    }
+
+    /**
+     * Partitions the jobs: in decreasing order of regret, each job joins the
+     * group with the smallest process time (in its best machine) whose load
+     * per machine stays within LOAD_SLACK of the average load, or the least
+     * loaded group if there is none.
+     */
+    private void partitionJobs() {
+        int nGroups = machineGroups.length;
+        int costs[][] = new int[problem.nJobs][nGroups];
+        long regrets[] = new long[problem.nJobs];
+        double totalLoad = 0;
+        for (int j = 0; j < problem.nJobs; j++) {
+            int best = Integer.MAX_VALUE, second = Integer.MAX_VALUE;
+            for (int g = 0; g < nGroups; g++) {
+                costs[j][g] = Integer.MAX_VALUE;
+                for (int m : machineGroups[g])
+                    costs[j][g] = Math.min(costs[j][g], problem.processTimes[m][j]);
+                if (costs[j][g] < best) {
+                    second = best;
+                    best = costs[j][g];
+                }
+                else if (costs[j][g] < second) {
+                    second = costs[j][g];
+                }
+            }
+            regrets[j] = nGroups > 1 ? second - best : 0;
+            totalLoad += best;
+        }
+        double maxLoad = totalLoad / problem.nMachines * (1 + LOAD_SLACK);
+
+        Integer jobs[] = new Integer[problem.nJobs];
+        for (int j = 0; j < problem.nJobs; j++) jobs[j] = j;
+        Arrays.sort(jobs, (a, b) -> Long.compare(regrets[b], regrets[a]));
+
+        double loads[] = new double[nGroups];
+        for (List<Integer> group : jobGroups) group.clear();
+        for (int j : jobs) {
+            int best = -1, leastLoaded = 0;
+            for (int g = 0; g < nGroups; g++) {
+                if ((loads[g] + costs[j][g]) / machineGroups[g].length <= maxLoad && (best < 0 || costs[j][g] < costs[j][best]))
+                    best = g;
+                if (loads[g] / machineGroups[g].length < loads[leastLoaded] / machineGroups[leastLoaded].length)
+                    leastLoaded = g;
+            }
+            if (best < 0) best = leastLoaded;
+            loads[best] += costs[j][best];
+            jobGroups.get(best).add(j);
+        }
+    }
+
+    /**
+     * Creates a greedy solution of a sub-problem: the jobs (in decreasing
+     * order of their smallest process time) are added to the machine and
+     * position which minimize the resulting completion time.
+     */
+    private Solution greedySolution(Problem subProblem, List<Integer> jobs) {
+        int minProcess[] = new int[problem.nJobs];
+        for (int j : jobs) {
+            minProcess[j] = Integer.MAX_VALUE;
+            for (int m = 0; m < subProblem.nMachines; m++)
+                minProcess[j] = Math.min(minProcess[j], subProblem.processTimes[m][j]);
+        }
+        List<Integer> sorted = new ArrayList<>(jobs);
+        sorted.sort((a, b) -> Integer.compare(minProcess[b], minProcess[a]));
+
+        Solution solution = new Solution(subProblem);
+        for (int j : sorted) {
+            Machine best = null;
+            int bestPos = 0, bestCompletion = Integer.MAX_VALUE;
+            for (Machine machine : solution.machines) {
+                int pos = machine.getBestPositionAddJob(j);
+                int completion = machine.getMakespan() + machine.getDeltaCostAddJob(j, pos);
+                if (completion < bestCompletion) {
+                    best = machine;
+                    bestPos = pos;
+                    bestCompletion = completion;
+                }
+            }
+            best.addJob(j, bestPos);
+        }
+        solution.updateCost();
+        return solution;
+    }
+}
@@ -0,0 +1,27 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.algorithm.heuristic.*;
+import upmsp.model.*;
+
+import java.util.*;
+
+/**
+ * This interface represents a factory of heuristics. Parallel heuristics use
+ * it to create independent copies of a heuristic (with their own moves), one
+ * per thread.
+ *
+ * @author Tulio Toffolo
+ */
+@FunctionalInterface
+public interface HeuristicFactory {
+
+    /**
+     * Creates a new heuristic (with its moves).
+     *
+     * @param problem the problem reference.
+     * @param random  the random number generator to be used by the heuristic
+     *                and its moves.
+     * @return the heuristic created.
+     */
+    Heuristic create(Problem problem, Random random);
+}
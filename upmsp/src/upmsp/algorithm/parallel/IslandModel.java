@@ -0,0 +1,194 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.algorithm.heuristic.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class is an Island Model implementation. Each island runs its own
+ * heuristic (e.g. SA, LAHC, SCHC or ILS) in its own thread, in epochs of
+ * migrationMillis milliseconds. At the end of each epoch, the islands publish
+ * their solutions and then each island replaces its solution by the best
+ * solution of its neighbor islands, if that one is better. Islands are
+ * connected either in a ring (each island has its previous and next islands
+ * as neighbors) or fully. An island that imports no solution resumes its
+ * search in the next epoch (see {@link Heuristic#resume(Solution, long, long,
+ * PrintStream)}), so that e.g. SA keeps its temperature and LAHC its list;
+ * an island that imports a solution restarts from it.
+ * <p>
+ * Migrations copy solutions through preallocated snapshots (one per island),
+ * so that no solution is allocated by the migrations themselves. The best
+ * cost of each island at the end of each epoch is recorded and reported
+ * separately by {@link #printStatistics(PrintStream)}.
+ *
+ * @author Tulio Toffolo
+ */
+public class IslandModel extends MultiStart {
+
+    private final long migrationMillis;
+    private final boolean fullyConnected;
+
+    private final Solution snapshots[];
+    private final int nImports[];
+    private int convergence[][];
+    private int nEpochs;
+
+    private CyclicBarrier barrier;
+
+    /**
+     * Instantiates a new IslandModel.
+     *
+     * @param problem         problem reference.
+     * @param random          random number generator (used to seed the islands).
+     * @param factories       factories of the heuristics of the islands (one per
+     *                        island).
+     * @param migrationMillis time between migrations (in milliseconds).
+     * @param fullyConnected  true if the islands are fully connected or false if
+     *                        they are connected in a ring.
+     */
+    public IslandModel(Problem problem, Random random, HeuristicFactory factories[], long migrationMillis, boolean fullyConnected) {
+        super(problem, random, "Island Model", factories);
+        this.migrationMillis = Math.max(1, migrationMillis);
+        this.fullyConnected = fullyConnected;
+
+        snapshots = new Solution[workers.length];
+        for (int i = 0; i < workers.length; i++)
+            snapshots[i] = new Solution(problem);
+        nImports = new int[workers.length];
+    }
+
+    /**
+     * Executes the islands in parallel.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations without improvements to execute.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the islands.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long startTimeMillis = System.currentTimeMillis();
+        long finalTimeMillis = startTimeMillis + timeLimitMillis;
+
+        sharedIncumbent = new SharedIncumbent(output);
+        sharedIncumbent.offer(initialSolution, 0);
+
+        nEpochs = ( int ) ((timeLimitMillis + migrationMillis - 1) / migrationMillis);
+        convergence = new int[workers.length][nEpochs];
+        barrier = new CyclicBarrier(workers.length);
+
+        List<Callable<Solution>> tasks = new ArrayList<>();
+        for (int i = 0; i < workers.length; i++) {
+            final int island = i;
+            Solution solution = createInitialSolution(i, initialSolution);
+            workers[i].setIncumbent(sharedIncumbent);
+            tasks.add(() -> runIsland(island, solution, startTimeMillis, finalTimeMillis, maxIters));
+        }
+
+        ExecutorService executor = newExecutor(workers.length);
+        try {
+            execute(executor, tasks);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        mergeStatistics();
+
+        return bestSolution = sharedIncumbent.get().clone();
+    }
+
+    /**
+     * Prints the best cost of each island at the end of each epoch, as well as
+     * the number of solutions imported by each island.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) {
+        Util.safePrintf(output, "Islands convergence (best cost at the end of each epoch of %.2fs):\n\n", migrationMillis / 1000.0);
+        for (int i = 0; i < workers.length; i++) {
+            StringBuilder costs = new StringBuilder();
+            for (int epoch = 0; epoch < nEpochs && convergence[i][epoch] > 0; epoch++)
+                costs.append(epoch > 0 ? " " : "").append(convergence[i][epoch]);
+            Util.safePrintf(output, "    Island %-3d %-24s imports=%-4d %s\n", i, workers[i].name, nImports[i], costs);
+        }
+        Util.safePrintf(output, "\n");
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic.
+     */
+    public String toString() {
+        StringBuilder islands = new StringBuilder();
+        for (Heuristic worker : workers)
+            islands.append(islands.length() > 0 ? ", " : "").append(worker);
+        return String.format("%s (islands=%d, migration=%.2fs, topology=%s) of %s", name, workers.length,
+          migrationMillis / 1000.0, fullyConnected ? "full" : "ring", islands);
+    }
+
+
+    /**
+     * Runs the heuristic of an island, epoch by epoch, performing the
+     * migrations between epochs.
+     */
+    private Solution runIsland(int island, Solution solution, long startTimeMillis, long finalTimeMillis, long maxIters) throws Exception {
+        Heuristic heuristic = workers[island];
+
+        try {
+            boolean restart = true;
+            for (int epoch = 0; epoch < nEpochs; epoch++) {
+                // all islands compute the same epoch ends (and thus stop at the same epoch)
+                long epochEndMillis = Math.min(startTimeMillis + (epoch + 1) * migrationMillis, finalTimeMillis);
+                long epochMillis = Math.max(0, epochEndMillis - System.currentTimeMillis());
+
+                // unless a solution was imported, the heuristic continues its search (e.g. without reheating SA)
+                solution = restart ? heuristic.run(solution, epochMillis, maxIters, null)
+                  : heuristic.resume(solution, epochMillis, maxIters, null);
+                convergence[island][epoch] = solution.getCost();
+
+                if (epoch == nEpochs - 1) break;
+
+                // publishing the solution of the island
+                snapshots[island].copyFrom(solution);
+                barrier.await();
+
+                // importing the best solution of the neighbor islands (if better)
+                Solution best = null;
+                for (int i = 0; i < workers.length; i++) {
+                    if (i == island || (!fullyConnected && !isRingNeighbor(island, i))) continue;
+                    if (snapshots[i].getCost() < solution.getCost() && (best == null || snapshots[i].getCost() < best.getCost()))
+                        best = snapshots[i];
+                }
+                restart = best != null;
+                if (best != null) {
+                    solution.copyFrom(best);
+                    nImports[island]++;
+                }
+
+                // waiting for all islands to read the snapshots before they are overwritten
+                barrier.await();
+            }
+        }
+        catch (Exception e) {
+            // releasing the other islands
+            barrier.reset();
+            throw e;
+        }
+
+        return solution;
+    }
+
+    /**
+     * Returns whether island j is a neighbor of island i in the ring topology.
+     */
+    private boolean isRingNeighbor(int i, int j) {
+        int n = workers.length;
+        return j == (i + 1) % n || j == (i + n - 1) % n;
+    }
+}
@@ -0,0 +1,296 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.algorithm.heuristic.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class is a local search that parallelizes the improvement of a single
+ * solution over disjoint groups of machines. In each round, the machines are
+ * partitioned into groups of groupSize machines and the groups are improved
+ * concurrently (each worker thread improves its groups sequentially). Moves
+ * within a group (relocating a job between two machines of the group,
+ * swapping jobs between them or shifting a job inside a machine) only touch
+ * the machines of the group, so the groups do not interact; the threads only
+ * synchronize at the end of each round, to recompute the makespan and
+ * re-partition the machines.
+ * <p>
+ * A group move is accepted if it reduces the largest completion time in the
+ * group or if it does not increase the sum of the completion times of the
+ * group while its largest completion time stays below the makespan of the
+ * solution (which thus is never increased). The partition alternates between
+ * random groups and load-balanced groups (machines sorted by completion time
+ * are assigned in a snake order, so that each group mixes loaded and idle
+ * machines).
+ * <p>
+ * Group moves never empty a machine nor add jobs to an empty one, so that the
+ * number of used machines of the solution is not updated concurrently.
+ *
+ * @author Tulio Toffolo
+ */
+public class MachineGroupSearch extends Heuristic {
+
+    private final int groupSize;
+    private final long roundIters;
+
+    private final Random randoms[];
+    private final int order[];
+    private final int groups[][];
+    private final long nAttempts[][], nAccepts[][];
+
+    private Solution solution;
+    private int limit;
+    private long nRounds;
+
+    private final static String OPERATIONS[] = { "Relocate", "Swap", "Shift" };
+
+    /**
+     * Instantiates a new MachineGroupSearch.
+     *
+     * @param problem    problem reference.
+     * @param random     random number generator.
+     * @param nThreads   number of worker threads.
+     * @param groupSize  number of machines of each group (at least 2).
+     * @param roundIters number of moves evaluated in each group per round.
+     */
+    public MachineGroupSearch(Problem problem, Random random, int nThreads, int groupSize, long roundIters) {
+        super(problem, random, "Machine Group Search");
+        this.groupSize = Math.max(2, Math.min(groupSize, problem.nMachines));
+        this.roundIters = roundIters;
+
+        int nGroups = Math.max(1, problem.nMachines / this.groupSize);
+        randoms = new Random[Math.max(1, Math.min(nThreads, nGroups))];
+        for (int t = 0; t < randoms.length; t++)
+            randoms[t] = new Random(random.nextLong());
+
+        order = new int[problem.nMachines];
+        groups = new int[nGroups][];
+        for (int g = 0; g < nGroups; g++)
+            groups[g] = new int[g < problem.nMachines % nGroups ? problem.nMachines / nGroups + 1 : problem.nMachines / nGroups];
+
+        nAttempts = new long[randoms.length][OPERATIONS.length];
+        nAccepts = new long[randoms.length][OPERATIONS.length];
+    }
+
+    /**
+     * Executes the machine group search.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of rounds without improvement.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the search.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        bestSolution = initialSolution;
+        solution = initialSolution.clone();
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int t = 0; t < randoms.length; t++) {
+            final int thread = t;
+            tasks.add(() -> improveGroups(thread, finalTimeMillis));
+        }
+
+        ExecutorService executor = MultiStart.newExecutor(randoms.length);
+        try {
+            long nRoundsWithoutImprovement = 0;
+            while (nRoundsWithoutImprovement < maxIters && System.currentTimeMillis() < finalTimeMillis) {
+                partition(nRounds++ % 2 == 0);
+                limit = solution.getCost();
+
+                MultiStart.execute(executor, tasks);
+                nIters += groups.length * roundIters;
+
+                // synchronizing: recomputing the makespan of the solution
+                solution.updateCost();
+                if (solution.getCost() < bestSolution.getCost()) {
+                    nRoundsWithoutImprovement = 0;
+                    bestSolution = solution.clone();
+                    publish(bestSolution);
+                    Util.safePrintStatus(output, nIters, bestSolution, solution, "*");
+                }
+                else {
+                    nRoundsWithoutImprovement++;
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        return bestSolution;
+    }
+
+    /**
+     * Prints the number of rounds and the acceptance rate of each group move.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) {
+        Util.safePrintf(output, "Machine groups (%d groups of %d+ machines, %d rounds):\n\n", groups.length, groupSize, nRounds);
+        for (int k = 0; k < OPERATIONS.length; k++) {
+            long attempts = 0, accepts = 0;
+            for (int t = 0; t < randoms.length; t++) {
+                attempts += nAttempts[t][k];
+                accepts += nAccepts[t][k];
+            }
+            Util.safePrintf(output, "    %-10s attempts=%-12s accepted=%6.2f%%\n", OPERATIONS[k], Util.longToString(attempts),
+              attempts > 0 ? 100.0 * accepts / attempts : 0.0);
+        }
+        Util.safePrintf(output, "\n");
+    }
+
+    /**
+     * Returns the string representation of this heuristic.
+     *
+     * @return the string representation of this heuristic (with parameters values).
+     */
+    public String toString() {
+        return String.format("%s (threads=%d, groupSize=%d, roundIters=%s)", name, randoms.length, groupSize,
+          Util.longToString(roundIters));
+    }
+
+
+    /**
+     * Partitions the machines into the groups, either randomly or balancing
+     * the completion times of the machines in each group.
+     */
+    private void partition(boolean balanced) {
+        for (int m = 0; m < order.length; m++)
+            order[m] = m;
+
+        if (balanced) {
+            Integer sorted[] = new Integer[order.length];
+            for (int m = 0; m < order.length; m++)
+                sorted[m] = m;
+            Arrays.sort(sorted, (a, b) -> Integer.compare(solution.machines[b].getMakespan(), solution.machines[a].getMakespan()));
+
+            // snake order: 0, 1, ..., n-1, n-1, ..., 1, 0, 0, 1, ...
+            int sizes[] = new int[groups.length];
+            for (int i = 0; i < sorted.length; i++) {
+                int lap = i / groups.length, g = i % groups.length;
+                if (lap % 2 == 1) g = groups.length - 1 - g;
+                if (sizes[g] == groups[g].length) g = findGroupWithRoom(sizes);
+                groups[g][sizes[g]++] = sorted[i];
+            }
+        }
+        else {
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int m = order[i];
+                order[i] = order[j];
+                order[j] = m;
+            }
+
+            int i = 0;
+            for (int group[] : groups)
+                for (int k = 0; k < group.length; k++)
+                    group[k] = order[i++];
+        }
+    }
+
+    /**
+     * Returns the index of the first group that is not full.
+     */
+    private int findGroupWithRoom(int sizes[]) {
+        for (int g = 0; g < groups.length; g++)
+            if (sizes[g] < groups[g].length)
+                return g;
+        throw new IllegalStateException("no group with room for a machine");
+    }
+
+    /**
+     * Improves the groups assigned to a worker thread.
+     */
+    private boolean improveGroups(int thread, long finalTimeMillis) {
+        for (int g = thread; g < groups.length; g += randoms.length) {
+            for (long i = 0; i < roundIters; i++) {
+                if ((i & 255) == 0 && System.currentTimeMillis() >= finalTimeMillis) return false;
+                improveGroup(thread, groups[g]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Samples one move in a group and applies it if it is accepted.
+     */
+    private void improveGroup(int thread, int group[]) {
+        Random random = randoms[thread];
+        Machine a = solution.machines[group[random.nextInt(group.length)]];
+        Machine b;
+        do {
+            b = solution.machines[group[random.nextInt(group.length)]];
+        }
+        while (b == a);
+        if (a.getNJobs() == 0) return;
+
+        int max = 0, sum = 0;
+        for (int m : group) {
+            max = Math.max(max, solution.machines[m].getMakespan());
+            sum += solution.machines[m].getMakespan();
+        }
+
+        int operation = random.nextInt(OPERATIONS.length);
+        int i = random.nextInt(a.getNJobs()), job = a.jobs[i];
+        int newA, newB = b.getMakespan();
+        int k, pos;
+
+        switch (operation) {
+            case 0: // relocating job i from machine a to machine b
+                if (a.getNJobs() < 2 || b.getNJobs() == 0) return;
+                pos = b.getBestPositionAddJob(job);
+                newA = a.getMakespan() + a.getDeltaCostDelJob(i);
+                newB = b.getMakespan() + b.getDeltaCostAddJob(job, pos);
+                if (!accept(thread, operation, group, a, b, newA, newB, max, sum)) return;
+                a.delJob(i);
+                b.addJob(job, pos);
+                break;
+
+            case 1: // swapping job i of machine a with job k of machine b
+                if (b.getNJobs() == 0) return;
+                k = random.nextInt(b.getNJobs());
+                newA = a.getMakespan() + a.getDeltaCostSetJob(b.jobs[k], i);
+                newB = b.getMakespan() + b.getDeltaCostSetJob(job, k);
+                if (!accept(thread, operation, group, a, b, newA, newB, max, sum)) return;
+                a.setJob(b.jobs[k], i);
+                b.setJob(job, k);
+                break;
+
+            default: // shifting job i to position pos of machine a
+                pos = random.nextInt(a.getNJobs());
+                if (pos == i) return;
+                newA = a.getMakespan() + a.getDeltaCostShiftJob(i, pos);
+                if (!accept(thread, operation, group, a, b, newA, newB, max, sum)) return;
+                a.delJob(i);
+                a.addJob(job, pos);
+                break;
+        }
+    }
+
+    /**
+     * Returns whether a group move, resulting in completion times {@param
+     * newA} and {@param newB} for machines {@param a} and {@param b}, is
+     * accepted (and updates the statistics).
+     */
+    private boolean accept(int thread, int operation, int group[], Machine a, Machine b, int newA, int newB, int max, int sum) {
+        int newMax = Math.max(newA, newB), newSum = sum - a.getMakespan() - b.getMakespan() + newA + newB;
+        for (int m : group)
+            if (m != a.id && m != b.id)
+                newMax = Math.max(newMax, solution.machines[m].getMakespan());
+
+        nAttempts[thread][operation]++;
+        if (newMax < max || (newSum <= sum && newMax <= Math.max(max, limit - 1))) {
+            nAccepts[thread][operation]++;
+            return true;
+        }
+        return false;
+    }
+}
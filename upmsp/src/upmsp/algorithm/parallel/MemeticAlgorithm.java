@@ -0,0 +1,218 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.algorithm.constructive.*;
+import upmsp.algorithm.heuristic.*;
+import upmsp.algorithm.intensification.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class is a Memetic Algorithm implementation. The population is an
+ * {@link ElitePool}, which keeps it diverse. In each generation, nOffspring
+ * offspring are created by crossover of parents selected by binary
+ * tournaments, and then improved concurrently by a short local search (e.g.
+ * LAHC or Descent), each worker thread with its own local search (moves and
+ * random number generator). Improved offspring are offered to the population.
+ * <p>
+ * The crossover is a job-based order crossover applied per machine: a random
+ * subset of the jobs inherits the machine and the positions of the first
+ * parent, while the remaining jobs inherit the machine of the second parent
+ * and fill, in the relative order of the second parent, the remaining
+ * positions of each machine. The offspring are built into preallocated
+ * solutions, which are recycled in every generation; the local searches
+ * also keep their current and best solutions in preallocated buffers (see
+ * {@link Heuristic#setBuffers(Solution, Solution)}), and the population
+ * copies solutions into preallocated slots.
+ *
+ * @author Tulio Toffolo
+ */
+public class MemeticAlgorithm extends MultiStart {
+
+    private final ElitePool population;
+    private final long localSearchIters, localSearchMillis;
+
+    private final Solution offspring[];
+    private final boolean inherited[];
+    private final int sequence[];
+
+    private long nGenerations;
+
+    /**
+     * Instantiates a new MemeticAlgorithm.
+     *
+     * @param problem          problem reference.
+     * @param random           random number generator.
+     * @param nThreads         number of worker threads (local searches).
+     * @param populationSize   size of the population.
+     * @param minDistance      minimum distance between solutions of the
+     *                         population.
+     * @param nOffspring       number of offspring per generation.
+     * @param localSearchIters maximum number of iterations (as interpreted by
+     *                         the local search) of the local search of each
+     *                         offspring.
+     * @param localSearchMillis time limit (in milliseconds) of the local search
+     *                         of each offspring (note that LAHC only stops by
+     *                         the time limit).
+     * @param factory          factory of the local searches of the workers.
+     */
+    public MemeticAlgorithm(Problem problem, Random random, int nThreads, int populationSize, int minDistance, int nOffspring,
+                            long localSearchIters, long localSearchMillis, HeuristicFactory factory) {
+        super(problem, random, "Memetic Algorithm", nCopies(Math.max(1, nThreads), factory));
+        for (Heuristic worker : workers)
+            worker.setBuffers(new Solution(problem), new Solution(problem));
+        this.localSearchIters = localSearchIters;
+        this.localSearchMillis = localSearchMillis;
+
+        population = new ElitePool(problem, Math.max(2, populationSize), minDistance);
+        offspring = new Solution[Math.max(1, nOffspring)];
+        for (int i = 0; i < offspring.length; i++)
+            offspring[i] = new Solution(problem);
+
+        inherited = new boolean[problem.nJobs];
+        sequence = new int[problem.nJobs];
+    }
+
+    /**
+     * Executes the Memetic Algorithm.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of generations without improvement.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the algorithm.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        sharedIncumbent = new SharedIncumbent(output);
+        sharedIncumbent.offer(initialSolution, 0);
+        for (Heuristic worker : workers)
+            worker.setIncumbent(sharedIncumbent);
+
+        ExecutorService executor = newExecutor(workers.length);
+        try {
+            // initial population: the initial solution and random solutions, improved by the local search
+            for (int i = 0; i < offspring.length; i++) {
+                if (i == 0) offspring[i].copyFrom(initialSolution);
+                else offspring[i].copyFrom(SimpleConstructive.randomSolution(problem, random));
+            }
+            improveOffspring(executor, finalTimeMillis);
+
+            long nGenerationsWithoutImprovement = 0;
+            while (nGenerationsWithoutImprovement < maxIters && System.currentTimeMillis() < finalTimeMillis) {
+                for (Solution child : offspring)
+                    crossover(select(), select(), child);
+
+                int bestCost = sharedIncumbent.getCost();
+                improveOffspring(executor, finalTimeMillis);
+                nGenerations++;
+
+                if (sharedIncumbent.getCost() < bestCost) nGenerationsWithoutImprovement = 0;
+                else nGenerationsWithoutImprovement++;
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        mergeStatistics();
+        return bestSolution = sharedIncumbent.get().clone();
+    }
+
+    /**
+     * Prints the number of generations and the costs of the population.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) {
+        int costs[] = new int[population.size()];
+        for (int i = 0; i < costs.length; i++)
+            costs[i] = population.get(i).getCost();
+        Arrays.sort(costs);
+        Util.safePrintf(output, "Memetic algorithm: %d generations; population costs: %s\n\n", nGenerations, Arrays.toString(costs));
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic.
+     */
+    public String toString() {
+        return String.format("%s (threads=%d, population=%d, minDistance=%d, offspring=%d, lsIters=%s, lsTime=%.2fs) of %s",
+          name, workers.length, population.capacity, population.minDistance, offspring.length,
+          Util.longToString(localSearchIters), localSearchMillis / 1000.0, workers[0]);
+    }
+
+
+    /**
+     * Improves the offspring concurrently (offspring i is improved by worker
+     * i mod nWorkers, so that the results do not depend on the timing of the
+     * threads) and offers them to the population.
+     */
+    private void improveOffspring(ExecutorService executor, long finalTimeMillis) {
+        List<Callable<List<Solution>>> tasks = new ArrayList<>();
+        for (int w = 0; w < workers.length; w++) {
+            final int worker = w;
+            tasks.add(() -> {
+                List<Solution> results = new ArrayList<>();
+                for (int i = worker; i < offspring.length; i += workers.length) {
+                    long timeLimitMillis = Math.min(localSearchMillis, finalTimeMillis - System.currentTimeMillis());
+                    results.add(workers[worker].run(offspring[i], timeLimitMillis, localSearchIters, null));
+                }
+                return results;
+            });
+        }
+
+        for (List<Solution> results : execute(executor, tasks))
+            for (Solution result : results)
+                population.add(result);
+    }
+
+    /**
+     * Selects a solution of the population with a binary tournament.
+     */
+    private Solution select() {
+        Solution a = population.get(random.nextInt(population.size()));
+        Solution b = population.get(random.nextInt(population.size()));
+        return a.getCost() <= b.getCost() ? a : b;
+    }
+
+    /**
+     * Creates the child of two parents with the job-based order crossover
+     * (per machine).
+     */
+    private void crossover(Solution parent1, Solution parent2, Solution child) {
+        for (int j = 0; j < problem.nJobs; j++)
+            inherited[j] = random.nextBoolean();
+
+        for (int m = 0; m < problem.nMachines; m++) {
+            Machine machine1 = parent1.machines[m], machine2 = parent2.machines[m];
+
+            // jobs of the second parent (in its order) that fill the remaining positions
+            int next = 0;
+            while (next < machine2.getNJobs() && inherited[machine2.jobs[next]]) next++;
+
+            int length = 0;
+            for (int k = 0; k < machine1.getNJobs(); k++) {
+                if (inherited[machine1.jobs[k]]) {
+                    sequence[length++] = machine1.jobs[k];
+                }
+                else if (next < machine2.getNJobs()) {
+                    sequence[length++] = machine2.jobs[next++];
+                    while (next < machine2.getNJobs() && inherited[machine2.jobs[next]]) next++;
+                }
+            }
+            for (; next < machine2.getNJobs(); next++)
+                if (!inherited[machine2.jobs[next]])
+                    sequence[length++] = machine2.jobs[next];
+
+            child.machines[m].setSequence(sequence, length);
+        }
+        child.updateCost();
+    }
+}
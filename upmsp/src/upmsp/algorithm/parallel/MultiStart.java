@@ -0,0 +1,189 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.algorithm.constructive.*;
+import upmsp.algorithm.heuristic.*;
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class runs independent copies of a heuristic in parallel (multi-start
+ * portfolio). Each copy has its own random number generator (with a seed
+ * drawn from the main generator), moves and solutions, and publishes its
+ * improvements to a shared incumbent. The first copy starts from the given
+ * initial solution and the others from random solutions.
+ * <p>
+ * The moves of this heuristic are those of the first copy; after the
+ * execution, the counters of the moves of all copies are merged into them.
+ *
+ * @author Tulio Toffolo
+ */
+public class MultiStart extends Heuristic {
+
+    protected final Heuristic workers[];
+    protected SharedIncumbent sharedIncumbent;
+
+    /**
+     * Instantiates a new MultiStart.
+     *
+     * @param problem  problem reference.
+     * @param random   random number generator (used to seed the copies).
+     * @param nThreads number of copies (threads).
+     * @param factory  factory of the heuristic to run.
+     */
+    public MultiStart(Problem problem, Random random, int nThreads, HeuristicFactory factory) {
+        this(problem, random, "Multi-start", nCopies(nThreads, factory));
+    }
+
+    /**
+     * Instantiates a new parallel heuristic with one heuristic (worker) per
+     * factory. All factories must create heuristics with the same moves (in
+     * the same order), so that their statistics can be merged.
+     *
+     * @param problem   problem reference.
+     * @param random    random number generator (used to seed the workers).
+     * @param name      name of the parallel heuristic.
+     * @param factories factories of the heuristics to run (one per thread).
+     */
+    protected MultiStart(Problem problem, Random random, String name, HeuristicFactory factories[]) {
+        super(problem, random, name);
+
+        workers = new Heuristic[factories.length];
+        for (int i = 0; i < factories.length; i++)
+            workers[i] = factories[i].create(problem, new Random(random.nextLong()));
+        moves.addAll(workers[0].getMoves());
+    }
+
+    /**
+     * Executes the copies of the heuristic in parallel.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations without improvements to execute.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the copies.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        sharedIncumbent = new SharedIncumbent(output);
+        sharedIncumbent.offer(initialSolution, 0);
+
+        List<Callable<Solution>> tasks = new ArrayList<>();
+        for (int i = 0; i < workers.length; i++) {
+            Heuristic worker = workers[i];
+            Solution solution = createInitialSolution(i, initialSolution);
+            worker.setIncumbent(sharedIncumbent);
+            tasks.add(() -> worker.run(solution, timeLimitMillis, maxIters, null));
+        }
+
+        ExecutorService executor = newExecutor(workers.length);
+        try {
+            // the returned solutions are offered as well, since workers may not publish all their improvements
+            List<Solution> results = execute(executor, tasks);
+            for (int i = 0; i < results.size(); i++)
+                sharedIncumbent.offer(results.get(i), workers[i].getNIters());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        mergeStatistics();
+
+        return bestSolution = sharedIncumbent.get().clone();
+    }
+
+    /**
+     * Gets the total number of iterations performed by all copies.
+     *
+     * @return the total number of iterations performed.
+     */
+    public long getNIters() {
+        long total = nIters;
+        for (Heuristic worker : workers)
+            total += worker.getNIters();
+        return total;
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic.
+     */
+    public String toString() {
+        return String.format("%s (threads=%d) of %s", name, workers.length, workers[0]);
+    }
+
+
+    /**
+     * Returns an array with {@param n} references to the same factory.
+     */
+    protected static HeuristicFactory[] nCopies(int n, HeuristicFactory factory) {
+        HeuristicFactory factories[] = new HeuristicFactory[n];
+        Arrays.fill(factories, factory);
+        return factories;
+    }
+
+    /**
+     * Returns the initial solution of the i-th worker: a copy of the given
+     * initial solution for the first worker and a random solution for the
+     * others.
+     */
+    protected Solution createInitialSolution(int i, Solution initialSolution) {
+        return i == 0 ? initialSolution.clone() : SimpleConstructive.randomSolution(problem, workers[i].random);
+    }
+
+    /**
+     * Creates a pool with {@param nThreads} threads (named t0, t1, ...). All
+     * parallel work of the solver is executed by such pools; a single pool
+     * should be created per execution and reused by all its rounds, and it
+     * must be shut down by the caller.
+     *
+     * @param nThreads number of threads.
+     * @return the pool created.
+     */
+    public static ExecutorService newExecutor(int nThreads) {
+        return Executors.newFixedThreadPool(nThreads, new ThreadFactory() {
+            private int count = 0;
+
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "t" + count++);
+            }
+        });
+    }
+
+    /**
+     * Executes the tasks in the pool and waits for them. The pool must have
+     * at least as many threads as tasks if the tasks wait for each other.
+     * Exceptions thrown by the tasks are rethrown.
+     *
+     * @param executor the pool of threads.
+     * @param tasks    the tasks.
+     * @return the results of the tasks.
+     */
+    public static <T> List<T> execute(ExecutorService executor, List<Callable<T>> tasks) {
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : executor.invokeAll(tasks))
+                results.add(future.get());
+            return results;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Merges the counters of the moves of all copies into the moves of the
+     * first one (the moves of this heuristic).
+     */
+    protected void mergeStatistics() {
+        for (int i = 1; i < workers.length; i++)
+            mergeStatistics(workers[i]);
+    }
+}
@@ -0,0 +1,149 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.algorithm.heuristic.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class is a parallel Iterated Local Search implementation. In each
+ * round, K children are perturbed from the best solution and descended
+ * concurrently, each one by its own ILS (with its own moves and random number
+ * generator), and the best child is compared to the best solution. The
+ * perturbation level is updated considering the outcomes of all K children:
+ * an improvement resets the level to p0, while each non-improving child counts
+ * as one iteration at the current level.
+ * <p>
+ * Each child is always executed by the same ILS, so that the results do not
+ * depend on the timing of the threads (except for the time limit).
+ *
+ * @author Tulio Toffolo
+ */
+public class ParallelILS extends MultiStart {
+
+    private final int itersP, p0, pMax;
+
+    private final ILS children[];
+    private final Solution childSolutions[];
+
+    /**
+     * Instantiates a new ParallelILS.
+     *
+     * @param problem   problem reference.
+     * @param random    random number generator (used to seed the children).
+     * @param nChildren number of children (threads) per round.
+     * @param itersP    number of iterations per perturbation level (before
+     *                  changing the level).
+     * @param p0        initial perturbation level.
+     * @param pMax      maximum perturbation level (note that the value given by
+     *                  pMax will be multiplied by p0).
+     * @param factory   factory of the children, which must create {@link ILS}
+     *                  instances.
+     */
+    public ParallelILS(Problem problem, Random random, int nChildren, int itersP, int p0, int pMax, HeuristicFactory factory) {
+        super(problem, random, "Parallel ILS", nCopies(Math.max(1, nChildren), factory));
+        this.itersP = itersP;
+        this.p0 = p0;
+        this.pMax = pMax * p0;
+
+        children = new ILS[workers.length];
+        childSolutions = new Solution[workers.length];
+        for (int k = 0; k < workers.length; k++) {
+            if (!(workers[k] instanceof ILS))
+                throw new IllegalArgumentException("Parallel ILS requires ILS heuristics.");
+            children[k] = ( ILS ) workers[k];
+            childSolutions[k] = new Solution(problem);
+        }
+    }
+
+    /**
+     * Executes the parallel Iterated Local Search.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of rounds without improvements to execute.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the children.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        sharedIncumbent = new SharedIncumbent(output);
+        sharedIncumbent.offer(initialSolution, 0);
+        for (ILS child : children)
+            child.setIncumbent(sharedIncumbent);
+
+        bestSolution = children[0].descend(initialSolution.clone(), finalTimeMillis, null);
+        sharedIncumbent.offer(bestSolution, getNIters());
+
+        final int level[] = { p0 };
+        List<Callable<Solution>> tasks = new ArrayList<>();
+        for (int k = 0; k < children.length; k++) {
+            final int child = k;
+            tasks.add(() -> children[child].perturbAndDescend(childSolutions[child], level[0], finalTimeMillis, null));
+        }
+
+        int nItersInPerturb = 0;
+        long nItersWithoutImprovement = 0;
+
+        ExecutorService executor = newExecutor(children.length);
+        try {
+            while (System.currentTimeMillis() < finalTimeMillis) {
+                if (nItersWithoutImprovement++ >= maxIters) {
+                    nItersWithoutImprovement = 0;
+                    Util.safePrintText(output, "ILS reached maxIters", "");
+                }
+
+                for (Solution childSolution : childSolutions)
+                    childSolution.copyFrom(bestSolution);
+
+                // selecting the best child (the first one among ties)
+                Solution bestChild = null;
+                for (Solution result : execute(executor, tasks))
+                    if (bestChild == null || result.getCost() < bestChild.getCost())
+                        bestChild = result;
+
+                Util.safePrintStatus(output, getNIters(), bestSolution, bestChild, "p-" + level[0]);
+
+                // if solution is improved...
+                if (bestChild.getCost() < bestSolution.getCost()) {
+                    bestSolution = bestChild.clone();
+                    nItersInPerturb = 0;
+                    nItersWithoutImprovement = 0;
+                    level[0] = p0;
+                }
+
+                // if solution is not improved, all children count as iterations in the perturbation level
+                else {
+                    nItersInPerturb += children.length;
+                }
+
+                if (nItersInPerturb >= itersP) {
+                    nItersInPerturb = 0;
+                    level[0] = level[0] + p0 <= pMax ? level[0] + p0 : p0;
+                    nIters++;
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        mergeStatistics();
+        return bestSolution = sharedIncumbent.get().clone();
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic.
+     */
+    public String toString() {
+        return String.format("%s (children=%d, itersP=%s, p0=%d, pMax=%d) of %s", name, children.length,
+          Util.longToString(itersP), p0, pMax, children[0]);
+    }
+}
@@ -0,0 +1,272 @@
+package upmsp.algorithm.parallel;
+
+import org.apache.commons.math3.util.*;
+import upmsp.algorithm.heuristic.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class is a Parallel Tempering (replica-exchange Simulated Annealing)
+ * implementation. Each replica runs at a fixed temperature in its own thread;
+ * after every round of exchangeIters iterations, the replicas are
+ * synchronized and swaps between replicas at neighboring temperatures are
+ * attempted with the Metropolis criterion, min(1, exp((1/T_i - 1/T_j)(E_i -
+ * E_j))). Replicas exchange temperatures rather than solutions, so that no
+ * solution is copied by the exchanges.
+ * <p>
+ * The coldest temperature is calibrated from the worsening cost variations of
+ * random neighbors of the best solution found so far, so that the delta at the
+ * {@link #COLD_PERCENTILE} percentile (by default, the smallest delta, as the
+ * coldest replica should seldom accept any worsening move) is accepted with
+ * probability {@link #COLD_ACCEPTANCE}. The ladder starts geometric, up to a
+ * temperature in which the delta at the {@link #HOT_PERCENTILE} percentile is
+ * accepted with probability {@link #HOT_ACCEPTANCE}, and the gaps between
+ * neighboring temperatures are then adapted from the observed swap rates:
+ * every {@link #CALIBRATION_ROUNDS} exchange rounds, the (logarithmic) gap of
+ * each pair whose swap rate is below {@link #MIN_SWAP_RATE} is shrunk and the
+ * gap of each pair whose rate is above {@link #MAX_SWAP_RATE} is widened, and
+ * the coldest temperature is recalibrated (with fewer samples), since the
+ * deltas change as the search reaches better solutions. The neighbors are
+ * sampled by a separate replica, which does not run, so that the samples are
+ * not counted in the statistics of the moves.
+ *
+ * @author Tulio Toffolo
+ */
+public class ParallelTempering extends MultiStart {
+
+    public final static double COLD_ACCEPTANCE = 0.1;
+    public final static double HOT_ACCEPTANCE = 0.5;
+    public final static double COLD_PERCENTILE = 0.0;
+    public final static double HOT_PERCENTILE = 0.05;
+    public final static double MIN_SWAP_RATE = 0.2;
+    public final static double MAX_SWAP_RATE = 0.4;
+    public final static double GAP_FACTOR = 0.5;
+    public final static int ADAPTATION_ATTEMPTS = 5;
+    public final static int CALIBRATION_SAMPLES = 10000;
+    public final static int RECALIBRATION_SAMPLES = 1000;
+    public final static int CALIBRATION_ROUNDS = 10;
+
+    private final ReplicaSA replicas[];
+    private final ReplicaSA sampler;
+    private final long exchangeIters;
+
+    private final double temperatures[], logGaps[];
+    private final int ladder[];
+    private final long nAttempts[], nSwaps[], nWindowAttempts[], nWindowSwaps[];
+    private double coldest;
+
+    private volatile boolean finished;
+    private int nRounds;
+
+    /**
+     * Instantiates a new ParallelTempering.
+     *
+     * @param problem       problem reference.
+     * @param random        random number generator (used to seed the replicas
+     *                      and in the exchanges).
+     * @param nReplicas     number of replicas (threads).
+     * @param exchangeIters number of iterations of each replica between
+     *                      exchange attempts.
+     * @param factory       factory of the replicas, which must create {@link
+     *                      ReplicaSA} instances.
+     */
+    public ParallelTempering(Problem problem, Random random, int nReplicas, long exchangeIters, HeuristicFactory factory) {
+        super(problem, random, "Parallel Tempering", nCopies(Math.max(2, nReplicas), factory));
+        this.exchangeIters = exchangeIters;
+
+        replicas = new ReplicaSA[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            if (!(workers[i] instanceof ReplicaSA))
+                throw new IllegalArgumentException("Parallel Tempering requires ReplicaSA heuristics.");
+            replicas[i] = ( ReplicaSA ) workers[i];
+        }
+        sampler = ( ReplicaSA ) factory.create(problem, new Random(random.nextLong()));
+
+        temperatures = new double[replicas.length];
+        logGaps = new double[replicas.length - 1];
+        ladder = new int[replicas.length];
+        nAttempts = new long[replicas.length - 1];
+        nSwaps = new long[replicas.length - 1];
+        nWindowAttempts = new long[replicas.length - 1];
+        nWindowSwaps = new long[replicas.length - 1];
+    }
+
+    /**
+     * Executes the replicas in parallel.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations per round (at
+     *                        most exchangeIters are executed).
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the replicas.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        sharedIncumbent = new SharedIncumbent(output);
+        sharedIncumbent.offer(initialSolution, 0);
+
+        // all replicas start from the initial solution
+        for (int i = 0; i < replicas.length; i++) {
+            ladder[i] = i;
+            replicas[i].setIncumbent(sharedIncumbent);
+            replicas[i].start(initialSolution);
+        }
+        calibrate(initialSolution);
+
+        finished = false;
+        nRounds = 0;
+        CyclicBarrier barrier = new CyclicBarrier(replicas.length, () -> {
+            exchange(nRounds++ % 2);
+            if (nRounds % CALIBRATION_ROUNDS == 0)
+                recalibrate(sharedIncumbent.get());
+            finished = System.currentTimeMillis() >= finalTimeMillis;
+        });
+
+        long nSteps = Math.min(exchangeIters, maxIters);
+        List<Callable<Solution>> tasks = new ArrayList<>();
+        for (ReplicaSA replica : replicas) {
+            tasks.add(() -> {
+                try {
+                    while (!finished) {
+                        replica.step(nSteps, finalTimeMillis, null);
+                        barrier.await();
+                    }
+                }
+                catch (Exception e) {
+                    // releasing the other replicas
+                    barrier.reset();
+                    throw e;
+                }
+                return replica.getBestSolution();
+            });
+        }
+
+        ExecutorService executor = newExecutor(workers.length);
+        try {
+            execute(executor, tasks);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        mergeStatistics();
+
+        return bestSolution = sharedIncumbent.get().clone();
+    }
+
+    /**
+     * Prints the temperature ladder, the acceptance rate of the exchanges
+     * between each pair of neighboring temperatures and the cost of the
+     * current solution at each temperature.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) {
+        Util.safePrintf(output, "Parallel tempering ladder (%d exchange rounds):\n\n", nRounds);
+        for (int k = 0; k < temperatures.length; k++) {
+            Util.safePrintf(output, "    T%-3d %10.2f   cost=%-8d", k, temperatures[k], replicas[ladder[k]].getSolution().getCost());
+            if (k < nAttempts.length)
+                Util.safePrintf(output, " swaps with T%d: %6.2f%%", k + 1, nAttempts[k] > 0 ? 100.0 * nSwaps[k] / nAttempts[k] : 0.0);
+            Util.safePrintf(output, "\n");
+        }
+        Util.safePrintf(output, "\n");
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic.
+     */
+    public String toString() {
+        return String.format("%s (replicas=%d, exchangeIters=%s)", name, replicas.length, Util.longToString(exchangeIters));
+    }
+
+
+    /**
+     * Computes the initial (geometric) temperature ladder from the positive
+     * cost variations of random neighbors of the solution (which is not
+     * modified) and updates the temperatures of the replicas.
+     */
+    private void calibrate(Solution solution) {
+        int deltas[] = sampler.sampleDeltas(solution.clone(), CALIBRATION_SAMPLES);
+        coldest = getTemperature(deltas, COLD_PERCENTILE, COLD_ACCEPTANCE);
+
+        // the hottest temperature is at least twice the coldest one, so that the gaps can be adapted
+        double hottest = Math.max(getTemperature(deltas, HOT_PERCENTILE, HOT_ACCEPTANCE), 2 * coldest);
+        Arrays.fill(logGaps, FastMath.log(hottest / coldest) / logGaps.length);
+        updateTemperatures();
+    }
+
+    /**
+     * Recalibrates the coldest temperature from random neighbors of the
+     * solution (which is not modified) and adapts the gaps of the ladder to
+     * the swap rates observed since the last adaptation of each pair.
+     */
+    private void recalibrate(Solution solution) {
+        int deltas[] = sampler.sampleDeltas(solution.clone(), RECALIBRATION_SAMPLES);
+        coldest = getTemperature(deltas, COLD_PERCENTILE, COLD_ACCEPTANCE);
+
+        for (int k = 0; k < logGaps.length; k++) {
+            if (nWindowAttempts[k] < ADAPTATION_ATTEMPTS) continue;
+
+            double rate = nWindowSwaps[k] / ( double ) nWindowAttempts[k];
+            if (rate < MIN_SWAP_RATE) logGaps[k] *= GAP_FACTOR;
+            else if (rate > MAX_SWAP_RATE) logGaps[k] /= GAP_FACTOR;
+            nWindowAttempts[k] = nWindowSwaps[k] = 0;
+        }
+        updateTemperatures();
+    }
+
+    /**
+     * Returns the temperature in which the delta at the given percentile of
+     * the (sorted) deltas is accepted with the given probability.
+     */
+    private double getTemperature(int deltas[], double percentile, double acceptance) {
+        if (deltas.length == 0) return 1.0;
+        return -deltas[( int ) (percentile * (deltas.length - 1))] / FastMath.log(acceptance);
+    }
+
+    /**
+     * Updates the temperatures of the ladder (from the coldest temperature and
+     * the gaps) and of the replicas.
+     */
+    private void updateTemperatures() {
+        temperatures[0] = coldest;
+        for (int k = 1; k < temperatures.length; k++)
+            temperatures[k] = temperatures[k - 1] * FastMath.exp(logGaps[k - 1]);
+        for (int k = 0; k < ladder.length; k++)
+            replicas[ladder[k]].setTemperature(temperatures[k]);
+    }
+
+    /**
+     * Attempts to exchange the temperatures of the replicas at neighboring
+     * temperatures (k, k+1), for every k with the given parity. It is called
+     * by the barrier, when all replicas are stopped.
+     */
+    private void exchange(int parity) {
+        for (int k = parity; k + 1 < ladder.length; k += 2) {
+            ReplicaSA cold = replicas[ladder[k]], hot = replicas[ladder[k + 1]];
+            double exponent = (1 / temperatures[k] - 1 / temperatures[k + 1])
+              * (cold.getSolution().getCost() - hot.getSolution().getCost());
+
+            nAttempts[k]++;
+            nWindowAttempts[k]++;
+            if (exponent >= 0 || random.nextDouble() < FastMath.exp(exponent)) {
+                nSwaps[k]++;
+                nWindowSwaps[k]++;
+
+                int replica = ladder[k];
+                ladder[k] = ladder[k + 1];
+                ladder[k + 1] = replica;
+                replicas[ladder[k]].setTemperature(temperatures[k]);
+                replicas[ladder[k + 1]].setTemperature(temperatures[k + 1]);
+            }
+        }
+    }
+}
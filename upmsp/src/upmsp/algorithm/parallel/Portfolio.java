@@ -0,0 +1,228 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.algorithm.heuristic.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class runs a portfolio of heuristics (arms) which compete for CPU time.
+ * The time is divided into rounds of time slices: in each round, nThreads
+ * slots are executed in parallel, each one running an arm for a time slice
+ * starting from (a copy of) the shared best solution. The arm of each slot is
+ * selected by a discounted UCB1 bandit whose reward is the relative
+ * improvement of the solution per second; the rewards are normalized by the
+ * largest mean reward, and discounting makes the bandit follow the arms that
+ * are currently improving fastest. Arms never executed are selected first, so
+ * that all heuristics run in the first rounds.
+ * <p>
+ * The same arm may be selected for several slots of a round, so that the CPU
+ * time moves towards the best arms: each slot has its own instance of every
+ * heuristic, and each slot selected counts as a play when the arms of the
+ * remaining slots of the round are selected (which reduces the exploration
+ * bonus of an arm as it receives more slots). An instance whose best
+ * solution is still the shared best one resumes its search in its next slice
+ * (see {@link Heuristic#resume(Solution, long, long, PrintStream)}), so that
+ * e.g. SA keeps its temperature and LAHC its list; otherwise, it restarts
+ * from the shared best solution.
+ * <p>
+ * All heuristics publish their improvements to a shared incumbent. The time
+ * share received by each heuristic is reported by {@link
+ * #printStatistics(PrintStream)}.
+ *
+ * @author Tulio Toffolo
+ */
+public class Portfolio extends MultiStart {
+
+    public final static double DISCOUNT = 0.95;
+    public final static double EXPLORATION = 1.0;
+
+    private final long sliceMillis;
+    private final int nArms, nSlots;
+
+    private final double sumRewards[], nPlays[];
+    private final long nSlices[], millis[];
+    private final int nImprovements[];
+    private final int lastCosts[];
+
+    /**
+     * Instantiates a new Portfolio.
+     *
+     * @param problem     problem reference.
+     * @param random      random number generator (used to seed the
+     *                    heuristics).
+     * @param nThreads    number of heuristics executed in parallel in each
+     *                    round (slots).
+     * @param sliceMillis duration of each time slice (in milliseconds).
+     * @param factories   factories of the heuristics of the portfolio (one per
+     *                    arm).
+     */
+    public Portfolio(Problem problem, Random random, int nThreads, long sliceMillis, HeuristicFactory factories[]) {
+        super(problem, random, "Portfolio", perSlot(Math.max(1, nThreads), factories));
+        this.sliceMillis = sliceMillis;
+        this.nArms = factories.length;
+        this.nSlots = Math.max(1, nThreads);
+
+        sumRewards = new double[nArms];
+        nPlays = new double[nArms];
+        nSlices = new long[nArms];
+        millis = new long[nArms];
+        nImprovements = new int[nArms];
+        lastCosts = new int[workers.length];
+    }
+
+    /**
+     * Executes the portfolio.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of iterations without improvements of each execution of a heuristic.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the heuristics.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        sharedIncumbent = new SharedIncumbent(output);
+        sharedIncumbent.offer(initialSolution, 0);
+        for (Heuristic worker : workers)
+            worker.setIncumbent(sharedIncumbent);
+        Arrays.fill(lastCosts, Integer.MAX_VALUE);
+
+        ExecutorService executor = newExecutor(nSlots);
+        try {
+            while (System.currentTimeMillis() < finalTimeMillis) {
+                int arms[] = selectArms();
+
+                List<Callable<double[]>> tasks = new ArrayList<>();
+                for (int k = 0; k < nSlots; k++) {
+                    int index = k * nArms + arms[k];
+                    Heuristic worker = workers[index];
+                    tasks.add(() -> {
+                        Solution solution = sharedIncumbent.get().clone();
+                        long startMillis = System.currentTimeMillis();
+                        long slice = Math.min(sliceMillis, finalTimeMillis - startMillis);
+
+                        // the instance continues its search unless another one improved the shared best solution
+                        Solution result = lastCosts[index] <= solution.getCost()
+                          ? worker.resume(solution, slice, maxIters, null)
+                          : worker.run(solution, slice, maxIters, null);
+                        lastCosts[index] = result.getCost();
+                        return new double[]{ solution.getCost(), result.getCost(), System.currentTimeMillis() - startMillis };
+                    });
+                }
+                List<double[]> outcomes = execute(executor, tasks);
+
+                // updating the (discounted) statistics of the arms
+                for (int i = 0; i < nArms; i++) {
+                    sumRewards[i] *= DISCOUNT;
+                    nPlays[i] *= DISCOUNT;
+                }
+                for (int k = 0; k < arms.length; k++) {
+                    int arm = arms[k];
+                    double startCost = outcomes.get(k)[0], finalCost = outcomes.get(k)[1], elapsed = outcomes.get(k)[2];
+
+                    sumRewards[arm] += (startCost - finalCost) / startCost / Math.max(elapsed, 1) * 1000.0;
+                    nPlays[arm] += 1;
+                    nSlices[arm]++;
+                    millis[arm] += ( long ) elapsed;
+                    if (finalCost < startCost) nImprovements[arm]++;
+                }
+                nIters++;
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        mergeStatistics();
+        return bestSolution = sharedIncumbent.get().clone();
+    }
+
+    /**
+     * Prints the time share and the number of slices (and of improving
+     * slices) of each heuristic.
+     *
+     * @param output output PrintStream.
+     */
+    public void printStatistics(PrintStream output) {
+        long totalMillis = 0;
+        for (long m : millis) totalMillis += m;
+
+        Util.safePrintf(output, "Portfolio time shares (%d rounds of %.2fs slices):\n\n", nIters, sliceMillis / 1000.0);
+        for (int i = 0; i < nArms; i++) {
+            Util.safePrintf(output, "    %-24s share=%5.1f%%  time=%7.2fs  slices=%-5d improving=%d\n", workers[i].name,
+              totalMillis > 0 ? 100.0 * millis[i] / totalMillis : 0.0, millis[i] / 1000.0, nSlices[i], nImprovements[i]);
+        }
+        Util.safePrintf(output, "\n");
+    }
+
+    /**
+     * Returns the string representation of the heuristic.
+     *
+     * @return the string representation of the heuristic.
+     */
+    public String toString() {
+        StringBuilder arms = new StringBuilder();
+        for (int i = 0; i < nArms; i++)
+            arms.append(arms.length() > 0 ? ", " : "").append(workers[i]);
+        return String.format("%s (threads=%d, slice=%.2fs) of [%s]", name, nSlots, sliceMillis / 1000.0, arms);
+    }
+
+
+    /**
+     * Returns the factories of the workers: one instance of every heuristic
+     * per slot (the instance of arm a in slot k is the worker k * nArms + a).
+     */
+    private static HeuristicFactory[] perSlot(int nSlots, HeuristicFactory factories[]) {
+        HeuristicFactory perSlot[] = new HeuristicFactory[nSlots * factories.length];
+        for (int k = 0; k < nSlots; k++)
+            System.arraycopy(factories, 0, perSlot, k * factories.length, factories.length);
+        return perSlot;
+    }
+
+    /**
+     * Selects the arm of each slot of the next round: the arm with the largest
+     * UCB score (arms never executed have infinite scores), counting the slots
+     * already selected in the round as plays.
+     */
+    private int[] selectArms() {
+        double totalPlays = 0, maxMean = 0;
+        for (int i = 0; i < nArms; i++) {
+            totalPlays += nPlays[i];
+            if (nPlays[i] > 0) maxMean = Math.max(maxMean, sumRewards[i] / nPlays[i]);
+        }
+
+        int arms[] = new int[nSlots];
+        int nSelected[] = new int[nArms];
+        for (int k = 0; k < nSlots; k++) {
+            int best = -1, nTies = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < nArms; i++) {
+                double score = Double.POSITIVE_INFINITY;
+                if (nSlices[i] > 0 || nSelected[i] > 0) {
+                    double plays = nPlays[i] + nSelected[i];
+                    double mean = maxMean > 0 && nPlays[i] > 0 ? sumRewards[i] / nPlays[i] / maxMean : 0;
+                    score = mean + EXPLORATION * Math.sqrt(2 * Math.log(Math.max(totalPlays + k, 1)) / plays);
+                }
+
+                // ties are broken randomly
+                if (score > bestScore) {
+                    best = i;
+                    bestScore = score;
+                    nTies = 1;
+                }
+                else if (score == bestScore && random.nextInt(++nTies) == 0) {
+                    best = i;
+                }
+            }
+            arms[k] = best;
+            nSelected[best]++;
+        }
+        return arms;
+    }
+}
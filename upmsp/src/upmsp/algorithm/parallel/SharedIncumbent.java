@@ -0,0 +1,76 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * This class stores the best solution found by concurrent heuristics. The
+ * solution is replaced lock-free (by compare-and-set) whenever a heuristic
+ * publishes a solution with a smaller cost. Published solutions are copies, so
+ * that they are never modified afterwards.
+ *
+ * @author Tulio Toffolo
+ */
+public class SharedIncumbent {
+
+    private final AtomicReference<Solution> best = new AtomicReference<>();
+    private final PrintStream output;
+
+    /**
+     * Instantiates a new SharedIncumbent.
+     *
+     * @param output output PrintStream for logging improvements (or null).
+     */
+    public SharedIncumbent(PrintStream output) {
+        this.output = output;
+    }
+
+    /**
+     * Offers a solution to the incumbent. The solution is copied (only if it
+     * improves the incumbent).
+     *
+     * @param solution the solution.
+     * @param nIters   the number of iterations of the heuristic publishing the
+     *                 solution (for logging purposes).
+     * @return true if the solution replaced the incumbent and false otherwise.
+     */
+    public boolean offer(Solution solution, long nIters) {
+        Solution current = best.get();
+        if (current != null && current.getCost() <= solution.getCost())
+            return false;
+
+        Solution copy = solution.clone();
+        while (current == null || copy.getCost() < current.getCost()) {
+            if (best.compareAndSet(current, copy)) {
+                Util.safePrintStatus(output, nIters, copy, copy, "* " + Thread.currentThread().getName());
+                return true;
+            }
+            current = best.get();
+        }
+        return false;
+    }
+
+    /**
+     * Gets the incumbent solution, which must not be modified (it should be
+     * cloned instead).
+     *
+     * @return the incumbent solution or null if no solution was published.
+     */
+    public Solution get() {
+        return best.get();
+    }
+
+    /**
+     * Gets the cost of the incumbent solution.
+     *
+     * @return the cost of the incumbent solution or Integer.MAX_VALUE if no
+     * solution was published.
+     */
+    public int getCost() {
+        Solution solution = best.get();
+        return solution == null ? Integer.MAX_VALUE : solution.getCost();
+    }
+}
@@ -0,0 +1,249 @@
+package upmsp.algorithm.parallel;
+
+import upmsp.algorithm.acceptance.*;
+import upmsp.algorithm.heuristic.*;
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class is a local search with speculative parallel evaluation of moves:
+ * at each step, a batch of candidate moves is sampled and the candidates are
+ * evaluated concurrently by worker threads. Then, either the first acceptable
+ * candidate (in sampling order) or the best acceptable one is applied, as
+ * decided by an acceptance criterion (e.g. of SA or LAHC).
+ * <p>
+ * The current solution is never shared: each worker has its own moves and its
+ * own copy of the current solution, in which candidates are evaluated (and
+ * rejected). Each candidate is identified by the seed used to sample it, so
+ * that the applied candidate is replayed (with the same seed) in every copy,
+ * keeping them identical without copying solutions. Since the seeds are
+ * drawn by this heuristic, the search does not depend on the number of
+ * threads or on their timing. If a replay yields a different cost variation
+ * in some copy, all copies are synchronized with the copy of the thread that
+ * evaluated the candidate. The scan neighborhoods ({@link ScanMove}) are not
+ * sampled: their cursor and don't-look bits depend on the candidates
+ * evaluated by each thread, so that their neighbors cannot be replayed.
+ * <p>
+ * The moves of this heuristic are those of the first worker; after the
+ * execution, the counters of the moves of all workers are merged into them.
+ * Only the worker that evaluated the applied candidate replays it with its
+ * own moves; the other workers replay it with a separate copy of the moves,
+ * whose counters are discarded, so that each applied candidate is counted
+ * once.
+ *
+ * @author Tulio Toffolo
+ */
+public class SpeculativeSearch extends Heuristic {
+
+    private final Heuristic workers[], replayers[];
+    private final Solution solutions[];
+    private final int batchSize;
+    private final boolean firstAcceptable;
+    private final AcceptanceCriterion criterion;
+
+    private final long seeds[];
+    private final int deltas[];
+
+    private final List<Callable<Boolean>> evaluators = new ArrayList<>();
+    private final List<Callable<Boolean>> appliers = new ArrayList<>();
+    private final List<Integer> replayable = new ArrayList<>();
+    private int selected;
+
+    /**
+     * Instantiates a new SpeculativeSearch.
+     *
+     * @param problem         problem reference.
+     * @param random          random number generator.
+     * @param nThreads        number of worker threads.
+     * @param batchSize       number of candidate moves evaluated per step.
+     * @param firstAcceptable true if the first acceptable candidate (in sampling
+     *                        order) should be applied or false if the best
+     *                        acceptable one should be applied.
+     * @param criterion       acceptance criterion.
+     * @param factory         factory of the heuristics providing the moves of
+     *                        the workers (only their moves are used).
+     */
+    public SpeculativeSearch(Problem problem, Random random, int nThreads, int batchSize, boolean firstAcceptable,
+                             AcceptanceCriterion criterion, HeuristicFactory factory) {
+        super(problem, random, "Speculative Search");
+        this.batchSize = batchSize;
+        this.firstAcceptable = firstAcceptable;
+        this.criterion = criterion;
+
+        seeds = new long[batchSize];
+        deltas = new int[batchSize];
+
+        workers = new Heuristic[Math.max(1, Math.min(nThreads, batchSize))];
+        replayers = new Heuristic[workers.length];
+        solutions = new Solution[workers.length];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = factory.create(problem, new Random(random.nextLong()));
+            replayers[t] = factory.create(problem, new Random(random.nextLong()));
+            solutions[t] = new Solution(problem);
+
+            final int thread = t;
+            evaluators.add(() -> evaluate(thread));
+            appliers.add(() -> apply(thread));
+        }
+        moves.addAll(workers[0].getMoves());
+
+        for (int k = 0; k < moves.size(); k++)
+            if (!(moves.get(k) instanceof ScanMove))
+                replayable.add(k);
+        if (replayable.isEmpty())
+            throw new IllegalArgumentException("Speculative Search requires neighborhoods other than the scan ones.");
+    }
+
+    /**
+     * Executes the speculative search.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitMillis the time limit (in milliseconds).
+     * @param maxIters        the maximum number of steps without improvement.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the search.
+     */
+    public Solution run(Solution initialSolution, long timeLimitMillis, long maxIters, PrintStream output) {
+        long finalTimeMillis = System.currentTimeMillis() + timeLimitMillis;
+
+        bestSolution = initialSolution;
+        for (Solution solution : solutions)
+            solution.copyFrom(initialSolution);
+        Solution current = solutions[0];
+
+        criterion.reset(initialSolution.getCost());
+        long nItersWithoutImprovement = 0;
+
+        ExecutorService executor = MultiStart.newExecutor(workers.length);
+        try {
+            while (nItersWithoutImprovement < maxIters && System.currentTimeMillis() < finalTimeMillis) {
+                for (int b = 0; b < batchSize; b++)
+                    seeds[b] = random.nextLong();
+                MultiStart.execute(executor, evaluators);
+                nIters += batchSize;
+
+                selected = select(current.getCost());
+                if (selected >= 0) {
+                    if (MultiStart.execute(executor, appliers).contains(false))
+                        synchronize(selected % workers.length);
+                    nItersWithoutImprovement = deltas[selected] < 0 ? 0 : nItersWithoutImprovement + 1;
+
+                    if (current.getCost() < bestSolution.getCost()) {
+                        bestSolution = current.clone();
+                        publish(bestSolution);
+                        Util.safePrintStatus(output, nIters, bestSolution, current, "*");
+                    }
+                }
+                else {
+                    nItersWithoutImprovement++;
+                }
+
+                criterion.update(current.getCost());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        for (int t = 1; t < workers.length; t++)
+            mergeStatistics(workers[t]);
+
+        return bestSolution;
+    }
+
+    /**
+     * Returns the string representation of this heuristic.
+     *
+     * @return the string representation of this heuristic (with parameters values).
+     */
+    public String toString() {
+        return String.format("%s (threads=%d, batch=%d, %s acceptable, acceptance=%s)", name, workers.length, batchSize,
+          firstAcceptable ? "first" : "best", criterion);
+    }
+
+
+    /**
+     * Selects the candidate to apply: the first acceptable one or the best
+     * acceptable one (the first one among ties).
+     *
+     * @return the index of the selected candidate or -1 if no candidate is
+     * acceptable.
+     */
+    private int select(int currentCost) {
+        int best = -1;
+        for (int b = 0; b < batchSize; b++) {
+            if (deltas[b] == Integer.MAX_VALUE || !criterion.accept(currentCost, currentCost + deltas[b]))
+                continue;
+            if (firstAcceptable)
+                return b;
+            if (best < 0 || deltas[b] < deltas[best])
+                best = b;
+        }
+        return best;
+    }
+
+    /**
+     * Evaluates (and rejects) the candidates assigned to a worker thread.
+     */
+    private boolean evaluate(int thread) {
+        for (int b = thread; b < batchSize; b += workers.length) {
+            Move move = sample(workers[thread], solutions[thread], seeds[b]);
+            if (move == null) {
+                deltas[b] = Integer.MAX_VALUE;
+                continue;
+            }
+            deltas[b] = move.doMove(solutions[thread]);
+            move.reject();
+        }
+        return true;
+    }
+
+    /**
+     * Applies the selected candidate to the copy of the solution of a worker
+     * thread; the candidate is replayed with the moves of the worker only in
+     * the thread that evaluated it.
+     *
+     * @return true if the candidate was replayed with the expected cost
+     * variation and false otherwise.
+     */
+    private boolean apply(int thread) {
+        Heuristic worker = selected % workers.length == thread ? workers[thread] : replayers[thread];
+        Move move = sample(worker, solutions[thread], seeds[selected]);
+        if (move == null) return false;
+
+        int delta = move.doMove(solutions[thread]);
+        move.accept();
+        return delta == deltas[selected];
+    }
+
+    /**
+     * Samples a (replayable) move of a heuristic with the given seed; the
+     * random number generator of the heuristic is shared with its moves, so
+     * the same seed also yields the same neighbor of identical solutions.
+     */
+    private Move sample(Heuristic worker, Solution solution, long seed) {
+        List<Move> workerMoves = worker.getMoves();
+
+        worker.random.setSeed(seed);
+        for (int i = 0; i < 10 * replayable.size(); i++) {
+            Move move = workerMoves.get(replayable.get(worker.random.nextInt(replayable.size())));
+            if (move.hasMove(solution))
+                return move;
+        }
+        return null;
+    }
+
+    /**
+     * Copies the solution of a worker thread to the other threads.
+     */
+    private void synchronize(int thread) {
+        for (int t = 0; t < solutions.length; t++)
+            if (t != thread)
+                solutions[t].copyFrom(solutions[thread]);
+    }
+}
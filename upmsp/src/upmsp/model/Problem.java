@@ -35,6 +35,40 @@ public class Problem {
     public final int setupTimes[][][];
 
 
+    /**
+     * Instantiates a new Problem from existing matrices (which are not copied).
+     *
+     * @param processTimes process times matrix: processTimes[machine][job]
+     * @param setupTimes   setup times matrix: setupTimes[machine][job_i][job_j]
+     */
+    public Problem(int processTimes[][], int setupTimes[][][]) {
+        this.nMachines = processTimes.length;
+        this.nJobs = processTimes[0].length;
+        this.processTimes = processTimes;
+        this.setupTimes = setupTimes;
+    }
+
+    /**
+     * Instantiates a new Problem which is a view of some machines of a parent problem. The matrices of the machines are
+     * shared with the parent (only the arrays of row references are allocated) and the machines are remapped: machine
+     * i of the view is machine machines[i] of the parent. Jobs keep the indices of the parent problem; solutions of the
+     * view are expected to contain only a subset of the jobs, so that methods which iterate over all jobs of a problem
+     * (e.g. constructive heuristics) must not be used with views.
+     *
+     * @param parent   the parent problem.
+     * @param machines the machines (of the parent problem) of the view.
+     */
+    public Problem(Problem parent, int machines[]) {
+        this.nMachines = machines.length;
+        this.nJobs = parent.nJobs;
+        this.processTimes = new int[machines.length][];
+        this.setupTimes = new int[machines.length][][];
+        for (int i = 0; i < machines.length; i++) {
+            processTimes[i] = parent.processTimes[machines[i]];
+            setupTimes[i] = parent.setupTimes[machines[i]];
+        }
+    }
+
     /**
      * Instantiates a new Problem from a file.
      *
@@ -0,0 +1,76 @@
+package upmsp.model.solution;
+
+import upmsp.model.*;
+
+import java.util.*;
+
+/**
+ * This class represents a cache of best insertions. For each pair (machine, job), it stores the best position to add
+ * the job to the machine (and the respective delta makespan), stamped with the signature of the machine at the time
+ * the entry was computed. An entry is therefore reused in O(1) while the sequence of the machine is the same, including
+ * after modifications that were undone (e.g. rejected moves). Since signatures depend only on the sequence, the cache
+ * may be shared by different solutions (and clones) of the same problem, but not by different threads.
+ *
+ * @author Tulio Toffolo
+ */
+public class InsertionCache {
+
+    private final int nJobs;
+
+    private final long signatures[];
+    private final int positions[];
+    private final int deltaCosts[];
+
+    /**
+     * Instantiates a new (empty) InsertionCache.
+     *
+     * @param problem the problem considered.
+     */
+    public InsertionCache(Problem problem) {
+        this.nJobs = problem.nJobs;
+
+        signatures = new long[problem.nMachines * problem.nJobs];
+        positions = new int[problem.nMachines * problem.nJobs];
+        deltaCosts = new int[problem.nMachines * problem.nJobs];
+        Arrays.fill(signatures, Long.MIN_VALUE);
+    }
+
+    /**
+     * Gets the cached best position to add job {@param job} to machine {@param machine}.
+     *
+     * @param machine the machine.
+     * @param job     the job to add.
+     * @return the best position to add the job or -1 if the entry is not available (or outdated).
+     */
+    public int getPosition(Machine machine, int job) {
+        int index = machine.id * nJobs + job;
+        return signatures[index] == machine.getSignature() ? positions[index] : -1;
+    }
+
+    /**
+     * Gets the cached delta makespan of adding job {@param job} to its best position in machine {@param machine}. This
+     * method must be called only if {@link #getPosition(Machine, int)} returned a valid position.
+     *
+     * @param machine the machine.
+     * @param job     the job to add.
+     * @return the delta makespan of adding the job to its best position.
+     */
+    public int getDeltaCost(Machine machine, int job) {
+        return deltaCosts[machine.id * nJobs + job];
+    }
+
+    /**
+     * Stores the best position to add job {@param job} to machine {@param machine} (in its current state).
+     *
+     * @param machine   the machine.
+     * @param job       the job to add.
+     * @param position  the best position to add the job.
+     * @param deltaCost the delta makespan of adding the job to the position.
+     */
+    public void put(Machine machine, int job, int position, int deltaCost) {
+        int index = machine.id * nJobs + job;
+        signatures[index] = machine.getSignature();
+        positions[index] = position;
+        deltaCosts[index] = deltaCost;
+    }
+}
@@ -11,6 +11,12 @@ import java.io.*;
  */
 public class Machine {
 
+    /**
+     * Whether the best-insertion scans use the specialized kernel (true) or
+     * the straightforward loop over {@link #getDeltaCostAddJob(int, int)}.
+     */
+    public static boolean fastInsertionScan = true;
+
     public final Solution solution;
     public final int id;
 
@@ -18,10 +24,15 @@ public class Machine {
 
     private int nJobs;
     private int makespan;
+    private long signature;
 
     private final int process[];
     private final int setup[][];
 
+    // cumulative (prefix) setup sums in forward and backward directions, lazily updated
+    private int fwdSetup[], bwdSetup[];
+    private int nValidCumulative = 0;
+
 
     /**
      * Instantiates a new Machine (of a Solution).
@@ -39,6 +50,7 @@ public class Machine {
         jobs = new int[solution.problem.nJobs];
         nJobs = 0;
         makespan = 0;
+        signature = arcSignature(-1, -1);
     }
 
 
@@ -62,7 +74,11 @@ public class Machine {
         assert index <= nJobs : "adding job to an invalid index in machine" + id;
 
         makespan += getDeltaCostAddJob(job, index);
+        int prev = index > 0 ? jobs[index - 1] : -1, next = index < nJobs ? jobs[index] : -1;
+        signature += arcSignature(prev, job) + arcSignature(job, next) - arcSignature(prev, next);
+        clearDontLookBits(prev, job, next);
         System.arraycopy(jobs, index, jobs, index + 1, nJobs - index);
+        invalidateCumulative(index);
 
         jobs[index] = job;
         if (++nJobs == 1)
@@ -82,10 +98,27 @@ public class Machine {
         System.arraycopy(jobs, 0, machine.jobs, 0, nJobs);
         machine.nJobs = nJobs;
         machine.makespan = makespan;
+        machine.signature = signature;
 
         return machine;
     }
 
+    /**
+     * Copies the sequence of jobs (and costs) of another machine, with the
+     * same id, into this machine, without allocating memory.
+     *
+     * @param machine the machine to copy from.
+     */
+    public void copyFrom(Machine machine) {
+        assert machine.id == id : "copying machine " + machine.id + " into machine " + id;
+
+        System.arraycopy(machine.jobs, 0, jobs, 0, machine.nJobs);
+        nJobs = machine.nJobs;
+        makespan = machine.makespan;
+        signature = machine.signature;
+        invalidateCumulative(0);
+    }
+
     /**
      * Deletes the job from the position {@param index}.
      *
@@ -95,7 +128,11 @@ public class Machine {
         assert index < nJobs : "deleting job from an invalid index in machine" + id;
 
         makespan += getDeltaCostDelJob(index);
+        int prev = index > 0 ? jobs[index - 1] : -1, next = index < nJobs - 1 ? jobs[index + 1] : -1;
+        signature += arcSignature(prev, next) - arcSignature(prev, jobs[index]) - arcSignature(jobs[index], next);
+        clearDontLookBits(prev, jobs[index], next);
         System.arraycopy(jobs, index + 1, jobs, index, nJobs - index - 1);
+        invalidateCumulative(index);
 
         if (--nJobs == 0)
             solution.nMachines--;
@@ -112,6 +149,20 @@ public class Machine {
         return makespan;
     }
 
+    /**
+     * Gets the signature of the sequence of jobs in this machine. The
+     * signature is a hash of the arcs of the sequence (including the arcs from
+     * and to a dummy job), which determine the sequence uniquely. It is
+     * updated in O(1) by every modification and, unlike a modification
+     * counter, it returns to its previous value when a modification is undone,
+     * so that it can be used to validate cached data.
+     *
+     * @return the signature of the sequence of jobs.
+     */
+    public long getSignature() {
+        return signature;
+    }
+
     /**
      * Gets the number of jobs in this machine.
      *
@@ -131,7 +182,96 @@ public class Machine {
         assert index < nJobs : "set≈ting job of an invalid index in machine" + id;
 
         makespan += getDeltaCostSetJob(job, index);
+        int prev = index > 0 ? jobs[index - 1] : -1, next = index < nJobs - 1 ? jobs[index + 1] : -1;
+        signature += arcSignature(prev, job) + arcSignature(job, next)
+          - arcSignature(prev, jobs[index]) - arcSignature(jobs[index], next);
+        clearDontLookBits(prev, jobs[index], next);
+        solution.clearDontLookJob(job);
         jobs[index] = job;
+        invalidateCumulative(index);
+
+        assert validate(System.err);
+    }
+
+    /**
+     * Reverses the subsequence of jobs between positions {@param index1} and
+     * {@param index2} (both inclusive).
+     *
+     * @param index1 first position of the subsequence.
+     * @param index2 last position of the subsequence.
+     */
+    public void reverseJobs(int index1, int index2) {
+        assert index1 <= index2 && index2 < nJobs : "reversing an invalid subsequence in machine" + id;
+
+        makespan += getDeltaCostReverseJobs(index1, index2);
+        int prev = index1 > 0 ? jobs[index1 - 1] : -1, next = index2 < nJobs - 1 ? jobs[index2 + 1] : -1;
+        signature += arcSignature(prev, jobs[index2]) + arcSignature(jobs[index1], next)
+          - arcSignature(prev, jobs[index1]) - arcSignature(jobs[index2], next);
+        for (int k = index1; k < index2; k++)
+            signature += arcSignature(jobs[k + 1], jobs[k]) - arcSignature(jobs[k], jobs[k + 1]);
+        clearDontLookBits(prev, jobs[index1], next);
+        for (int k = index1 + 1; k <= index2; k++)
+            solution.clearDontLookJob(jobs[k]);
+        for (int i = index1, j = index2; i < j; i++, j--) {
+            int job = jobs[i];
+            jobs[i] = jobs[j];
+            jobs[j] = job;
+        }
+        invalidateCumulative(index1);
+
+        assert validate(System.err);
+    }
+
+    /**
+     * Reorders the subsequence of jobs starting in position {@param index},
+     * i.e. replaces the {@param length} jobs starting in this position by the
+     * jobs in {@param sequence}, which must be a permutation of them.
+     *
+     * @param index    first position of the subsequence.
+     * @param sequence new order of the jobs of the subsequence.
+     * @param length   number of jobs in the subsequence.
+     */
+    public void setJobs(int index, int sequence[], int length) {
+        assert index + length <= nJobs : "reordering an invalid subsequence in machine" + id;
+
+        makespan -= getSetupSum(index - 1, index + length);
+        signature -= getArcsSignature(index - 1, index + length);
+        System.arraycopy(sequence, 0, jobs, index, length);
+        makespan += getSetupSum(index - 1, index + length);
+        signature += getArcsSignature(index - 1, index + length);
+
+        clearDontLookBits(index > 0 ? jobs[index - 1] : -1, jobs[index], index + length < nJobs ? jobs[index + length] : -1);
+        for (int k = index + 1; k < index + length; k++)
+            solution.clearDontLookJob(jobs[k]);
+        invalidateCumulative(index);
+
+        assert validate(System.err);
+    }
+
+    /**
+     * Replaces the whole sequence of jobs of this machine by the first
+     * {@param length} jobs of {@param sequence}.
+     *
+     * @param sequence new sequence of jobs.
+     * @param length   number of jobs in the new sequence.
+     */
+    public void setSequence(int sequence[], int length) {
+        solution.clearDontLookMachine(id);
+        for (int k = 0; k < nJobs; k++)
+            solution.clearDontLookJob(jobs[k]);
+
+        if (nJobs == 0 && length > 0) solution.nMachines++;
+        else if (nJobs > 0 && length == 0) solution.nMachines--;
+
+        System.arraycopy(sequence, 0, jobs, 0, length);
+        nJobs = length;
+        makespan = 0;
+        for (int k = 0; k < nJobs; k++) {
+            makespan += process[jobs[k]] + (k > 0 ? setup[jobs[k - 1]][jobs[k]] : 0);
+            solution.clearDontLookJob(jobs[k]);
+        }
+        signature = getArcsSignature(-1, nJobs);
+        invalidateCumulative(0);
 
         assert validate(System.err);
     }
@@ -157,6 +297,14 @@ public class Machine {
             }
         }
 
+        long signatureValue = arcSignature(nJobs > 0 ? jobs[nJobs - 1] : -1, -1);
+        for (int i = 0; i < nJobs; i++)
+            signatureValue += arcSignature(i > 0 ? jobs[i - 1] : -1, jobs[i]);
+        if (signatureValue != signature) {
+            valid = false;
+            Util.safePrintf(output, "Signature is wrong in machine %d\n", id);
+        }
+
         return valid;
     }
 
@@ -189,6 +337,78 @@ public class Machine {
         }
     }
 
+    /**
+     * Gets the position in which adding job {@param job} results in the
+     * smallest increase in the makespan. Ties are broken by the smallest
+     * position.
+     *
+     * @param job job to add.
+     * @return the best position (index) to add the job.
+     */
+    public int getBestPositionAddJob(int job) {
+        return getBestPositionAddJob(job, -1);
+    }
+
+    /**
+     * Gets the position in which adding job {@param job} results in the
+     * smallest increase in the makespan, ignoring position {@param
+     * skipIndex}. Ties are broken by the smallest position.
+     *
+     * @param job       job to add.
+     * @param skipIndex position that must not be considered (or -1).
+     * @return the best position (index) to add the job or -1 if there is
+     * none.
+     */
+    public int getBestPositionAddJob(int job, int skipIndex) {
+        if (nJobs == 0)
+            return skipIndex == 0 ? -1 : 0;
+        if (!fastInsertionScan)
+            return getBestPositionAddJobScalar(job, skipIndex);
+
+        // the setup row of the job is hoisted and the arc being broken is read
+        // from the row of the previous job, which is also used by the new arc
+        final int row[] = setup[job];
+
+        int pos = -1, cost = Integer.MAX_VALUE;
+        if (skipIndex != 0) {
+            pos = 0;
+            cost = row[jobs[0]];
+        }
+
+        int prevRow[] = setup[jobs[0]];
+        for (int p = 1; p < nJobs; p++) {
+            final int next = jobs[p];
+            final int simulatedCost = prevRow[job] + row[next] - prevRow[next];
+            if (simulatedCost < cost && p != skipIndex) {
+                cost = simulatedCost;
+                pos = p;
+            }
+            prevRow = setup[next];
+        }
+
+        if (prevRow[job] < cost && nJobs != skipIndex)
+            pos = nJobs;
+
+        return pos;
+    }
+
+    /**
+     * Scalar (reference) implementation of {@link
+     * #getBestPositionAddJob(int, int)}.
+     */
+    private int getBestPositionAddJobScalar(int job, int skipIndex) {
+        int pos = -1, cost = Integer.MAX_VALUE;
+        for (int p = 0; p <= nJobs; p++) {
+            if (p == skipIndex) continue;
+            int simulatedCost = getDeltaCostAddJob(job, p);
+            if (simulatedCost < cost) {
+                cost = simulatedCost;
+                pos = p;
+            }
+        }
+        return pos;
+    }
+
     /**
      * Gets the (delta) change in the makespan if job in position {@param index}
      * is removed.
@@ -215,6 +435,108 @@ public class Machine {
         }
     }
 
+    /**
+     * Gets the (delta) change in the makespan if the job in position {@param
+     * from} is moved to position {@param to}, i.e. if the job is removed and
+     * then added to position {@param to} of the resulting sequence.
+     *
+     * @param from position (index) of the job to move.
+     * @param to   position (index) to which the job will be moved.
+     * @return the delta makespan
+     */
+    public int getDeltaCostShiftJob(int from, int to) {
+        assert from < nJobs && to < nJobs : "shifting job from/to an invalid index in machine" + id;
+
+        if (from == to) return 0;
+        return getDeltaCostDelJob(from) + getDeltaCostAddJobWithout(jobs[from], from, to);
+    }
+
+    /**
+     * Gets the (delta) change in the makespan if the job in position {@param
+     * index} is removed and job {@param job} is added to position {@param to}
+     * of the resulting sequence.
+     *
+     * @param index position (index) of the job to remove.
+     * @param job   job to add.
+     * @param to    position (index) to which the job will be added.
+     * @return the delta makespan
+     */
+    public int getDeltaCostReplaceJob(int index, int job, int to) {
+        assert index < nJobs && to < nJobs : "replacing job from/to an invalid index in machine" + id;
+        return getDeltaCostDelJob(index) + getDeltaCostAddJobWithout(job, index, to);
+    }
+
+    /**
+     * Gets the position in which adding job {@param job} to the sequence
+     * without the job in position {@param index} results in the smallest
+     * increase in the makespan.
+     *
+     * @param index position (index) of the job (virtually) removed.
+     * @param job   job to add.
+     * @return the best position (index) to add the job in the resulting
+     * sequence.
+     */
+    public int getBestPositionReplaceJob(int index, int job) {
+        int pos = 0, cost = Integer.MAX_VALUE;
+        for (int p = 0; p < nJobs; p++) {
+            int simulatedCost = getDeltaCostAddJobWithout(job, index, p);
+            if (simulatedCost < cost) {
+                cost = simulatedCost;
+                pos = p;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Gets the (delta) change in the makespan if job {@param job} is added to
+     * position {@param to} of the sequence without the job in position {@param
+     * removed} (the removal itself is not considered).
+     */
+    private int getDeltaCostAddJobWithout(int job, int removed, int to) {
+        // neighbors of the new position in the sequence without the removed job
+        int prev = to > 0 ? jobs[to - 1 < removed ? to - 1 : to] : -1;
+        int next = to < nJobs - 1 ? jobs[to < removed ? to : to + 1] : -1;
+
+        int delta = process[job];
+        if (prev >= 0) delta += setup[prev][job];
+        if (next >= 0) delta += setup[job][next];
+        if (prev >= 0 && next >= 0) delta -= setup[prev][next];
+        return delta;
+    }
+
+    /**
+     * Gets the (delta) change in the makespan if the jobs in positions {@param
+     * index1} and {@param index2} are swapped. Unlike the sum of two calls to
+     * {@link #getDeltaCostSetJob(int, int)}, the value is exact for adjacent
+     * positions.
+     *
+     * @param index1 position (index) of the first job.
+     * @param index2 position (index) of the second job.
+     * @return the delta makespan
+     */
+    public int getDeltaCostSwapJobs(int index1, int index2) {
+        assert index1 < nJobs && index2 < nJobs : "swapping jobs of an invalid index in machine" + id;
+
+        if (index1 == index2) return 0;
+        if (index1 > index2) {
+            int index = index1;
+            index1 = index2;
+            index2 = index;
+        }
+
+        int job1 = jobs[index1], job2 = jobs[index2];
+        if (index2 > index1 + 1)
+            return getDeltaCostSetJob(job2, index1) + getDeltaCostSetJob(job1, index2);
+
+        int delta = setup[job2][job1] - setup[job1][job2];
+        if (index1 > 0)
+            delta += setup[jobs[index1 - 1]][job2] - setup[jobs[index1 - 1]][job1];
+        if (index2 < nJobs - 1)
+            delta += setup[job1][jobs[index2 + 1]] - setup[job2][jobs[index2 + 1]];
+        return delta;
+    }
+
     /**
      * Gets the (delta) change in the makespan if job in position {@param index}
      * is replaced by job {@param job}.
@@ -243,5 +565,119 @@ public class Machine {
         }
     }
 
+    /**
+     * Gets the (delta) change in the makespan if the subsequence of jobs
+     * between positions {@param index1} and {@param index2} (both inclusive)
+     * is reversed. Since setup times are asymmetric, the reversed arcs are
+     * evaluated with the cumulative forward and backward setup sums, so that
+     * the evaluation runs in O(1) (amortized).
+     *
+     * @param index1 first position of the subsequence.
+     * @param index2 last position of the subsequence.
+     * @return the delta makespan
+     */
+    public int getDeltaCostReverseJobs(int index1, int index2) {
+        assert index1 <= index2 && index2 < nJobs : "reversing an invalid subsequence in machine" + id;
+
+        if (index1 == index2) return 0;
+        updateCumulative(index2);
+
+        int delta = (bwdSetup[index2] - bwdSetup[index1]) - (fwdSetup[index2] - fwdSetup[index1]);
+        if (index1 > 0)
+            delta += setup[jobs[index1 - 1]][jobs[index2]] - setup[jobs[index1 - 1]][jobs[index1]];
+        if (index2 < nJobs - 1)
+            delta += setup[jobs[index1]][jobs[index2 + 1]] - setup[jobs[index2]][jobs[index2 + 1]];
+
+        return delta;
+    }
+
+    // endregion
+
+
+    // region don't-look bits, signature and cumulative setup sums
+
+    /**
+     * Clears the don't-look bits of this machine and of the given jobs (the
+     * job modified and its neighbors; negative values are ignored).
+     */
+    private void clearDontLookBits(int prev, int job, int next) {
+        solution.clearDontLookMachine(id);
+        solution.clearDontLookJob(prev);
+        solution.clearDontLookJob(job);
+        solution.clearDontLookJob(next);
+    }
+
+    /**
+     * Returns the sum of the signatures of the arcs between positions {@param
+     * from} and {@param to}, where positions -1 and nJobs represent the dummy
+     * job.
+     */
+    private long getArcsSignature(int from, int to) {
+        long value = 0;
+        for (int k = from; k < to; k++)
+            value += arcSignature(k >= 0 ? jobs[k] : -1, k + 1 < nJobs ? jobs[k + 1] : -1);
+        return value;
+    }
+
+    /**
+     * Returns the sum of the setup times of the arcs between positions {@param
+     * from} and {@param to} (positions out of the sequence are ignored).
+     */
+    private int getSetupSum(int from, int to) {
+        int value = 0;
+        for (int k = Math.max(from, 0); k < Math.min(to, nJobs - 1); k++)
+            value += setup[jobs[k]][jobs[k + 1]];
+        return value;
+    }
+
+    /**
+     * Returns the hash of the arc from {@param job1} to {@param job2}, where
+     * -1 represents the dummy job at the beginning and end of the sequence.
+     */
+    private static long arcSignature(int job1, int job2) {
+        long h = (job1 + 1L) * 0x9E3779B97F4A7C15L + (job2 + 2L) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Invalidates the cumulative setup sums from position {@param index} on.
+     * Note that the entry at {@param index} depends on the arc entering it.
+     *
+     * @param index first position whose cumulative sums became invalid.
+     */
+    private void invalidateCumulative(int index) {
+        if (index < nValidCumulative)
+            nValidCumulative = index;
+    }
+
+    /**
+     * Updates the cumulative setup sums up to position {@param index}
+     * (inclusive). Entry k of fwdSetup (bwdSetup) stores the sum of the setup
+     * times of the arcs between positions 0 and k in the forward (backward)
+     * direction.
+     *
+     * @param index last position to update.
+     */
+    private void updateCumulative(int index) {
+        if (index < nValidCumulative) return;
+
+        if (fwdSetup == null) {
+            fwdSetup = new int[jobs.length];
+            bwdSetup = new int[jobs.length];
+        }
+
+        if (nValidCumulative == 0) {
+            fwdSetup[0] = bwdSetup[0] = 0;
+            nValidCumulative = 1;
+        }
+        for (int k = nValidCumulative; k <= index; k++) {
+            fwdSetup[k] = fwdSetup[k - 1] + setup[jobs[k - 1]][jobs[k]];
+            bwdSetup[k] = bwdSetup[k - 1] + setup[jobs[k]][jobs[k - 1]];
+        }
+        nValidCumulative = index + 1;
+    }
+
     // endregion
 }
@@ -5,6 +5,7 @@ import upmsp.util.*;
 
 import java.io.*;
 import java.nio.file.*;
+import java.util.*;
 
 /**
  * This class represents a Solution of the Unrelated Parallel Machine Scheduling
@@ -21,6 +22,13 @@ public class Solution {
     protected int makespan;
     public Machine makespanMachine;
 
+    // second and third machines with largest makespans (updated by updateCost)
+    private Machine secondMachine, thirdMachine;
+
+    // don't-look bits of machines and jobs (bit k refers to the k-th neighborhood using them)
+    private final int dontLookMachines[];
+    private final int dontLookJobs[];
+
     private boolean assertOn = false;
 
     /**
@@ -40,6 +48,9 @@ public class Solution {
         makespan = 0;
         makespanMachine = machines[0];
 
+        dontLookMachines = new int[problem.nMachines];
+        dontLookJobs = new int[problem.nJobs];
+
         // *assigns* true if assertions are on.
         assert assertOn = true;
     }
@@ -60,6 +71,11 @@ public class Solution {
         nMachines = solution.nMachines;
         makespan = solution.makespan;
         makespanMachine = machines[solution.makespanMachine.id];
+        secondMachine = solution.secondMachine != null ? machines[solution.secondMachine.id] : null;
+        thirdMachine = solution.thirdMachine != null ? machines[solution.thirdMachine.id] : null;
+
+        dontLookMachines = solution.dontLookMachines.clone();
+        dontLookJobs = solution.dontLookJobs.clone();
 
         assertOn = solution.assertOn;
     }
@@ -71,6 +87,27 @@ public class Solution {
         return new Solution(this);
     }
 
+    /**
+     * Copies another solution (of the same problem) into this solution,
+     * without allocating memory. This is preferable to {@link #clone()} when
+     * solutions are frequently exchanged, e.g. through preallocated buffers.
+     *
+     * @param solution the solution to copy from.
+     */
+    public void copyFrom(Solution solution) {
+        for (int m = 0; m < machines.length; m++)
+            machines[m].copyFrom(solution.machines[m]);
+
+        nMachines = solution.nMachines;
+        makespan = solution.makespan;
+        makespanMachine = machines[solution.makespanMachine.id];
+        secondMachine = solution.secondMachine != null ? machines[solution.secondMachine.id] : null;
+        thirdMachine = solution.thirdMachine != null ? machines[solution.thirdMachine.id] : null;
+
+        System.arraycopy(solution.dontLookMachines, 0, dontLookMachines, 0, dontLookMachines.length);
+        System.arraycopy(solution.dontLookJobs, 0, dontLookJobs, 0, dontLookJobs.length);
+    }
+
     /**
      * Gets the solution makespan. Note the the makespan may be outdated if the
      * solution was modified. To ensure that it is updated, call {@link
@@ -91,6 +128,68 @@ public class Solution {
         return nMachines;
     }
 
+    /**
+     * Checks whether the don't-look bit of a machine is set for a neighborhood, i.e. whether the neighborhood already
+     * found no improvement involving the (unchanged) machine.
+     *
+     * @param machine      the machine id.
+     * @param neighborhood the index (bit) of the neighborhood.
+     * @return true if the don't-look bit is set and false otherwise.
+     */
+    public boolean isDontLookMachine(int machine, int neighborhood) {
+        return (dontLookMachines[machine] & (1 << neighborhood)) != 0;
+    }
+
+    /**
+     * Checks whether the don't-look bit of a job is set for a neighborhood.
+     *
+     * @param job          the job.
+     * @param neighborhood the index (bit) of the neighborhood.
+     * @return true if the don't-look bit is set and false otherwise.
+     */
+    public boolean isDontLookJob(int job, int neighborhood) {
+        return (dontLookJobs[job] & (1 << neighborhood)) != 0;
+    }
+
+    /**
+     * Sets the don't-look bit of a machine for a neighborhood. The bit is cleared whenever the machine is modified.
+     *
+     * @param machine      the machine id.
+     * @param neighborhood the index (bit) of the neighborhood.
+     */
+    public void setDontLookMachine(int machine, int neighborhood) {
+        dontLookMachines[machine] |= 1 << neighborhood;
+    }
+
+    /**
+     * Sets the don't-look bit of a job for a neighborhood. The bit is cleared whenever the job or its neighbors in the
+     * sequence are modified.
+     *
+     * @param job          the job.
+     * @param neighborhood the index (bit) of the neighborhood.
+     */
+    public void setDontLookJob(int job, int neighborhood) {
+        dontLookJobs[job] |= 1 << neighborhood;
+    }
+
+    /**
+     * Clears the don't-look bits (of all neighborhoods) of a machine.
+     *
+     * @param machine the machine id.
+     */
+    void clearDontLookMachine(int machine) {
+        dontLookMachines[machine] = 0;
+    }
+
+    /**
+     * Clears the don't-look bits (of all neighborhoods) of a job; negative values are ignored.
+     *
+     * @param job the job.
+     */
+    void clearDontLookJob(int job) {
+        if (job >= 0) dontLookJobs[job] = 0;
+    }
+
     /**
      * Reads a solution from a file.
      *
@@ -107,6 +206,9 @@ public class Solution {
         makespan = 0;
         makespanMachine = machines[0];
 
+        Arrays.fill(dontLookMachines, 0);
+        Arrays.fill(dontLookJobs, 0);
+
         BufferedReader reader = Files.newBufferedReader(Paths.get(filePath));
         SimpleTokenizer token;
 
@@ -146,15 +248,46 @@ public class Solution {
      */
     public int updateCost() {
         makespan = 0;
+        secondMachine = thirdMachine = null;
         for (Machine machine : machines) {
             if (machine.getMakespan() > makespan) {
+                thirdMachine = secondMachine;
+                secondMachine = makespan > 0 ? makespanMachine : null;
                 makespan = machine.getMakespan();
                 makespanMachine = machine;
             }
+            else if (secondMachine == null || machine.getMakespan() > secondMachine.getMakespan()) {
+                thirdMachine = secondMachine;
+                secondMachine = machine;
+            }
+            else if (thirdMachine == null || machine.getMakespan() > thirdMachine.getMakespan()) {
+                thirdMachine = machine;
+            }
         }
         return makespan;
     }
 
+    /**
+     * Gets the largest makespan among the machines other than {@param machine1}
+     * and {@param machine2} (which may be null) in O(1). Note that the value
+     * may be outdated if the solution was modified after the last call to
+     * {@link #updateCost()}.
+     *
+     * @param machine1 first machine to ignore.
+     * @param machine2 second machine to ignore.
+     * @return the largest makespan among the remaining machines (or 0 if there
+     * is no other machine).
+     */
+    public int getCostWithout(Machine machine1, Machine machine2) {
+        if (makespanMachine != machine1 && makespanMachine != machine2)
+            return makespan;
+        if (secondMachine != null && secondMachine != machine1 && secondMachine != machine2)
+            return secondMachine.getMakespan();
+        if (thirdMachine != null && thirdMachine != machine1 && thirdMachine != machine2)
+            return thirdMachine.getMakespan();
+        return 0;
+    }
+
     /**
      * Validates the solution.
      *
@@ -0,0 +1,109 @@
+package upmsp.model.solution;
+
+import upmsp.model.*;
+
+import java.util.*;
+
+/**
+ * This class represents the memory of a tabu search. Its attributes are pairs (job, machine): an attribute (j, m) is
+ * made tabu when job j leaves machine m (or is moved within machine m) and, while it is tabu, job j must not be placed
+ * on machine m. The memory is an array indexed by (machine, job) which stores the iteration until which each attribute
+ * is tabu, so that lookups and insertions are O(1) and attributes expire without any bookkeeping.
+ * <p>
+ * A tabu neighbor is nevertheless allowed (aspiration by global best) if its makespan is smaller than the aspiration
+ * cost, which is set by the tabu search to the cost of the best solution found so far.
+ *
+ * @author Tulio Toffolo
+ */
+public class TabuList {
+
+    private final int nJobs;
+    private final Random random;
+    private final int minTenure, maxTenure;
+
+    private final long expirations[];
+    private long iteration = 0;
+    private int aspirationCost = Integer.MIN_VALUE;
+
+    /**
+     * Instantiates a new (empty) TabuList. The tenure of each attribute is drawn uniformly from [minTenure,
+     * maxTenure].
+     *
+     * @param problem   the problem considered.
+     * @param random    random number generator.
+     * @param minTenure minimum number of iterations during which an attribute is tabu.
+     * @param maxTenure maximum number of iterations during which an attribute is tabu.
+     */
+    public TabuList(Problem problem, Random random, int minTenure, int maxTenure) {
+        this.nJobs = problem.nJobs;
+        this.random = random;
+        this.minTenure = minTenure;
+        this.maxTenure = Math.max(minTenure, maxTenure);
+
+        expirations = new long[problem.nMachines * problem.nJobs];
+    }
+
+    /**
+     * Makes attribute (job {@param job}, machine {@param machine}) tabu.
+     *
+     * @param job     the job.
+     * @param machine the machine.
+     */
+    public void add(int job, Machine machine) {
+        expirations[machine.id * nJobs + job] = iteration + minTenure + random.nextInt(maxTenure - minTenure + 1);
+    }
+
+    /**
+     * Returns whether a neighbor resulting in makespan {@param cost} is allowed by the aspiration criterion.
+     *
+     * @param cost the makespan of the neighbor.
+     * @return true if the neighbor improves the aspiration cost and false otherwise.
+     */
+    public boolean aspires(int cost) {
+        return cost < aspirationCost;
+    }
+
+    /**
+     * Returns whether attribute (job {@param job}, machine {@param machine}) is tabu.
+     *
+     * @param job     the job.
+     * @param machine the machine.
+     * @return true if the attribute is tabu and false otherwise.
+     */
+    public boolean isTabu(int job, Machine machine) {
+        return expirations[machine.id * nJobs + job] > iteration;
+    }
+
+    /**
+     * Advances the iteration counter (i.e. the "clock" of the memory).
+     */
+    public void nextIteration() {
+        iteration++;
+    }
+
+    /**
+     * Clears the memory.
+     */
+    public void reset() {
+        Arrays.fill(expirations, 0);
+        iteration = 0;
+        aspirationCost = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Sets the aspiration cost, i.e. the cost of the best solution found so far.
+     *
+     * @param aspirationCost the aspiration cost.
+     */
+    public void setAspirationCost(int aspirationCost) {
+        this.aspirationCost = aspirationCost;
+    }
+
+    public int getMinTenure() {
+        return minTenure;
+    }
+
+    public int getMaxTenure() {
+        return maxTenure;
+    }
+}
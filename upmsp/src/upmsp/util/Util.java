@@ -48,12 +48,14 @@ public class Util {
      */
     public static void safePrintMoveStatistics(PrintStream output, Move move, String special) {
         if (output != null) {
-            output.printf("    | %-18s | %8s | %8s | %8s | %8s |\n",
+            long nCacheLookups = move.getNCacheHits() + move.getNCacheMisses();
+            output.printf("    | %-18s | %8s | %8s | %8s | %8s | %8s |\n",
               move.name,
               longToString(move.getNImprovements()),
               longToString(move.getNSideways()),
               longToString(move.getNAccepts()),
-              longToString(move.getNRejects())
+              longToString(move.getNRejects()),
+              nCacheLookups == 0 ? "-" : String.format("%.1f%%", 100.0 * move.getNCacheHits() / nCacheLookups)
             );
         }
     }